@@ -2,8 +2,10 @@ package ru.springaio.insuranceprobackend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class InsuranceprobackendApplication {
 
 	public static void main(String[] args) {
@@ -4,23 +4,26 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.CredentialsExpiredException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import ru.springaio.insuranceprobackend.dto.JwtResponse;
 import ru.springaio.insuranceprobackend.dto.LoginRequest;
-import ru.springaio.insuranceprobackend.entity.User;
-import ru.springaio.insuranceprobackend.repository.UserRepository;
+import ru.springaio.insuranceprobackend.dto.RefreshTokenRequest;
+import ru.springaio.insuranceprobackend.security.AuthenticationExecutor;
 import ru.springaio.insuranceprobackend.security.JwtTokenProvider;
+import ru.springaio.insuranceprobackend.security.LoginThrottle;
+import ru.springaio.insuranceprobackend.security.RefreshTokenService;
+import ru.springaio.insuranceprobackend.security.UserPrincipal;
 
 // Контроллер для обработки запросов аутентификации
 @RestController
@@ -30,19 +33,25 @@ import ru.springaio.insuranceprobackend.security.JwtTokenProvider;
 @RequiredArgsConstructor
 public class AuthController {
 
-    // Менеджер аутентификации Spring Security для проверки учетных данных
-    private final AuthenticationManager authenticationManager;
-    // Репозиторий для работы с пользователями в базе данных
-    private final UserRepository userRepository;
+    // Проверка учетных данных на отдельном ограниченном пуле потоков (BCrypt)
+    private final AuthenticationExecutor authenticationExecutor;
+    // Лимиты попыток входа на логин и на IP-адрес
+    private final LoginThrottle loginThrottle;
     // Провайдер для работы с JWT токенами (генерация, валидация)
     private final JwtTokenProvider tokenProvider;
+    // Выдача и ротация refresh-токенов
+    private final RefreshTokenService refreshTokenService;
 
     // Обработчик POST запроса для входа пользователя в систему
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        // Лимит попыток проверяется до BCrypt: отклонённая попытка не тратит процессор
+        // IP-адрес клиента за прокси восстанавливается по X-Forwarded-For (server.forward-headers-strategy)
+        loginThrottle.acquire(loginRequest.getUsername(), request.getRemoteAddr());
+
         // Аутентификация пользователя с помощью Spring Security
         // Создается объект аутентификации с логином и паролем из запроса
-        Authentication authentication = authenticationManager.authenticate(
+        Authentication authentication = authenticationExecutor.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         loginRequest.getUsername(),  // Получение логина из DTO
                         loginRequest.getPassword()   // Получение пароля из DTO
@@ -56,26 +65,50 @@ public class AuthController {
         // Генерация JWT токена на основе данных аутентификации
         String jwt = tokenProvider.generateToken(authentication);
 
-        // Получение информации о пользователе из объекта аутентификации
-        // UserDetails - стандартный интерфейс Spring Security для информации о пользователе
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        
-        // Поиск полной информации о пользователе в базе данных по логину
-        User user = userRepository.findByLogin(userDetails.getUsername()).orElseThrow();
+        // Пользователь, загруженный при аутентификации: повторно читать таблицу users не нужно
+        UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
+
+        // Refresh-токен для продления сессии без повторной проверки пароля
+        return ResponseEntity.ok(tokenResponse(jwt, refreshTokenService.issue(user.getId()), user));
+    }
+
+    // Обработчик POST запроса для обмена refresh-токена на новую пару токенов
+    // Стоит одного чтения по первичному ключу и одной подписи HMAC вместо проверки BCrypt
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@RequestBody RefreshTokenRequest refreshRequest) {
+        // Предъявленный токен погашается; повторно его использовать нельзя
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken());
+        if (rotation == null) {
+            throw new CredentialsExpiredException("Refresh token is invalid or expired");
+        }
 
+        // Роль и признак активности прочитаны из users вместе с токеном, поэтому актуальны
+        UserPrincipal user = rotation.user();
+        return ResponseEntity.ok(tokenResponse(tokenProvider.generateToken(user), rotation.refreshToken(), user));
+    }
+
+    // Обработчик POST запроса для выхода: refresh-токен удаляется
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshTokenRequest refreshRequest) {
+        refreshTokenService.revoke(refreshRequest.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    private JwtResponse tokenResponse(String jwt, String refreshToken, UserPrincipal user) {
         // Преобразование списка прав (GrantedAuthority) в список строк (ролей)
         // GrantedAuthority представляет права/роли пользователя в Spring Security
-        List<String> roles = userDetails.getAuthorities().stream()
+        List<String> roles = user.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)  // Получение названия роли/права
                 .collect(Collectors.toList());        // Сбор в список
 
-        // Возврат успешного ответа с JWT токеном и информацией о пользователе
-        return ResponseEntity.ok(new JwtResponse(
+        // Ответ с JWT токеном, refresh-токеном и информацией о пользователе
+        return new JwtResponse(
                 jwt,                 // Сгенерированный JWT токен
+                refreshToken,        // Refresh-токен для /api/auth/refresh
                 user.getId(),        // ID пользователя из базы данных
                 user.getLogin(),     // Логин пользователя
                 user.getFullName(),  // Полное имя пользователя
                 roles                // Список ролей пользователя
-        ));
+        );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package ru.springaio.insuranceprobackend.controller;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+import ru.springaio.insuranceprobackend.dto.ClaimDto;
+import ru.springaio.insuranceprobackend.dto.ClaimQueueStatsDto;
+import ru.springaio.insuranceprobackend.service.ClaimService;
+import ru.springaio.insuranceprobackend.service.ClaimWorkerPool;
+
+// Контроллер для регистрации страховых убытков и их рассмотрения
+@RestController
+// Базовый путь для всех эндпоинтов убытков
+@RequestMapping("/api/claims")
+// Автоматически генерирует конструктор с обязательными полями (final зависимости)
+@RequiredArgsConstructor
+public class ClaimController {
+
+    // Сервис для бизнес-логики работы с убытками
+    private final ClaimService claimService;
+
+    // Пул обработчиков очереди убытков (источник метрик очереди)
+    private final ClaimWorkerPool claimWorkerPool;
+
+    // GET запрос для получения убытков по договору
+    @GetMapping
+    public ResponseEntity<List<ClaimDto>> getClaimsByContract(
+            // ID договора, убытки которого нужно получить
+            @RequestParam Long contractId) {
+        return ResponseEntity.ok(claimService.findByContract(contractId));
+    }
+
+    // GET запрос для получения конкретного убытка по его ID
+    @GetMapping("/{id}")
+    public ResponseEntity<ClaimDto> getClaimById(
+            // ID убытка, передаваемый в пути URL
+            @PathVariable Long id) {
+        return ResponseEntity.ok(claimService.findById(id));
+    }
+
+    // POST запрос для регистрации нового убытка по договору
+    // Убыток создаётся в статусе NEW и рассматривается обработчиками очереди автоматически
+    @PostMapping
+    public ResponseEntity<ClaimDto> registerClaim(
+            // Данные убытка в формате JSON (contractId, incidentDate и claimedAmount обязательны)
+            @RequestBody ClaimDto claimDto) {
+        return ResponseEntity.ok(claimService.register(claimDto));
+    }
+
+    // PUT запрос для решения специалиста по убытку, отправленному на ручное рассмотрение
+    // Доступен менеджеру и администратору
+    @PutMapping("/{id}/decision")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<ClaimDto> decideClaim(
+            // ID убытка
+            @PathVariable Long id,
+            // true — одобрить, false — отклонить
+            @RequestParam boolean approve,
+            // Сумма к выплате (необязательная; по умолчанию — заявленная, но не больше страховой)
+            @RequestParam(required = false) BigDecimal approvedAmount) {
+        return ResponseEntity.ok(claimService.decide(id, approve, approvedAmount));
+    }
+
+    // GET запрос для получения метрик очереди: глубина по статусам и скорость обработки
+    // Доступен менеджеру и администратору
+    @GetMapping("/queue")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<ClaimQueueStatsDto> getQueueStats() {
+        return ResponseEntity.ok(claimWorkerPool.getStats());
+    }
+}
@@ -1,5 +1,7 @@
 package ru.springaio.insuranceprobackend.controller;
 
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import lombok.RequiredArgsConstructor;
 import ru.springaio.insuranceprobackend.dto.ClientDto;
+import ru.springaio.insuranceprobackend.dto.CursorPageDto;
 import ru.springaio.insuranceprobackend.service.ClientService;
 
 // Контроллер для управления клиентами (CRUD операции)
@@ -26,6 +29,12 @@ import ru.springaio.insuranceprobackend.service.ClientService;
 @RequiredArgsConstructor
 public class ClientController {
 
+    // Максимальный размер страницы в режиме курсора
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+
+    // Максимальное число результатов поиска
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     // Сервис для бизнес-логики работы с клиентами
     private final ClientService clientService;
 
@@ -44,6 +53,34 @@ public class ClientController {
         return ResponseEntity.ok(clientService.findAll(fullName, passport, phone, pageable));
     }
 
+    // GET запрос для постраничного обхода клиентов по курсору (keyset-пагинация)
+    // Включается параметром cursor (пустое значение — первая страница); COUNT(*) не выполняется
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDto<ClientDto>> getClientsByCursor(
+            @RequestParam(required = false) String fullName,
+            @RequestParam(required = false) String passport,
+            @RequestParam(required = false) String phone,
+            // Курсор, полученный в поле nextCursor предыдущей страницы
+            @RequestParam String cursor,
+            // Размер страницы (ограничен сверху MAX_CURSOR_PAGE_SIZE)
+            @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        return ResponseEntity.ok(clientService.findAllByCursor(fullName, passport, phone, cursor, pageSize));
+    }
+
+    // GET запрос для поиска клиентов по ФИО или телефону с ранжированием по похожести
+    // На PostgreSQL использует триграммные индексы (pg_trgm) и находит варианты с опечатками
+    @GetMapping("/search")
+    public ResponseEntity<List<ClientDto>> searchClients(
+            // Строка поиска
+            @RequestParam String q,
+            // Максимальное число результатов (ограничено сверху MAX_SEARCH_RESULTS)
+            @RequestParam(defaultValue = "20") int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SEARCH_RESULTS));
+        // Возвращает список, упорядоченный от наиболее похожих к наименее похожим
+        return ResponseEntity.ok(clientService.search(q, limit));
+    }
+
     // GET запрос для получения конкретного клиента по его ID
     @GetMapping("/{id}")
     public ResponseEntity<ClientDto> getClientById(
@@ -1,11 +1,16 @@
 package ru.springaio.insuranceprobackend.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,9 +22,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import ru.springaio.insuranceprobackend.dto.ContractDto;
+import ru.springaio.insuranceprobackend.dto.ContractImportResultDto;
+import ru.springaio.insuranceprobackend.dto.CursorPageDto;
+import ru.springaio.insuranceprobackend.dto.ProductDetailsDto;
+import ru.springaio.insuranceprobackend.service.ContractExporter;
+import ru.springaio.insuranceprobackend.service.ContractImportService;
 import ru.springaio.insuranceprobackend.service.ContractService;
+import ru.springaio.insuranceprobackend.service.ProductDetailsService;
 
 // Контроллер для управления договорами страхования (CRUD операции)
 @RestController
@@ -29,9 +41,24 @@ import ru.springaio.insuranceprobackend.service.ContractService;
 @RequiredArgsConstructor
 public class ContractController {
 
+    // Максимальный размер страницы в режиме курсора
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+
+    // Максимальное число результатов поиска
+    private static final int MAX_SEARCH_RESULTS = 100;
+
+    // Максимальное число договоров в одном запросе данных продукта
+    private static final int MAX_DETAILS_BATCH = 1000;
+
     // Сервис для бизнес-логики работы с договорами
     private final ContractService contractService;
 
+    // Сервис потокового импорта договоров
+    private final ContractImportService contractImportService;
+
+    // Сервис данных продукта (КАСКО, ОСАГО, страхование жизни и недвижимости)
+    private final ProductDetailsService productDetailsService;
+
     // GET запрос для получения всех договоров с поддержкой пагинации и расширенной фильтрации
     @GetMapping
     public ResponseEntity<Page<ContractDto>> getAllContracts(
@@ -52,6 +79,56 @@ public class ContractController {
         return ResponseEntity.ok(contractService.findAll(contractNumber, insuranceType, status, start, end, pageable));
     }
 
+    // GET запрос для постраничного обхода договоров по курсору (keyset-пагинация)
+    // Включается параметром cursor (пустое значение — первая страница); COUNT(*) не выполняется
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDto<ContractDto>> getContractsByCursor(
+            @RequestParam(required = false) String contractNumber,
+            @RequestParam(required = false) String insuranceType,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            // Курсор, полученный в поле nextCursor предыдущей страницы
+            @RequestParam String cursor,
+            // Размер страницы (ограничен сверху MAX_CURSOR_PAGE_SIZE)
+            @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        return ResponseEntity.ok(contractService.findAllByCursor(contractNumber, insuranceType, status, start, end, cursor, pageSize));
+    }
+
+    // GET запрос для поиска договоров по номеру договора с ранжированием по похожести
+    // На PostgreSQL использует триграммные индексы (pg_trgm) и находит варианты с опечатками
+    @GetMapping("/search")
+    public ResponseEntity<List<ContractDto>> searchContracts(
+            // Строка поиска
+            @RequestParam String q,
+            // Максимальное число результатов (ограничено сверху MAX_SEARCH_RESULTS)
+            @RequestParam(defaultValue = "20") int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SEARCH_RESULTS));
+        // Возвращает список, упорядоченный от наиболее похожих к наименее похожим
+        return ResponseEntity.ok(contractService.search(q, limit));
+    }
+
+    // GET запрос для выгрузки договоров в CSV или JSON Lines с теми же фильтрами, что и список
+    // Строки пишутся в ответ по мере чтения курсора БД, без построения страниц и списков
+    @GetMapping("/export")
+    public void exportContracts(
+            @RequestParam(required = false) String contractNumber,
+            @RequestParam(required = false) String insuranceType,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            // Формат выгрузки: csv (по умолчанию) или ndjson
+            @RequestParam(defaultValue = "csv") String format,
+            // Ответ пишется напрямую в поток сервлета
+            HttpServletResponse response) throws IOException {
+        ContractExporter.Format exportFormat = "ndjson".equalsIgnoreCase(format) ? ContractExporter.Format.NDJSON : ContractExporter.Format.CSV;
+        String fileName = exportFormat == ContractExporter.Format.CSV ? "contracts.csv" : "contracts.ndjson";
+        response.setContentType(exportFormat == ContractExporter.Format.CSV ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString());
+        contractService.export(contractNumber, insuranceType, status, start, end, exportFormat, response.getOutputStream());
+    }
+
     // GET запрос для получения конкретного договора по его ID
     @GetMapping("/{id}")
     public ResponseEntity<ContractDto> getContractById(
@@ -61,6 +138,28 @@ public class ContractController {
         return ResponseEntity.ok(contractService.findById(id));
     }
 
+    // GET запрос для получения данных продукта по договору
+    // Тип ответа (поле insuranceTypeCode) и таблица для запроса определяются видом страхования договора
+    @GetMapping("/{id}/details")
+    public ResponseEntity<ProductDetailsDto> getContractDetails(
+            // ID договора, передаваемый в пути URL
+            @PathVariable Long id) {
+        return ResponseEntity.ok(productDetailsService.findByContract(id));
+    }
+
+    // GET запрос для получения данных продукта сразу для нескольких договоров (например, для страницы списка)
+    // Выполняет по одному запросу на каждый встретившийся вид страхования
+    @GetMapping("/details")
+    public ResponseEntity<List<ProductDetailsDto>> getContractsDetails(
+            // Список ID договоров через запятую (не больше MAX_DETAILS_BATCH)
+            @RequestParam List<Long> ids) {
+        if (ids.size() > MAX_DETAILS_BATCH) {
+            throw new RuntimeException("Too many contract ids, maximum is " + MAX_DETAILS_BATCH);
+        }
+        // Договоры без данных продукта в ответ не попадают
+        return ResponseEntity.ok(productDetailsService.findByContracts(ids));
+    }
+
     // POST запрос для создания нового договора
     @PostMapping
     public ResponseEntity<ContractDto> createContract(
@@ -70,6 +169,22 @@ public class ContractController {
         return ResponseEntity.ok(contractService.save(contractDto));
     }
 
+    // POST запрос для массового импорта договоров из CSV
+    // Первая строка — заголовок с именами полей ContractDto; файл читается потоком и сохраняется порциями
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ContractImportResultDto> importContractsCsv(
+            // Тело запроса читается напрямую, без загрузки файла в память
+            InputStream body) {
+        // Возвращает число импортированных строк и ошибки по номерам строк
+        return ResponseEntity.ok(contractImportService.importCsv(body));
+    }
+
+    // POST запрос для массового импорта договоров из JSON Lines (один объект ContractDto на строку)
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "application/jsonl"})
+    public ResponseEntity<ContractImportResultDto> importContractsJsonLines(InputStream body) {
+        return ResponseEntity.ok(contractImportService.importJsonLines(body));
+    }
+
     // PUT запрос для обновления существующего договора
     @PutMapping("/{id}")
     public ResponseEntity<ContractDto> updateContract(
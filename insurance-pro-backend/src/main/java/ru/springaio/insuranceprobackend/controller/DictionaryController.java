@@ -1,54 +1,89 @@
 package ru.springaio.insuranceprobackend.controller;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import lombok.RequiredArgsConstructor;
 import ru.springaio.insuranceprobackend.dto.DictionaryDto;
-import ru.springaio.insuranceprobackend.repository.ContractStatusRepository;
-import ru.springaio.insuranceprobackend.repository.InsuranceTypeRepository;
+import ru.springaio.insuranceprobackend.service.DictionaryRegistry;
 
 // Контроллер для работы со справочниками (dictionaries) системы
 // Справочники содержат фиксированные данные, такие как типы страхования, статусы договоров
 @RestController
 // Базовый путь для всех эндпоинтов справочников
 @RequestMapping("/api/dictionaries")
-// Автоматически генерирует конструктор с обязательными полями (final зависимости)
-@RequiredArgsConstructor
 public class DictionaryController {
 
-    // Репозиторий для работы с типами страхования в базе данных
-    // Хранит справочник видов страхования (ОСАГО, КАСКО, недвижимость и т.д.)
-    private final InsuranceTypeRepository insuranceTypeRepository;
-    
-    // Репозиторий для работы со статусами договоров в базе данных
-    // Хранит справочник возможных статусов договора (активен, расторгнут, на рассмотрении и т.д.)
-    private final ContractStatusRepository contractStatusRepository;
+    // Реестр справочников в памяти, загружаемый при старте приложения
+    // Избавляет от запроса к базе данных на каждое обращение к справочнику
+    private final DictionaryRegistry dictionaryRegistry;
+
+    // Заголовок Cache-Control для ответов со справочниками
+    // При нулевом max-age браузер кэширует ответ, но перепроверяет его по ETag (получая 304)
+    private final CacheControl cacheControl;
+
+    public DictionaryController(DictionaryRegistry dictionaryRegistry,
+                                @Value("${dictionaries.cache-max-age:PT0S}") Duration cacheMaxAge) {
+        this.dictionaryRegistry = dictionaryRegistry;
+        this.cacheControl = cacheMaxAge.isZero()
+                ? CacheControl.noCache().cachePrivate()
+                : CacheControl.maxAge(cacheMaxAge).cachePrivate();
+    }
 
     // GET запрос для получения списка всех типов страхования
     @GetMapping("/insurance-types")
     public ResponseEntity<List<DictionaryDto>> getInsuranceTypes() {
-        // Возвращает список всех типов страхования в формате DTO
-        return ResponseEntity.ok(insuranceTypeRepository.findAll().stream()
-                // Преобразование каждой сущности InsuranceType в DictionaryDto
-                .map(t -> new DictionaryDto(t.getCode(), t.getName()))
-                // Сбор всех элементов в список
-                .collect(Collectors.toList()));
+        // Справочник видов страхования (ОСАГО, КАСКО, недвижимость и т.д.)
+        return dictionary(DictionaryRegistry.INSURANCE_TYPES);
     }
 
     // GET запрос для получения списка всех статусов договоров
     @GetMapping("/contract-statuses")
     public ResponseEntity<List<DictionaryDto>> getContractStatuses() {
-        // Возвращает список всех статусов договоров в формате DTO
-        return ResponseEntity.ok(contractStatusRepository.findAll().stream()
-                // Преобразование каждой сущности ContractStatus в DictionaryDto
-                .map(s -> new DictionaryDto(s.getCode(), s.getName()))
-                // Сбор всех элементов в список
-                .collect(Collectors.toList()));
-    }
-}
\ No newline at end of file
+        // Справочник возможных статусов договора (активен, расторгнут, на рассмотрении и т.д.)
+        return dictionary(DictionaryRegistry.CONTRACT_STATUSES);
+    }
+
+    // GET запрос для получения списка всех статусов платежей
+    @GetMapping("/payment-statuses")
+    public ResponseEntity<List<DictionaryDto>> getPaymentStatuses() {
+        return dictionary(DictionaryRegistry.PAYMENT_STATUSES);
+    }
+
+    // GET запрос для получения списка всех статусов страховых случаев
+    @GetMapping("/claim-statuses")
+    public ResponseEntity<List<DictionaryDto>> getClaimStatuses() {
+        return dictionary(DictionaryRegistry.CLAIM_STATUSES);
+    }
+
+    // GET запрос для получения списка всех ролей пользователей
+    @GetMapping("/user-roles")
+    public ResponseEntity<List<DictionaryDto>> getUserRoles() {
+        return dictionary(DictionaryRegistry.USER_ROLES);
+    }
+
+    // POST запрос для перечитывания справочников из базы данных
+    // Нужен после ручного изменения таблиц справочников; доступен только администратору
+    @PostMapping("/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> reload() {
+        dictionaryRegistry.reload();
+        // 204 No Content — справочники перечитаны, ETag изменится, если изменилось содержимое
+        return ResponseEntity.noContent().build();
+    }
+
+    private ResponseEntity<List<DictionaryDto>> dictionary(String name) {
+        DictionaryRegistry.Dictionary dictionary = dictionaryRegistry.get(name);
+        // Строгий ETag и Cache-Control позволяют браузеру переиспользовать сохранённый ответ
+        // Если ETag совпадает с If-None-Match, Spring сам отвечает 304 Not Modified без тела
+        return ResponseEntity.ok().eTag(dictionary.etag()).cacheControl(cacheControl).body(dictionary.entries());
+    }
+}
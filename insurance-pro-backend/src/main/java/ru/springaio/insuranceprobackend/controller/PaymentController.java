@@ -0,0 +1,94 @@
+package ru.springaio.insuranceprobackend.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+import ru.springaio.insuranceprobackend.dto.PaymentDto;
+import ru.springaio.insuranceprobackend.dto.SettlementReportDto;
+import ru.springaio.insuranceprobackend.service.PaymentService;
+import ru.springaio.insuranceprobackend.service.PaymentSettlementService;
+
+// Контроллер для регистрации платежей по договорам и управления их проведением
+@RestController
+// Базовый путь для всех эндпоинтов платежей
+@RequestMapping("/api/payments")
+// Автоматически генерирует конструктор с обязательными полями (final зависимости)
+@RequiredArgsConstructor
+public class PaymentController {
+
+    // Сервис для бизнес-логики работы с платежами
+    private final PaymentService paymentService;
+
+    // Сервис пакетного проведения платежей
+    private final PaymentSettlementService paymentSettlementService;
+
+    // GET запрос для получения платежей по договору (в порядке даты платежа)
+    @GetMapping
+    public ResponseEntity<List<PaymentDto>> getPaymentsByContract(
+            // ID договора, платежи которого нужно получить
+            @RequestParam Long contractId) {
+        return ResponseEntity.ok(paymentService.findByContract(contractId));
+    }
+
+    // GET запрос для получения конкретного платежа по его ID
+    @GetMapping("/{id}")
+    public ResponseEntity<PaymentDto> getPaymentById(
+            // ID платежа, передаваемый в пути URL
+            @PathVariable Long id) {
+        return ResponseEntity.ok(paymentService.findById(id));
+    }
+
+    // POST запрос для регистрации нового платежа по договору
+    // Платёж создаётся в статусе PENDING и проводится пакетным заданием
+    @PostMapping
+    public ResponseEntity<PaymentDto> registerPayment(
+            // Данные платежа в формате JSON (contractId и amount обязательны)
+            @RequestBody PaymentDto paymentDto) {
+        return ResponseEntity.ok(paymentService.register(paymentDto));
+    }
+
+    // PUT запрос для подтверждения платежа номером банковской транзакции
+    // Только подтверждённые платежи попадают в проведение
+    @PutMapping("/{id}/confirm")
+    public ResponseEntity<PaymentDto> confirmPayment(
+            // ID платежа
+            @PathVariable Long id,
+            // Номер транзакции из банковской выписки
+            @RequestParam String transactionNumber) {
+        return ResponseEntity.ok(paymentService.confirm(id, transactionNumber));
+    }
+
+    // POST запрос для немедленного запуска проведения платежей (обычно выполняется по расписанию)
+    // Доступен только администратору
+    @PostMapping("/settlement")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SettlementReportDto> runSettlement(
+            // Дата проведения: проводятся платежи с датой не позже неё (по умолчанию — сегодня)
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        // Возвращает отчёт: число проведённых платежей, длительность, скорость и отставание
+        return ResponseEntity.ok(paymentSettlementService.settle(date != null ? date : LocalDate.now()));
+    }
+
+    // GET запрос для получения отчёта о последнем проведении
+    // Доступен только администратору
+    @GetMapping("/settlement")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SettlementReportDto> getLastSettlement() {
+        SettlementReportDto report = paymentSettlementService.getLastReport();
+        // 204 No Content, если проведение ещё не запускалось
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,59 @@
+package ru.springaio.insuranceprobackend.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+import ru.springaio.insuranceprobackend.dto.QuoteDto;
+import ru.springaio.insuranceprobackend.dto.QuoteRequestDto;
+import ru.springaio.insuranceprobackend.dto.RepricingReportDto;
+import ru.springaio.insuranceprobackend.service.PortfolioRepricingService;
+import ru.springaio.insuranceprobackend.service.TariffEngine;
+
+// Контроллер для расчёта страховой премии по тарифам
+@RestController
+// Базовый путь для всех эндпоинтов расчёта
+@RequestMapping("/api/quotes")
+// Автоматически генерирует конструктор с обязательными полями (final зависимости)
+@RequiredArgsConstructor
+public class QuoteController {
+
+    // Тарифный калькулятор: коэффициенты хранятся в памяти
+    private final TariffEngine tariffEngine;
+
+    // Сервис пересчёта премий по всему портфелю
+    private final PortfolioRepricingService portfolioRepricingService;
+
+    // POST запрос для расчёта премии без сохранения договора
+    @PostMapping
+    public ResponseEntity<QuoteDto> quote(
+            // Вид страхования, срок и данные продукта в формате JSON
+            @RequestBody QuoteRequestDto request) {
+        return ResponseEntity.ok(tariffEngine.quote(request));
+    }
+
+    // POST запрос для пересчёта премий всех договоров по текущим тарифам
+    // Доступен только администратору
+    @PostMapping("/reprice")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RepricingReportDto> reprice(
+            // false — пробный прогон: только отчёт, премии не меняются
+            @RequestParam(defaultValue = "false") boolean apply) {
+        return ResponseEntity.ok(portfolioRepricingService.reprice(apply));
+    }
+
+    // POST запрос для перечитывания тарифных коэффициентов из БД
+    // Доступен только администратору
+    @PostMapping("/tariffs/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> reloadTariffs() {
+        tariffEngine.reload();
+        // 204 No Content
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,50 @@
+package ru.springaio.insuranceprobackend.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+import ru.springaio.insuranceprobackend.dto.RenewalReportDto;
+import ru.springaio.insuranceprobackend.service.ContractRenewalService;
+
+// Контроллер для управления пролонгацией договоров (обычно выполняется ночным заданием)
+@RestController
+// Базовый путь для всех эндпоинтов пролонгации
+@RequestMapping("/api/renewals")
+// Автоматически генерирует конструктор с обязательными полями (final зависимости)
+@RequiredArgsConstructor
+public class RenewalController {
+
+    // Сервис пакетного создания черновиков пролонгации
+    private final ContractRenewalService contractRenewalService;
+
+    // POST запрос для немедленного запуска пролонгации
+    // Незавершённый после сбоя прогон продолжается с необработанных диапазонов
+    // Доступен только администратору
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RenewalReportDto> runRenewal(
+            // Дата прогона: пролонгируются договоры, заканчивающиеся в пределах горизонта от неё (по умолчанию — сегодня)
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        // Возвращает отчёт: число черновиков, разделов, длительность и скорость
+        return ResponseEntity.ok(contractRenewalService.renew(date != null ? date : LocalDate.now()));
+    }
+
+    // GET запрос для получения отчёта о последнем прогоне
+    // Доступен только администратору
+    @GetMapping("/last")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RenewalReportDto> getLastRenewal() {
+        RenewalReportDto report = contractRenewalService.getLastReport();
+        // 204 No Content, если пролонгация ещё не запускалась
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.noContent().build();
+    }
+}
@@ -4,12 +4,15 @@ import java.time.LocalDate;
 
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import lombok.RequiredArgsConstructor;
+import ru.springaio.insuranceprobackend.dto.StatisticsConsistencyDto;
 import ru.springaio.insuranceprobackend.dto.StatisticsDto;
 import ru.springaio.insuranceprobackend.service.StatisticsService;
 
@@ -38,4 +41,28 @@ public class StatisticsController {
         // Если даты не указаны, возвращает статистику за весь период
         return ResponseEntity.ok(statisticsService.getStatistics(startDate, endDate));
     }
-}
\ No newline at end of file
+
+    // POST запрос для полного пересчёта дневных агрегатов статистики из таблиц договоров и клиентов
+    // Доступен только администратору
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuild() {
+        // Удаляет и заново заполняет агрегаты в одной транзакции
+        statisticsService.rebuild();
+        // 204 No Content — пересчёт выполнен
+        return ResponseEntity.noContent().build();
+    }
+
+    // GET запрос для сверки агрегатов с расчётом по исходным таблицам за указанный период
+    // Доступен только администратору
+    @GetMapping("/consistency")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StatisticsConsistencyDto> checkConsistency(
+            // Начальная дата периода сверки (необязательный параметр)
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            // Конечная дата периода сверки (необязательный параметр)
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        // Возвращает признак согласованности и список расхождений по системе в целом и по каждому агенту
+        return ResponseEntity.ok(statisticsService.checkConsistency(startDate, endDate));
+    }
+}
@@ -0,0 +1,12 @@
+package ru.springaio.insuranceprobackend.datasource;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+// Соединение не освободилось за время ожидания в очереди ConnectionLimiter
+public class ConnectionLimitExceededException extends SQLTransientConnectionException {
+
+    public ConnectionLimitExceededException(int limit, Duration timeout) {
+        super("All " + limit + " database connections are busy, waited " + timeout.toMillis() + " ms");
+    }
+}
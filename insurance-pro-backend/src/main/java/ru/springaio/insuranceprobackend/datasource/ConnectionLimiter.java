@@ -0,0 +1,73 @@
+package ru.springaio.insuranceprobackend.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Допуск к соединениям БД: одновременно выдаётся не больше соединений, чем в пуле HikariCP,
+// остальные запросы ждут в честной (FIFO) очереди семафора. Ожидание на семафоре паркует виртуальный
+// поток, не занимая поток-носитель, и не доходит до connectionTimeout пула. Не дождавшиеся за timeout
+// получают ConnectionLimitExceededException, которую GlobalExceptionHandler отдаёт как 503
+public class ConnectionLimiter implements MeterBinder {
+
+    private final int limit;
+    private final Duration timeout;
+    private final Semaphore permits;
+    private volatile Timer waits;
+
+    public ConnectionLimiter(int limit, Duration timeout) {
+        this.limit = limit;
+        this.timeout = timeout;
+        this.permits = new Semaphore(limit, true);
+    }
+
+    public void acquire() throws SQLException {
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", ex);
+        }
+        Timer timer = waits;
+        if (timer != null) {
+            timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            throw new ConnectionLimitExceededException(limit, timeout);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getAvailable() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.limiter.available", permits, Semaphore::availablePermits)
+                .description("Free connection permits")
+                .register(registry);
+        Gauge.builder("db.limiter.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a connection permit")
+                .register(registry);
+        waits = Timer.builder("db.limiter.wait")
+                .description("Time spent waiting for a connection permit")
+                .register(registry);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.springaio.insuranceprobackend.datasource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Ограничитель соединений включается вместе с виртуальными потоками (database.limiter.enabled):
+// без пула потоков Tomcat число одновременных запросов к БД ничем больше не ограничено.
+// Размер берётся из spring.datasource.hikari.maximum-pool-size (по умолчанию 10, как у HikariCP)
+@Configuration
+@ConditionalOnProperty(name = "database.limiter.enabled", havingValue = "true")
+public class ConnectionLimiterConfig {
+
+    // С репликами (ReplicationConfig) чтения расходятся по нескольким пулам: допуск — их суммарный размер
+    @Bean
+    public ConnectionLimiter connectionLimiter(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                               @Value("${database.limiter.timeout:PT10S}") Duration timeout,
+                                               ObjectProvider<ReplicationProperties> replication) {
+        int limit = poolSize + replication.stream()
+                .flatMap(properties -> properties.getReplicas().stream())
+                .mapToInt(replica -> replica.getPoolSize() != null ? replica.getPoolSize() : poolSize)
+                .sum();
+        return new ConnectionLimiter(limit, timeout);
+    }
+
+    // static: постпроцессор создаётся раньше остальных бинов конфигурации
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(ObjectProvider<ConnectionLimiter> limiter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    return new ConnectionLimitingDataSource(dataSource, limiter.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,174 @@
+package ru.springaio.insuranceprobackend.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Выбор реплики для readOnly-транзакции. Фоновая проверка раз в lag-check-interval измеряет отставание
+// каждой реплики; запросы по кругу получают реплики с отставанием не больше maxLag. Реплика, к которой
+// не удалось подключиться, исключается до следующей проверки; занятый пул (таймаут ожидания соединения)
+// отправляет на основную БД только текущий запрос. Если подходящих нет, getConnection возвращает null
+// и ReplicaRoutingDataSource берёт соединение основной БД
+@Slf4j
+public class ReplicaRouter implements MeterBinder, AutoCloseable {
+
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final String lagQuery;
+        private final LongAdder connections = new LongAdder();
+        private final LongAdder busy = new LongAdder();
+        // NaN — отставание неизвестно (реплика недоступна или ещё не проверялась)
+        private volatile double lagSeconds = Double.NaN;
+        private volatile boolean available;
+
+        public Replica(String name, DataSource dataSource, String lagQuery) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.lagQuery = lagQuery;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        public double getLagSeconds() {
+            return lagSeconds;
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder primaryFallbacks = new LongAdder();
+
+    public ReplicaRouter(List<Replica> replicas, Duration maxLag) {
+        this.replicas = List.copyOf(replicas);
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        checkLag();
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public Connection getConnection() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.connections.increment();
+                return connection;
+            } catch (SQLTransientConnectionException ex) {
+                // Hikari бросает его и при исчерпании пула, и когда реплика не отвечает; во втором случае
+                // причиной указана последняя ошибка подключения
+                if (ex.getCause() != null) {
+                    markUnavailable(replica, ex);
+                } else {
+                    replica.busy.increment();
+                }
+            } catch (SQLException ex) {
+                markUnavailable(replica, ex);
+            }
+        }
+        primaryFallbacks.increment();
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${database.replication.lag-check-interval:PT1S}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(1);
+                double lag;
+                try (ResultSet rs = statement.executeQuery(replica.lagQuery)) {
+                    lag = rs.next() ? rs.getDouble(1) : 0;
+                }
+                replica.lagSeconds = lag;
+                boolean available = lag <= maxLagSeconds;
+                if (available != replica.available) {
+                    if (available) {
+                        log.info("Replica {} is back in rotation, lag {} s", replica.name, lag);
+                    } else {
+                        log.warn("Replica {} lags {} s behind primary, reads go elsewhere", replica.name, lag);
+                    }
+                }
+                replica.available = available;
+            } catch (SQLTransientConnectionException ex) {
+                // Пул занят чтениями: реплика отвечает, её состояние проверится в следующий раз
+                if (ex.getCause() != null) {
+                    markUnavailable(replica, ex);
+                }
+            } catch (SQLException | RuntimeException ex) {
+                markUnavailable(replica, ex);
+            }
+        }
+    }
+
+    private void markUnavailable(Replica replica, Exception ex) {
+        replica.lagSeconds = Double.NaN;
+        if (replica.available) {
+            log.warn("Replica {} is unavailable, reads go elsewhere: {}", replica.name, ex.getMessage());
+        }
+        replica.available = false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("db.replica.lag", replica, Replica::getLagSeconds)
+                    .description("Replication lag measured by the last check")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            Gauge.builder("db.replica.available", replica, r -> r.available ? 1 : 0)
+                    .description("Whether the replica receives read-only transactions")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            FunctionCounter.builder("db.replica.connections", replica.connections, LongAdder::sum)
+                    .description("Read-only connections taken from the replica")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            FunctionCounter.builder("db.replica.busy", replica.busy, LongAdder::sum)
+                    .description("Read-only connections not taken from the replica because its pool was exhausted")
+                    .tag("replica", replica.name)
+                    .register(registry);
+        }
+        FunctionCounter.builder("db.replica.fallbacks", primaryFallbacks, LongAdder::sum)
+                .description("Read-only connections taken from primary because no replica was available")
+                .register(registry);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
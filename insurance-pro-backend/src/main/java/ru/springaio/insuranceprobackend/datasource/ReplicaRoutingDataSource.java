@@ -0,0 +1,43 @@
+package ru.springaio.insuranceprobackend.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// DataSource приложения при включённых репликах. Физическое соединение берётся при первом запросе,
+// когда транзакция уже отметила его setReadOnly(true): readOnly-транзакции получают реплику от ReplicaRouter,
+// а если подходящей нет — основную БД, остальные — основную БД
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final DataSource primary;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaRouter router) {
+        super(primary);
+        this.primary = primary;
+        setReadOnlyDataSource(new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = router.getConnection();
+                return connection != null ? connection : primary.getConnection();
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return primary.getConnection(username, password);
+            }
+        });
+    }
+
+    // Пул основной БД не бин, поэтому закрывается вместе с этим DataSource; пулы реплик закрывает ReplicaRouter
+    @Override
+    public void close() throws IOException {
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.springaio.insuranceprobackend.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Маршрутизация readOnly-транзакций на реплики (database.replication.enabled), см. ReplicaRoutingDataSource.
+// Обёртки подсчёта запросов и ограничителя ложатся поверх, поэтому учитывают и чтения с реплик.
+// Открытый на весь HTTP-запрос EntityManager (spring.jpa.open-in-view) держал бы первое соединение до конца
+// запроса, и запись после чтения ушла бы на реплику, поэтому вместе с репликами он запрещён
+@Configuration
+@ConditionalOnProperty(name = "database.replication.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicationProperties.class)
+public class ReplicationConfig {
+
+    @Bean
+    public ReplicaRouter replicaRouter(ReplicationProperties replication, DataSourceProperties primary,
+                                       @Value("${spring.datasource.hikari.maximum-pool-size:10}") int primaryPoolSize,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        if (replication.getReplicas().isEmpty()) {
+            throw new IllegalStateException("database.replication.enabled is set but no database.replication.replicas are configured");
+        }
+        List<ReplicaRouter.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < replication.getReplicas().size(); i++) {
+            ReplicationProperties.Replica replica = replication.getReplicas().get(i);
+            String name = replica.getName() != null ? replica.getName() : "replica-" + (i + 1);
+
+            HikariConfig config = new HikariConfig();
+            config.setPoolName(name);
+            config.setJdbcUrl(replica.getUrl());
+            config.setDriverClassName(primary.getDriverClassName());
+            config.setUsername(replica.getUsername() != null ? replica.getUsername() : primary.getUsername());
+            config.setPassword(replica.getPassword() != null ? replica.getPassword() : primary.getPassword());
+            config.setMaximumPoolSize(replica.getPoolSize() != null ? replica.getPoolSize() : primaryPoolSize);
+            config.setConnectionTimeout(replication.getConnectionTimeout().toMillis());
+            config.setReadOnly(true);
+            // Недоступная при старте реплика не мешает запуску: её исключит проверка отставания
+            config.setInitializationFailTimeout(-1);
+            config.setMetricRegistry(meterRegistry.getIfAvailable());
+            replicas.add(new ReplicaRouter.Replica(name, new HikariDataSource(config), replica.getLagQuery()));
+        }
+        return new ReplicaRouter(replicas, replication.getMaxLag());
+    }
+
+    // Вместо DataSource из DataSourceAutoConfiguration (@ConditionalOnMissingBean); основной пул настраивается
+    // теми же spring.datasource.* и spring.datasource.hikari.*
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, ReplicaRouter replicaRouter,
+                                 @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (openInView) {
+            throw new IllegalStateException("Read replicas require spring.jpa.open-in-view=false");
+        }
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        return new ReplicaRoutingDataSource(primary, replicaRouter);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.springaio.insuranceprobackend.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Реплики для readOnly-транзакций: database.replication.replicas[i].url и т.д.
+// Не заданные username, password и pool-size берутся у основной БД (spring.datasource.*)
+@Data
+@ConfigurationProperties("database.replication")
+public class ReplicationProperties {
+
+    // Отставание потоковой реплики PostgreSQL в секундах; 0, если всё принятое WAL уже воспроизведено
+    // (иначе простаивающая основная БД выглядела бы как растущее отставание). На основной БД — NULL, то есть 0
+    public static final String POSTGRES_LAG_QUERY = """
+            SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END
+            """;
+
+    private boolean enabled;
+    // Реплика с большим отставанием не получает запросов до следующей проверки
+    private Duration maxLag = Duration.ofSeconds(5);
+    // Ожидание соединения из пула реплики; после него запрос уходит на основную БД
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private Integer poolSize;
+        // Запрос, возвращающий отставание в секундах (NULL — 0)
+        private String lagQuery = POSTGRES_LAG_QUERY;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.math.BigDecimal;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class CascoDetailsDto extends ProductDetailsDto {
+    private String vehicleModel;
+    private Integer manufactureYear;
+    private BigDecimal vehicleCost;
+    private Boolean hasFranchise;
+    private BigDecimal franchiseAmount;
+}
@@ -0,0 +1,22 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Data
+public class ClaimDto {
+    private Long id;
+    private Long contractId;
+    private String contractNumber;
+    private String claimNumber;
+    private LocalDate incidentDate;
+    private String description;
+    private BigDecimal claimedAmount;
+    private BigDecimal approvedAmount;
+    private String statusCode;
+    private String statusName;
+    private Instant createdAt;
+}
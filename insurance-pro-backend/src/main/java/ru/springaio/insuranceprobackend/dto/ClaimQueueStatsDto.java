@@ -0,0 +1,27 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClaimQueueStatsDto {
+    // Число убытков по кодам статусов; depthByStatus["NEW"] — глубина очереди
+    private Map<String, Long> depthByStatus;
+    private int workers;
+    private boolean running;
+    // Счётчики обработчиков этого экземпляра с момента запуска
+    private long processed;
+    private long approved;
+    private long rejected;
+    private long sentToReview;
+    // Неудачные попытки рассмотрения отдельных убытков и порции, упавшие целиком (например, без соединения с БД)
+    private long failedClaims;
+    private long failedBatches;
+    // Убытков в секунду между первым и последним обработанным
+    private double throughputPerSecond;
+}
@@ -0,0 +1,19 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContractImportResultDto {
+    private long totalRows;
+    private long imported;
+    private long failed;
+    private List<ImportRowErrorDto> errors;
+    // true, если ошибок больше, чем помещается в отчёт
+    private boolean errorsTruncated;
+}
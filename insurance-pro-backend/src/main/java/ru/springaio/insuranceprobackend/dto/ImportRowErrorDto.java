@@ -0,0 +1,14 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportRowErrorDto {
+    // Номер строки во входном файле (для CSV — строка начала записи, заголовок — строка 1)
+    private long line;
+    private String message;
+}
@@ -9,14 +9,16 @@ import java.util.List;
 @AllArgsConstructor
 public class JwtResponse {
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
     private Long id;
     private String username;
     private String fullName;
     private List<String> roles;
 
-    public JwtResponse(String token, Long id, String username, String fullName, List<String> roles) {
+    public JwtResponse(String token, String refreshToken, Long id, String username, String fullName, List<String> roles) {
         this.token = token;
+        this.refreshToken = refreshToken;
         this.id = id;
         this.username = username;
         this.fullName = fullName;
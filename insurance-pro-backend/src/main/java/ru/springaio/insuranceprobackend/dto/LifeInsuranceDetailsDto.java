@@ -0,0 +1,15 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDate;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class LifeInsuranceDetailsDto extends ProductDetailsDto {
+    private LocalDate birthDate;
+    private String gender;
+    private String profession;
+    private String healthStatus;
+}
@@ -0,0 +1,13 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class OsagoDetailsDto extends ProductDetailsDto {
+    private String licensePlate;
+    private String vehicleModel;
+    private String vin;
+    private Integer drivingExperience;
+}
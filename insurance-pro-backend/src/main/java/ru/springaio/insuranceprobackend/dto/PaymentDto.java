@@ -0,0 +1,19 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class PaymentDto {
+    private Long id;
+    private Long contractId;
+    private String contractNumber;
+    private BigDecimal amount;
+    private LocalDate paymentDate;
+    private String statusCode;
+    private String statusName;
+    private String paymentMethod;
+    private String transactionNumber;
+}
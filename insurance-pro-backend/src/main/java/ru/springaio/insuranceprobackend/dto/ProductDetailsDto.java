@@ -0,0 +1,19 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import lombok.Data;
+
+// Данные продукта по договору; конкретный тип определяется полем insuranceTypeCode
+@Data
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "insuranceTypeCode")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = CascoDetailsDto.class, name = "CASCO"),
+        @JsonSubTypes.Type(value = OsagoDetailsDto.class, name = "OSAGO"),
+        @JsonSubTypes.Type(value = LifeInsuranceDetailsDto.class, name = "LIFE"),
+        @JsonSubTypes.Type(value = PropertyInsuranceDetailsDto.class, name = "PROPERTY")
+})
+public abstract class ProductDetailsDto {
+    private Long id;
+    private Long contractId;
+}
@@ -0,0 +1,16 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.math.BigDecimal;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class PropertyInsuranceDetailsDto extends ProductDetailsDto {
+    private String propertyType;
+    private String address;
+    private BigDecimal area;
+    private Integer constructionYear;
+    private BigDecimal cost;
+}
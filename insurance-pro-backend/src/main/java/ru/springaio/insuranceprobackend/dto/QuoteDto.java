@@ -0,0 +1,16 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuoteDto {
+    private String insuranceTypeCode;
+    private BigDecimal sumInsured;
+    private BigDecimal premiumAmount;
+}
@@ -0,0 +1,28 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Параметры расчёта премии: общие поля договора и данные продукта (заполняются поля нужного вида страхования)
+@Data
+public class QuoteRequestDto {
+    private String insuranceTypeCode;
+    private BigDecimal insuredAmount;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    // КАСКО
+    private BigDecimal vehicleCost;
+    private Integer manufactureYear;
+    private BigDecimal franchiseAmount;
+    // ОСАГО
+    private Integer drivingExperience;
+    // Страхование жизни
+    private LocalDate birthDate;
+    private String healthStatus;
+    // Страхование недвижимости
+    private BigDecimal area;
+    private Integer constructionYear;
+    private BigDecimal cost;
+}
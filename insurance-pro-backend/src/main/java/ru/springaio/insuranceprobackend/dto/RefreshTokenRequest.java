@@ -0,0 +1,8 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequest {
+    private String refreshToken;
+}
@@ -0,0 +1,31 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RenewalReportDto {
+    private long runId;
+    // Пролонгируются действующие договоры, заканчивающиеся с runDate по horizonDate включительно
+    private LocalDate runDate;
+    private LocalDate horizonDate;
+    // true, если продолжен прогон, прерванный сбоем
+    private boolean resumed;
+    private boolean completed;
+    // RUNNING — остались разделы для повтора, FAILED — часть разделов исчерпала попытки
+    private String status;
+    private Instant startedAt;
+    private long durationMs;
+    private int partitions;
+    private int partitionsProcessed;
+    private int partitionsFailed;
+    private long renewed;
+    // Созданных черновиков в секунду
+    private double throughputPerSecond;
+}
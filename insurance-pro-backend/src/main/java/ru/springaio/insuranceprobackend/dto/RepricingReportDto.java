@@ -0,0 +1,22 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RepricingReportDto {
+    // false — пробный прогон, премии договоров не изменены
+    private boolean applied;
+    private long priced;
+    private long changed;
+    // Договоры без данных продукта или без тарифа, которые не удалось рассчитать
+    private long unpriced;
+    private BigDecimal premiumBefore;
+    private BigDecimal premiumAfter;
+    private long durationMs;
+}
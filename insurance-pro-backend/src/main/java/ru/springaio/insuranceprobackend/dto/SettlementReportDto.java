@@ -0,0 +1,25 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SettlementReportDto {
+    // Платежи с датой не позже этой считаются подлежащими проведению
+    private LocalDate settlementDate;
+    private Instant startedAt;
+    private long durationMs;
+    private long settled;
+    private int chunks;
+    // Проведённых платежей в секунду
+    private double throughputPerSecond;
+    // Отставание: сколько платежей осталось в ожидании и дата самого старого из них
+    private long pendingRemaining;
+    private LocalDate oldestPendingDate;
+}
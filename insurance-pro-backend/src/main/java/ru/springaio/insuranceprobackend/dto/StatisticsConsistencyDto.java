@@ -0,0 +1,16 @@
+package ru.springaio.insuranceprobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatisticsConsistencyDto {
+    private boolean consistent;
+    private int checkedScopes;
+    private List<String> mismatches;
+}
@@ -16,4 +16,7 @@ public class StatisticsDto {
     private List<TypeCountDto> contractsByType;
     private List<TypeAverageDto> averagePremiumByType;
     private List<MonthCountDto> dynamicByMonth;
+    // true, если часть разделов не успела рассчитаться; их имена перечислены в missingSections
+    private boolean partial;
+    private List<String> missingSections;
 }
@@ -10,6 +10,8 @@ import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
@@ -42,6 +44,10 @@ public class Client {
     @Column(name = "phone", nullable = false, length = 20)
     private String phone;
 
+    // Только цифры телефона; по этой колонке построен триграммный индекс для поиска
+    @Column(name = "phone_digits", length = 20)
+    private String phoneDigits;
+
     @Column(name = "email", length = 100)
     private String email;
 
@@ -55,4 +61,9 @@ public class Client {
     @OneToMany(mappedBy = "client")
     private Set<Contract> contracts = new LinkedHashSet<>();
 
+    @PrePersist
+    @PreUpdate
+    void normalizePhone() {
+        phoneDigits = phone != null ? phone.replaceAll("\\D", "") : null;
+    }
 }
\ No newline at end of file
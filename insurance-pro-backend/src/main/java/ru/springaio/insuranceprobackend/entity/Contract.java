@@ -10,7 +10,7 @@ import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
@@ -34,8 +34,10 @@ import java.util.Set;
         @Index(name = "idx_contract_status", columnList = "status_code")
 })
 public class Contract {
+    // Идентификаторы выдаются блоками из последовательности, чтобы Hibernate мог пакетировать вставки
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contract_seq")
+    @SequenceGenerator(name = "contract_seq", sequenceName = "contract_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -71,25 +73,16 @@ public class Contract {
     @Column(name = "insured_amount", nullable = false, precision = 15, scale = 2)
     private BigDecimal insuredAmount;
 
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
-    @OneToOne(mappedBy = "contract")
-    private CascoDatum cascoDatum;
-
     @OneToMany(mappedBy = "contract")
     private Set<InsuranceClaim> insuranceClaims = new LinkedHashSet<>();
 
-    @OneToOne(mappedBy = "contract")
-    private LifeInsuranceDatum lifeInsuranceDatum;
-
-    @OneToOne(mappedBy = "contract")
-    private OsagoDatum osagoDatum;
-
     @OneToMany(mappedBy = "contract")
     private Set<Payment> payments = new LinkedHashSet<>();
 
-    @OneToOne(mappedBy = "contract")
-    private PropertyInsuranceDatum propertyInsuranceDatum;
-
+    // Данные продукта (casco_data, osago_data, life_insurance_data, property_insurance_data) намеренно
+    // не отображаются здесь: обратные @OneToOne не бывают ленивыми и давали бы четыре запроса на каждый договор.
+    // Их загружает ProductDetailsService — из одной таблицы по коду вида страхования
 }
\ No newline at end of file
@@ -60,4 +60,7 @@ public class InsuranceClaim {
     @Column(name = "created_at")
     private Instant createdAt;
 
+    @Column(name = "processing_attempts", nullable = false)
+    private int processingAttempts;
+
 }
\ No newline at end of file
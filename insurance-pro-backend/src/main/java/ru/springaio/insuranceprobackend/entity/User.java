@@ -2,6 +2,7 @@ package ru.springaio.insuranceprobackend.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -13,6 +14,7 @@ import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
+import ru.springaio.insuranceprobackend.security.UserChangeListener;
 
 import java.time.Instant;
 import java.util.LinkedHashSet;
@@ -21,6 +23,7 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
+@EntityListeners(UserChangeListener.class)
 @Table(name = "users", schema = "public", indexes = {
         @Index(name = "users_login_key", columnList = "login", unique = true),
         @Index(name = "idx_users_role", columnList = "role_code")
@@ -1,11 +1,17 @@
 package ru.springaio.insuranceprobackend.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import ru.springaio.insuranceprobackend.monitoring.QueryBudgetExceededException;
+import ru.springaio.insuranceprobackend.security.LoginRejectedException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -27,6 +33,39 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
     }
 
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<Map<String, String>> handleAccessDeniedException(AccessDeniedException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", "Доступ запрещён");
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+    }
+
+    // Лимит попыток входа (429) или перегрузка проверки паролей (503); Retry-After — когда можно повторить
+    @ExceptionHandler(LoginRejectedException.class)
+    public ResponseEntity<Map<String, String>> handleLoginRejectedException(LoginRejectedException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+        return ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    // Превышение бюджета SQL-запросов (monitoring.queries.budget-mode: reject) — ошибка сервера, а не запроса
+    @ExceptionHandler(QueryBudgetExceededException.class)
+    public ResponseEntity<Map<String, String>> handleQueryBudgetExceededException(QueryBudgetExceededException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+        return ResponseEntity.internalServerError().body(error);
+    }
+
+    // Нет свободного соединения (очередь ConnectionLimiter или пула) — временная перегрузка, клиент может повторить
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<Map<String, String>> handleConnectionUnavailable(RuntimeException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", "База данных перегружена, повторите запрос позже");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(error);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, String>> handleRuntimeException(RuntimeException ex) {
         Map<String, String> error = new HashMap<>();
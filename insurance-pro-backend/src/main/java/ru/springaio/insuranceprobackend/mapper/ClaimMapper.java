@@ -0,0 +1,35 @@
+package ru.springaio.insuranceprobackend.mapper;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.springaio.insuranceprobackend.dto.ClaimDto;
+import ru.springaio.insuranceprobackend.entity.InsuranceClaim;
+import ru.springaio.insuranceprobackend.service.DictionaryRegistry;
+
+@Component
+@RequiredArgsConstructor
+public class ClaimMapper {
+
+    private final DictionaryRegistry dictionaryRegistry;
+
+    public ClaimDto toDto(InsuranceClaim claim) {
+        if (claim == null) return null;
+        ClaimDto dto = new ClaimDto();
+        dto.setId(claim.getId());
+        if (claim.getContract() != null) {
+            dto.setContractId(claim.getContract().getId());
+            dto.setContractNumber(claim.getContract().getContractNumber());
+        }
+        dto.setClaimNumber(claim.getClaimNumber());
+        dto.setIncidentDate(claim.getIncidentDate());
+        dto.setDescription(claim.getDescription());
+        dto.setClaimedAmount(claim.getClaimedAmount());
+        dto.setApprovedAmount(claim.getApprovedAmount());
+        if (claim.getStatusCode() != null) {
+            dto.setStatusCode(claim.getStatusCode().getCode());
+            dto.setStatusName(dictionaryRegistry.getName(DictionaryRegistry.CLAIM_STATUSES, claim.getStatusCode().getCode()));
+        }
+        dto.setCreatedAt(claim.getCreatedAt());
+        return dto;
+    }
+}
@@ -5,16 +5,14 @@ import org.springframework.stereotype.Component;
 import ru.springaio.insuranceprobackend.dto.ContractDto;
 import ru.springaio.insuranceprobackend.entity.Contract;
 import ru.springaio.insuranceprobackend.repository.ClientRepository;
-import ru.springaio.insuranceprobackend.repository.ContractStatusRepository;
-import ru.springaio.insuranceprobackend.repository.InsuranceTypeRepository;
+import ru.springaio.insuranceprobackend.service.DictionaryRegistry;
 
 @Component
 @RequiredArgsConstructor
 public class ContractMapper {
 
     private final ClientRepository clientRepository;
-    private final InsuranceTypeRepository insuranceTypeRepository;
-    private final ContractStatusRepository contractStatusRepository;
+    private final DictionaryRegistry dictionaryRegistry;
 
     public ContractDto toDto(Contract contract) {
         if (contract == null) return null;
@@ -27,7 +25,7 @@ public class ContractMapper {
         }
         if (contract.getInsuranceTypeCode() != null) {
             dto.setInsuranceTypeCode(contract.getInsuranceTypeCode().getCode());
-            dto.setInsuranceTypeName(contract.getInsuranceTypeCode().getName());
+            dto.setInsuranceTypeName(dictionaryRegistry.getName(DictionaryRegistry.INSURANCE_TYPES, contract.getInsuranceTypeCode().getCode()));
         }
         if (contract.getAgent() != null) {
             dto.setAgentId(contract.getAgent().getId());
@@ -35,7 +33,7 @@ public class ContractMapper {
         }
         if (contract.getStatusCode() != null) {
             dto.setStatusCode(contract.getStatusCode().getCode());
-            dto.setStatusName(contract.getStatusCode().getName());
+            dto.setStatusName(dictionaryRegistry.getName(DictionaryRegistry.CONTRACT_STATUSES, contract.getStatusCode().getCode()));
         }
         dto.setStartDate(contract.getStartDate());
         dto.setEndDate(contract.getEndDate());
@@ -56,10 +54,10 @@ public class ContractMapper {
             contract.setClient(clientRepository.findById(dto.getClientId()).orElse(null));
         }
         if (dto.getInsuranceTypeCode() != null) {
-            contract.setInsuranceTypeCode(insuranceTypeRepository.findById(dto.getInsuranceTypeCode()).orElse(null));
+            contract.setInsuranceTypeCode(dictionaryRegistry.getInsuranceType(dto.getInsuranceTypeCode()));
         }
         if (dto.getStatusCode() != null) {
-            contract.setStatusCode(contractStatusRepository.findById(dto.getStatusCode()).orElse(null));
+            contract.setStatusCode(dictionaryRegistry.getContractStatus(dto.getStatusCode()));
         }
     }
 }
@@ -0,0 +1,33 @@
+package ru.springaio.insuranceprobackend.mapper;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.springaio.insuranceprobackend.dto.PaymentDto;
+import ru.springaio.insuranceprobackend.entity.Payment;
+import ru.springaio.insuranceprobackend.service.DictionaryRegistry;
+
+@Component
+@RequiredArgsConstructor
+public class PaymentMapper {
+
+    private final DictionaryRegistry dictionaryRegistry;
+
+    public PaymentDto toDto(Payment payment) {
+        if (payment == null) return null;
+        PaymentDto dto = new PaymentDto();
+        dto.setId(payment.getId());
+        if (payment.getContract() != null) {
+            dto.setContractId(payment.getContract().getId());
+            dto.setContractNumber(payment.getContract().getContractNumber());
+        }
+        dto.setAmount(payment.getAmount());
+        dto.setPaymentDate(payment.getPaymentDate());
+        if (payment.getStatusCode() != null) {
+            dto.setStatusCode(payment.getStatusCode().getCode());
+            dto.setStatusName(dictionaryRegistry.getName(DictionaryRegistry.PAYMENT_STATUSES, payment.getStatusCode().getCode()));
+        }
+        dto.setPaymentMethod(payment.getPaymentMethod());
+        dto.setTransactionNumber(payment.getTransactionNumber());
+        return dto;
+    }
+}
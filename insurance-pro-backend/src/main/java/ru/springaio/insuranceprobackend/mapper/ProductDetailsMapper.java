@@ -0,0 +1,62 @@
+package ru.springaio.insuranceprobackend.mapper;
+
+import org.springframework.stereotype.Component;
+import ru.springaio.insuranceprobackend.dto.CascoDetailsDto;
+import ru.springaio.insuranceprobackend.dto.LifeInsuranceDetailsDto;
+import ru.springaio.insuranceprobackend.dto.OsagoDetailsDto;
+import ru.springaio.insuranceprobackend.dto.PropertyInsuranceDetailsDto;
+import ru.springaio.insuranceprobackend.entity.CascoDatum;
+import ru.springaio.insuranceprobackend.entity.LifeInsuranceDatum;
+import ru.springaio.insuranceprobackend.entity.OsagoDatum;
+import ru.springaio.insuranceprobackend.entity.PropertyInsuranceDatum;
+
+// contractId берётся из внешнего ключа (getContract().getId() не загружает договор)
+@Component
+public class ProductDetailsMapper {
+
+    public CascoDetailsDto toDto(CascoDatum datum) {
+        CascoDetailsDto dto = new CascoDetailsDto();
+        dto.setId(datum.getId());
+        dto.setContractId(datum.getContract().getId());
+        dto.setVehicleModel(datum.getVehicleModel());
+        dto.setManufactureYear(datum.getManufactureYear());
+        dto.setVehicleCost(datum.getVehicleCost());
+        dto.setHasFranchise(datum.getHasFranchise());
+        dto.setFranchiseAmount(datum.getFranchiseAmount());
+        return dto;
+    }
+
+    public OsagoDetailsDto toDto(OsagoDatum datum) {
+        OsagoDetailsDto dto = new OsagoDetailsDto();
+        dto.setId(datum.getId());
+        dto.setContractId(datum.getContract().getId());
+        dto.setLicensePlate(datum.getLicensePlate());
+        dto.setVehicleModel(datum.getVehicleModel());
+        dto.setVin(datum.getVin());
+        dto.setDrivingExperience(datum.getDrivingExperience());
+        return dto;
+    }
+
+    public LifeInsuranceDetailsDto toDto(LifeInsuranceDatum datum) {
+        LifeInsuranceDetailsDto dto = new LifeInsuranceDetailsDto();
+        dto.setId(datum.getId());
+        dto.setContractId(datum.getContract().getId());
+        dto.setBirthDate(datum.getBirthDate());
+        dto.setGender(datum.getGender());
+        dto.setProfession(datum.getProfession());
+        dto.setHealthStatus(datum.getHealthStatus());
+        return dto;
+    }
+
+    public PropertyInsuranceDetailsDto toDto(PropertyInsuranceDatum datum) {
+        PropertyInsuranceDetailsDto dto = new PropertyInsuranceDetailsDto();
+        dto.setId(datum.getId());
+        dto.setContractId(datum.getContract().getId());
+        dto.setPropertyType(datum.getPropertyType());
+        dto.setAddress(datum.getAddress());
+        dto.setArea(datum.getArea());
+        dto.setConstructionYear(datum.getConstructionYear());
+        dto.setCost(datum.getCost());
+        return dto;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.springaio.insuranceprobackend.monitoring;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Метрики сверх автоконфигурации actuator (HTTP-запросы, пул HikariCP, статистика Hibernate):
+// таймеры методов сервисов с @Timed. Счётчик SQL-запросов — в QueryCountingConfig
+@Configuration
+public class MetricsConfig {
+
+    // Имя таймера методов сервисов; теги class и method добавляет TimedAspect
+    public static final String SERVICE_TIMER = "insurance.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
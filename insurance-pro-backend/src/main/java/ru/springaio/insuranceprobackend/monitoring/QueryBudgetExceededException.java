@@ -0,0 +1,8 @@
+package ru.springaio.insuranceprobackend.monitoring;
+
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String endpoint, int budget) {
+        super("Query budget of " + budget + " statements exceeded by " + endpoint);
+    }
+}
@@ -0,0 +1,30 @@
+package ru.springaio.insuranceprobackend.monitoring;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Бюджет SQL-запросов на HTTP-запрос: monitoring.queries.default-budget для всех эндпоинтов
+// и monitoring.queries.budgets с ключом "<метод> <шаблон пути>", например "[GET /api/contracts]": 5.
+// 0 — без ограничения
+@Data
+@ConfigurationProperties("monitoring.queries")
+public class QueryBudgetProperties {
+
+    public enum Mode {
+        // Превышение только записывается в лог и метрику
+        LOG,
+        // Запрос, превысивший бюджет, прерывается на следующем SQL (500)
+        REJECT
+    }
+
+    private int defaultBudget;
+    private Map<String, Integer> budgets = new HashMap<>();
+    private Mode budgetMode = Mode.LOG;
+
+    public int budgetFor(String endpoint) {
+        return budgets.getOrDefault(endpoint, defaultBudget);
+    }
+}
@@ -0,0 +1,88 @@
+package ru.springaio.insuranceprobackend.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Число обращений к БД на HTTP-запрос (http.server.requests.queries с тегами method и uri),
+// превышения бюджета (http.server.requests.query_budget.exceeded, см. QueryBudgetProperties)
+// и подозрения на N+1: один и тот же SQL повторился не меньше порога (hibernate.n_plus_one.suspected)
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final QueryCounter queryCounter;
+    private final MeterRegistry registry;
+    private final int nPlusOneThreshold;
+
+    public QueryCountFilter(QueryCounter queryCounter,
+                            MeterRegistry registry,
+                            @Value("${monitoring.queries.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        this.queryCounter = queryCounter;
+        this.registry = registry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter.Queries queries = queryCounter.begin(request);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            queryCounter.end();
+            record(request, queries);
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryCounter.Queries queries) {
+        // Шаблон пути, а не сам путь: иначе каждый id давал бы отдельную серию
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("Database statements executed per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(queries.getTotal());
+
+        int budget = queries.getBudget();
+        if (budget > 0 && (queries.getTotal() > budget || queries.isRejected())) {
+            Counter.builder("http.server.requests.query_budget.exceeded")
+                    .description("Requests that executed more statements than their budget")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(registry)
+                    .increment();
+            log.warn("Query budget exceeded in {}: {} statements{}, budget {}", queries.getEndpoint(), queries.getTotal(),
+                    queries.isRejected() ? " before rejection" : "", budget);
+        }
+
+        Map.Entry<String, Integer> repeated = queries.mostRepeated();
+        if (repeated != null && repeated.getValue() >= nPlusOneThreshold) {
+            Counter.builder("hibernate.n_plus_one.suspected")
+                    .description("Requests that repeated the same SQL statement at least the configured number of times")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(registry)
+                    .increment();
+            log.warn("Possible N+1 in {} {}: {} of {} statements are the same query: {}",
+                    request.getMethod(), uri, repeated.getValue(), queries.getTotal(), repeated.getKey());
+        }
+    }
+}
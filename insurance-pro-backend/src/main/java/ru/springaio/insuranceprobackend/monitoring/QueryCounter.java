@@ -0,0 +1,117 @@
+package ru.springaio.insuranceprobackend.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Считает обращения к БД через обёрнутый DataSource (Hibernate, JdbcTemplate, нативные запросы)
+// между begin и end в текущем потоке: HTTP-запрос в QueryCountFilter или тест с @ExpectedQueries.
+// Пакетное выполнение считается одним обращением. Вне begin/end (фоновые задания, пулы
+// обработчиков статистики) ничего не считает.
+public class QueryCounter implements QueryExecutionListener {
+
+    private final QueryBudgetProperties budgets;
+    private final ThreadLocal<Queries> current = new ThreadLocal<>();
+
+    public QueryCounter(QueryBudgetProperties budgets) {
+        this.budgets = budgets;
+    }
+
+    // Обращения одного HTTP-запроса или теста: общее число и повторы каждого текста SQL
+    public final class Queries {
+        private final Map<String, Integer> bySql = new HashMap<>();
+        private final HttpServletRequest request;
+        private int total;
+        private Integer budget;
+        private boolean rejected;
+
+        private Queries(HttpServletRequest request) {
+            this.request = request;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        // true, если запрос был прерван в режиме REJECT
+        public boolean isRejected() {
+            return rejected;
+        }
+
+        public Map<String, Integer> getStatements() {
+            return Map.copyOf(bySql);
+        }
+
+        // Самый часто повторяющийся SQL и число его повторов; признак N+1 — один и тот же запрос в цикле
+        public Map.Entry<String, Integer> mostRepeated() {
+            Map.Entry<String, Integer> max = null;
+            for (Map.Entry<String, Integer> entry : bySql.entrySet()) {
+                if (max == null || entry.getValue() > max.getValue()) {
+                    max = entry;
+                }
+            }
+            return max;
+        }
+
+        // "<метод> <шаблон пути>"; null вне HTTP-запроса и до выбора обработчика
+        public String getEndpoint() {
+            Object pattern = request != null ? request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) : null;
+            return pattern != null ? request.getMethod() + " " + pattern : null;
+        }
+
+        // Пока эндпоинт не известен, бюджет не проверяется
+        public int getBudget() {
+            if (budget == null) {
+                String endpoint = getEndpoint();
+                if (endpoint == null) {
+                    return 0;
+                }
+                budget = budgets.budgetFor(endpoint);
+            }
+            return budget;
+        }
+    }
+
+    public Queries begin() {
+        return begin(null);
+    }
+
+    public Queries begin(HttpServletRequest request) {
+        Queries queries = new Queries(request);
+        current.set(queries);
+        return queries;
+    }
+
+    public void end() {
+        current.remove();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Queries queries = current.get();
+        if (queries == null) {
+            return;
+        }
+        if (budgets.getBudgetMode() == QueryBudgetProperties.Mode.REJECT) {
+            int budget = queries.getBudget();
+            if (budget > 0 && queries.total >= budget) {
+                queries.rejected = true;
+                throw new QueryBudgetExceededException(queries.getEndpoint(), budget);
+            }
+        }
+        queries.total++;
+        for (QueryInfo queryInfo : queryInfoList) {
+            queries.bySql.merge(queryInfo.getQuery(), 1, Integer::sum);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+}
@@ -0,0 +1,39 @@
+package ru.springaio.insuranceprobackend.monitoring;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Оборачивает DataSource прокси datasource-proxy, который передаёт каждое обращение к БД в QueryCounter.
+// Тесты срезов (@DataJpaTest) подключают конфигурацию через @Import, чтобы работала @ExpectedQueries
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+public class QueryCountingConfig {
+
+    @Bean
+    public QueryCounter queryCounter(QueryBudgetProperties queryBudgetProperties) {
+        return new QueryCounter(queryBudgetProperties);
+    }
+
+    // static: постпроцессор создаётся раньше остальных бинов конфигурации
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor(ObjectProvider<QueryCounter> queryCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(queryCounter.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
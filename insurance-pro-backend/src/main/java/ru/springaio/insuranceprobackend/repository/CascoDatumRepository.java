@@ -0,0 +1,16 @@
+package ru.springaio.insuranceprobackend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.springaio.insuranceprobackend.entity.CascoDatum;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CascoDatumRepository extends JpaRepository<CascoDatum, Long> {
+    Optional<CascoDatum> findByContractId(Long contractId);
+
+    List<CascoDatum> findByContractIdIn(Collection<Long> contractIds);
+}
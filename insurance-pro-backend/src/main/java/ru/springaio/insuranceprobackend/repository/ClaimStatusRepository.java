@@ -0,0 +1,9 @@
+package ru.springaio.insuranceprobackend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.springaio.insuranceprobackend.entity.ClaimStatus;
+
+@Repository
+public interface ClaimStatusRepository extends JpaRepository<ClaimStatus, String> {
+}
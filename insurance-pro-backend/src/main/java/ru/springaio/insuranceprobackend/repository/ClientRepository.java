@@ -1,13 +1,32 @@
 package ru.springaio.insuranceprobackend.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 import ru.springaio.insuranceprobackend.entity.Client;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ClientRepository extends JpaRepository<Client, Long>, JpaSpecificationExecutor<Client> {
+public interface ClientRepository extends JpaRepository<Client, Long>, JpaSpecificationExecutor<Client>, ClientSearchRepository {
     Optional<Client> findByPassportSeriesAndPassportNumber(String series, String number);
+
+    // Агент нужен ClientMapper.toDto, поэтому загружается вместе со страницей
+    @Override
+    @EntityGraph(attributePaths = "agent")
+    Page<Client> findAll(Specification<Client> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "agent")
+    Optional<Client> findById(Long id);
+
+    // Загрузка результатов поиска по идентификаторам из ClientSearchRepository.searchIds
+    @EntityGraph(attributePaths = "agent")
+    List<Client> findByIdIn(Collection<Long> ids);
 }
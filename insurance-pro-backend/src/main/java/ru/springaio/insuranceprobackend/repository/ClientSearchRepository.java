@@ -0,0 +1,10 @@
+package ru.springaio.insuranceprobackend.repository;
+
+import java.util.List;
+
+public interface ClientSearchRepository {
+
+    // Идентификаторы клиентов, у которых ФИО или цифры телефона похожи на строку поиска,
+    // в порядке убывания релевантности. agentId == null — без ограничения по агенту
+    List<Long> searchIds(String text, Long agentId, int limit);
+}
@@ -0,0 +1,48 @@
+package ru.springaio.insuranceprobackend.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ClientSearchRepositoryImpl implements ClientSearchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Long> searchIds(String text, Long agentId, int limit) {
+        String normalized = text.trim().toLowerCase();
+        String digits = normalized.replaceAll("\\D", "");
+        boolean postgres = SearchDialect.isPostgreSql(entityManager);
+
+        StringBuilder queryStr = new StringBuilder("SELECT c.id FROM client c WHERE (LOWER(c.full_name) LIKE :like ESCAPE '\\' ");
+        // Оператор % (похожесть выше pg_trgm.similarity_threshold) находит и ФИО с опечатками
+        if (postgres) queryStr.append("OR LOWER(c.full_name) % :text ");
+        // Поиск по телефону имеет смысл от трёх цифр: короче триграммный индекс не помогает
+        if (digits.length() >= 3) queryStr.append("OR c.phone_digits LIKE :digits ");
+        queryStr.append(") ");
+        if (agentId != null) queryStr.append("AND c.agent_id = :agentId ");
+        if (postgres) {
+            queryStr.append("ORDER BY GREATEST(similarity(LOWER(c.full_name), :text), ")
+                    .append(digits.length() >= 3 ? "similarity(c.phone_digits, :digitsText)" : "0")
+                    .append(") DESC, c.id ");
+        } else {
+            // H2: сначала совпадения с начала ФИО, затем более короткие
+            queryStr.append("ORDER BY CASE WHEN LOWER(c.full_name) LIKE :prefix ESCAPE '\\' THEN 0 ELSE 1 END, LENGTH(c.full_name), c.id ");
+        }
+        queryStr.append("LIMIT :limit");
+
+        var query = entityManager.createNativeQuery(queryStr.toString());
+        query.setParameter("like", SearchDialect.likeContains(normalized));
+        if (postgres) query.setParameter("text", normalized);
+        if (digits.length() >= 3) query.setParameter("digits", SearchDialect.likeContains(digits));
+        if (postgres && digits.length() >= 3) query.setParameter("digitsText", digits);
+        if (!postgres) query.setParameter("prefix", SearchDialect.likeContains(normalized).substring(1));
+        if (agentId != null) query.setParameter("agentId", agentId);
+        query.setParameter("limit", limit);
+
+        List<?> ids = query.getResultList();
+        return ids.stream().map(id -> ((Number) id).longValue()).toList();
+    }
+}
@@ -1,8 +1,8 @@
 package ru.springaio.insuranceprobackend.repository;
 
+import jakarta.persistence.criteria.JoinType;
 import org.springframework.data.jpa.domain.Specification;
 import ru.springaio.insuranceprobackend.entity.Client;
-import ru.springaio.insuranceprobackend.entity.User;
 
 public class ClientSpecification {
 
@@ -21,12 +21,27 @@ public class ClientSpecification {
         };
     }
 
+    // Сравнение по цифрам телефона, чтобы формат ввода не влиял на результат и работал триграммный индекс
     public static Specification<Client> hasPhone(String phone) {
-        return (root, query, cb) -> phone == null || phone.isEmpty() ?
-                null : cb.like(root.get("phone"), "%" + phone + "%");
+        return (root, query, cb) -> {
+            if (phone == null || phone.isEmpty()) return null;
+            String digits = phone.replaceAll("\\D", "");
+            return digits.isEmpty() ?
+                    cb.like(root.get("phone"), "%" + phone + "%") : cb.like(root.get("phoneDigits"), "%" + digits + "%");
+        };
+    }
+
+    // Fetch-join агента для запросов без COUNT (keyset-пагинация)
+    public static Specification<Client> fetchAgent() {
+        return (root, query, cb) -> {
+            if (query != null && !Long.class.equals(query.getResultType())) {
+                root.fetch("agent", JoinType.LEFT);
+            }
+            return null;
+        };
     }
 
-    public static Specification<Client> hasAgent(User agent) {
-        return (root, query, cb) -> agent == null ? null : cb.equal(root.get("agent"), agent);
+    public static Specification<Client> hasAgent(Long agentId) {
+        return (root, query, cb) -> agentId == null ? null : cb.equal(root.get("agent").get("id"), agentId);
     }
 }
@@ -1,13 +1,36 @@
 package ru.springaio.insuranceprobackend.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 import ru.springaio.insuranceprobackend.entity.Contract;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSpecificationExecutor<Contract> {
+public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSpecificationExecutor<Contract>, ContractSearchRepository {
     Optional<Contract> findByContractNumber(String contractNumber);
+
+    // Связи, которые читает ContractMapper.toDto, загружаются одним запросом вместе со страницей.
+    // Названия вида страхования и статуса берутся из DictionaryRegistry, поэтому их таблицы не соединяются
+    @Override
+    @EntityGraph(attributePaths = {"client", "agent"})
+    Page<Contract> findAll(Specification<Contract> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"client", "agent"})
+    Optional<Contract> findById(Long id);
+
+    // Загрузка результатов поиска по идентификаторам из ContractSearchRepository.searchIds
+    @EntityGraph(attributePaths = {"client", "agent"})
+    List<Contract> findByIdIn(Collection<Long> ids);
+
+    // Проверка наличия договоров без загрузки коллекции Client.contracts
+    boolean existsByClientId(Long clientId);
 }
@@ -0,0 +1,10 @@
+package ru.springaio.insuranceprobackend.repository;
+
+import java.util.List;
+
+public interface ContractSearchRepository {
+
+    // Идентификаторы договоров, номер которых похож на строку поиска, в порядке убывания релевантности.
+    // agentId == null — без ограничения по агенту
+    List<Long> searchIds(String text, Long agentId, int limit);
+}
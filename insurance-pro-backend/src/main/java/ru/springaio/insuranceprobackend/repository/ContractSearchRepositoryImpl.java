@@ -0,0 +1,39 @@
+package ru.springaio.insuranceprobackend.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ContractSearchRepositoryImpl implements ContractSearchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Long> searchIds(String text, Long agentId, int limit) {
+        String normalized = text.trim().toLowerCase();
+        boolean postgres = SearchDialect.isPostgreSql(entityManager);
+
+        StringBuilder queryStr = new StringBuilder("SELECT c.id FROM contract c WHERE (LOWER(c.contract_number) LIKE :like ESCAPE '\\' ");
+        if (postgres) queryStr.append("OR LOWER(c.contract_number) % :text ");
+        queryStr.append(") ");
+        if (agentId != null) queryStr.append("AND c.agent_id = :agentId ");
+        if (postgres) {
+            queryStr.append("ORDER BY similarity(LOWER(c.contract_number), :text) DESC, c.id ");
+        } else {
+            queryStr.append("ORDER BY CASE WHEN LOWER(c.contract_number) LIKE :prefix ESCAPE '\\' THEN 0 ELSE 1 END, LENGTH(c.contract_number), c.id ");
+        }
+        queryStr.append("LIMIT :limit");
+
+        var query = entityManager.createNativeQuery(queryStr.toString());
+        query.setParameter("like", SearchDialect.likeContains(normalized));
+        if (postgres) query.setParameter("text", normalized);
+        if (!postgres) query.setParameter("prefix", SearchDialect.likeContains(normalized).substring(1));
+        if (agentId != null) query.setParameter("agentId", agentId);
+        query.setParameter("limit", limit);
+
+        List<?> ids = query.getResultList();
+        return ids.stream().map(id -> ((Number) id).longValue()).toList();
+    }
+}
@@ -1,8 +1,8 @@
 package ru.springaio.insuranceprobackend.repository;
 
+import jakarta.persistence.criteria.JoinType;
 import org.springframework.data.jpa.domain.Specification;
 import ru.springaio.insuranceprobackend.entity.Contract;
-import ru.springaio.insuranceprobackend.entity.User;
 
 import java.time.LocalDate;
 
@@ -23,8 +23,19 @@ public class ContractSpecification {
                 null : cb.equal(root.get("statusCode").get("code"), statusCode);
     }
 
-    public static Specification<Contract> hasAgent(User agent) {
-        return (root, query, cb) -> agent == null ? null : cb.equal(root.get("agent"), agent);
+    public static Specification<Contract> hasAgent(Long agentId) {
+        return (root, query, cb) -> agentId == null ? null : cb.equal(root.get("agent").get("id"), agentId);
+    }
+
+    // Fetch-join связей, которые читает ContractMapper.toDto, для запросов без COUNT (keyset-пагинация)
+    public static Specification<Contract> fetchDetails() {
+        return (root, query, cb) -> {
+            if (query != null && !Long.class.equals(query.getResultType())) {
+                root.fetch("client", JoinType.LEFT);
+                root.fetch("agent", JoinType.LEFT);
+            }
+            return null;
+        };
     }
 
     public static Specification<Contract> isWithinPeriod(LocalDate start, LocalDate end) {
@@ -0,0 +1,57 @@
+package ru.springaio.insuranceprobackend.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.springaio.insuranceprobackend.entity.InsuranceClaim;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InsuranceClaimRepository extends JpaRepository<InsuranceClaim, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = {"contract", "contract.agent"})
+    Optional<InsuranceClaim> findById(Long id);
+
+    @EntityGraph(attributePaths = {"contract"})
+    List<InsuranceClaim> findByContractIdOrderByCreatedAtAscIdAsc(Long contractId);
+
+    // Очередь: блокирует до limit убытков в статусе status до конца транзакции.
+    // Строки, уже заблокированные другими обработчиками, пропускаются, поэтому
+    // параллельные потоки и экземпляры приложения не получают один и тот же убыток.
+    // Убытки, исчерпавшие maxAttempts неудачных попыток, в очередь не возвращаются
+    @Query(value = """
+            SELECT id FROM insurance_claim
+            WHERE status_code = :status AND processing_attempts < :maxAttempts
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Long> lockNextIds(@Param("status") String status, @Param("maxAttempts") int maxAttempts,
+                           @Param("limit") int limit);
+
+    // Повторная блокировка конкретных убытков, если они всё ещё в статусе status
+    @Query(value = """
+            SELECT id FROM insurance_claim
+            WHERE id IN (:ids) AND status_code = :status
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Long> lockIds(@Param("status") String status, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update InsuranceClaim c set c.processingAttempts = c.processingAttempts + 1 where c.id = :id")
+    int incrementProcessingAttempts(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"contract"})
+    List<InsuranceClaim> findByIdIn(Collection<Long> ids);
+
+    // Глубина очереди: число убытков в каждом статусе
+    @Query("select c.statusCode.code, count(c) from InsuranceClaim c group by c.statusCode.code")
+    List<Object[]> countByStatus();
+}
@@ -0,0 +1,16 @@
+package ru.springaio.insuranceprobackend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.springaio.insuranceprobackend.entity.LifeInsuranceDatum;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LifeInsuranceDatumRepository extends JpaRepository<LifeInsuranceDatum, Long> {
+    Optional<LifeInsuranceDatum> findByContractId(Long contractId);
+
+    List<LifeInsuranceDatum> findByContractIdIn(Collection<Long> contractIds);
+}
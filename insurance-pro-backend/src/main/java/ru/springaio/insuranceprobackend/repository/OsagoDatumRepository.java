@@ -0,0 +1,16 @@
+package ru.springaio.insuranceprobackend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.springaio.insuranceprobackend.entity.OsagoDatum;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OsagoDatumRepository extends JpaRepository<OsagoDatum, Long> {
+    Optional<OsagoDatum> findByContractId(Long contractId);
+
+    List<OsagoDatum> findByContractIdIn(Collection<Long> contractIds);
+}
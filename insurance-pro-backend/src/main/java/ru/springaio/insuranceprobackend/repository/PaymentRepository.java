@@ -1,9 +1,46 @@
 package ru.springaio.insuranceprobackend.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.springaio.insuranceprobackend.entity.Payment;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = {"contract", "contract.agent"})
+    Optional<Payment> findById(Long id);
+
+    @EntityGraph(attributePaths = {"contract"})
+    List<Payment> findByContractIdOrderByPaymentDateAscIdAsc(Long contractId);
+
+    // Проводит одну порцию платежей: подзапрос выбирает строки по idx_payment_status,
+    // проведённые строки выходят из условия, так что следующий вызов берёт следующую порцию.
+    // Повторная проверка статуса во внешнем WHERE защищает от конкурентного проведения
+    @Modifying
+    @Query(value = """
+            UPDATE payment SET status_code = :toStatus
+            WHERE status_code = :fromStatus AND id IN (
+                SELECT id FROM payment
+                WHERE status_code = :fromStatus AND transaction_number IS NOT NULL AND payment_date <= :settlementDate
+                ORDER BY id
+                LIMIT :chunkSize)
+            """, nativeQuery = true)
+    int settleChunk(@Param("fromStatus") String fromStatus,
+                    @Param("toStatus") String toStatus,
+                    @Param("settlementDate") LocalDate settlementDate,
+                    @Param("chunkSize") int chunkSize);
+
+    long countByStatusCodeCode(String statusCode);
+
+    @Query("select min(p.paymentDate) from Payment p where p.statusCode.code = :statusCode")
+    LocalDate findOldestPaymentDateByStatus(@Param("statusCode") String statusCode);
 }
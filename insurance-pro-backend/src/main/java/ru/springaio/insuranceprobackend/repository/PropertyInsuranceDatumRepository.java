@@ -0,0 +1,16 @@
+package ru.springaio.insuranceprobackend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.springaio.insuranceprobackend.entity.PropertyInsuranceDatum;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PropertyInsuranceDatumRepository extends JpaRepository<PropertyInsuranceDatum, Long> {
+    Optional<PropertyInsuranceDatum> findByContractId(Long contractId);
+
+    List<PropertyInsuranceDatum> findByContractIdIn(Collection<Long> contractIds);
+}
@@ -0,0 +1,23 @@
+package ru.springaio.insuranceprobackend.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+// Поиск с ранжированием по похожести доступен только на PostgreSQL (pg_trgm);
+// на других БД (H2 в тестах) репозитории используют LIKE с простым ранжированием
+final class SearchDialect {
+
+    private SearchDialect() {
+    }
+
+    static boolean isPostgreSql(EntityManager entityManager) {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    // Экранирование спецсимволов LIKE во введённой пользователем строке
+    static String likeContains(String value) {
+        return "%" + value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
@@ -1,12 +1,26 @@
 package ru.springaio.insuranceprobackend.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.springaio.insuranceprobackend.entity.User;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @EntityGraph(attributePaths = "roleCode")
     Optional<User> findByLogin(String login);
+
+    @Query("select u.id from User u where u.active = false")
+    List<Long> findIdsByActiveFalse();
+
+    // Массовое обновление мимо UserChangeListener: перехэширование пароля не должно отзывать токены
+    @Modifying
+    @Query("update User u set u.password = :password where u.login = :login")
+    int updatePassword(@Param("login") String login, @Param("password") String password);
 }
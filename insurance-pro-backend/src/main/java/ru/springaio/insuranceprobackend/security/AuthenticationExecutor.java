@@ -0,0 +1,78 @@
+package ru.springaio.insuranceprobackend.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Проверка паролей на отдельном ограниченном пуле потоков. BCrypt занимает процессор целиком,
+// и массовый вход в начале смены иначе отнимал бы все ядра у остальных запросов.
+// Поток запроса ждёт результат не дольше timeout; переполненная очередь — сразу 503
+@Component
+public class AuthenticationExecutor implements MeterBinder {
+
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    public AuthenticationExecutor(AuthenticationManager authenticationManager,
+                                  @Value("${security.login.threads:0}") int threads,
+                                  @Value("${security.login.queue-capacity:200}") int queueCapacity,
+                                  @Value("${security.login.timeout:PT10S}") Duration timeout) {
+        this.authenticationManager = authenticationManager;
+        // 0 — половина ядер: вторая половина остаётся остальным запросам
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("login-", 0).daemon().factory());
+        this.timeout = timeout;
+    }
+
+    public Authentication authenticate(Authentication request) {
+        Future<Authentication> result;
+        try {
+            result = executor.submit(() -> authenticationManager.authenticate(request));
+        } catch (RejectedExecutionException ex) {
+            throw new LoginRejectedException(HttpStatus.SERVICE_UNAVAILABLE, 1, "Сервис входа перегружен, повторите позже");
+        }
+        try {
+            return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            result.cancel(true);
+            throw new LoginRejectedException(HttpStatus.SERVICE_UNAVAILABLE, 1, "Сервис входа перегружен, повторите позже");
+        } catch (InterruptedException ex) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new LoginRejectedException(HttpStatus.SERVICE_UNAVAILABLE, 1, "Вход прерван");
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "login", List.of()).bindTo(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,61 @@
+package ru.springaio.insuranceprobackend.security;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Потокобезопасный LRU-кэш с ограничением размера и временем жизни каждой записи.
+// Общая основа для кэша пользователей, кэша проверенных JWT и счётчиков попыток входа.
+class ExpiringLruCache<K, V> {
+
+    private final Map<K, Entry<V>> entries;
+
+    ExpiringLruCache(int maxSize) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= entry.expiresAtMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    // Живое значение по ключу или новое из factory, атомарно относительно других вызовов
+    V getOrPut(K key, Supplier<V> factory, long expiresAtMillis) {
+        synchronized (entries) {
+            V value = get(key);
+            if (value == null) {
+                value = factory.get();
+                put(key, value, expiresAtMillis);
+            }
+            return value;
+        }
+    }
+
+    void put(K key, V value, long expiresAtMillis) {
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+    }
+
+    void remove(K key) {
+        entries.remove(key);
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+    }
+}
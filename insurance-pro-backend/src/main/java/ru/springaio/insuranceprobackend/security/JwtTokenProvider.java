@@ -1,63 +1,150 @@
 package ru.springaio.insuranceprobackend.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 
+@Slf4j
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
+    // Подписанные claims, из которых фильтр восстанавливает пользователя без запроса к БД
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_VERSION = "ver";
+
+    private final TokenRevocationRegistry revocationRegistry;
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private long jwtExpirationInMs;
 
+    // Размер кэша уже проверенных токенов; 0 отключает кэш
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    // Ключ и парсер потокобезопасны, поэтому создаются один раз при старте
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private ExpiringLruCache<ByteBuffer, Claims> verifiedTokens;
+
+    // jwt.validations по результату проверки: valid (подпись проверена), cached, expired, invalid
+    private Counter validCounter;
+    private Counter cachedCounter;
+    private Counter expiredCounter;
+    private Counter invalidCounter;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = verifiedCacheMaxSize > 0 ? new ExpiringLruCache<>(verifiedCacheMaxSize) : null;
+        validCounter = validationCounter("valid");
+        cachedCounter = validationCounter("cached");
+        expiredCounter = validationCounter("expired");
+        invalidCounter = validationCounter("invalid");
+    }
+
     public String generateToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        return generateToken((UserPrincipal) authentication.getPrincipal());
+    }
 
+    // Вход и обновление по refresh-токену выпускают одинаковый токен
+    public String generateToken(UserPrincipal userPrincipal) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
         return Jwts.builder()
                 .subject(userPrincipal.getUsername())
-                .issuedAt(new Date())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_ROLE, userPrincipal.getRoleCode())
+                .claim(CLAIM_VERSION, revocationRegistry.currentVersion(userPrincipal.getId()))
+                .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Проверяет подпись и срок действия и возвращает claims; null, если токен недействителен.
+    // Повторные запросы с тем же токеном до его exp обслуживаются из кэша без HMAC.
+    public Claims verifyAndParse(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        ByteBuffer cacheKey = verifiedTokens != null ? tokenHash(token) : null;
+        if (cacheKey != null) {
+            Claims cached = verifiedTokens.get(cacheKey);
+            if (cached != null) {
+                cachedCounter.increment();
+                return cached;
+            }
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (ExpiredJwtException ex) {
+            expiredCounter.increment();
+            log.debug("Expired JWT for subject {}", ex.getClaims().getSubject());
+            return null;
+        } catch (JwtException | IllegalArgumentException ex) {
+            // Поддельные и испорченные токены присылает клиент, поэтому не ERROR: всплеск виден по счётчику
+            invalidCounter.increment();
+            log.debug("Invalid JWT: {}", ex.getMessage());
+            return null;
+        }
+        validCounter.increment();
+
+        if (cacheKey != null && claims.getExpiration() != null) {
+            verifiedTokens.put(cacheKey, claims, claims.getExpiration().getTime());
+        }
+        return claims;
     }
 
     public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getSubject();
+        Claims claims = verifyAndParse(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     public boolean validateToken(String authToken) {
+        return verifyAndParse(authToken) != null;
+    }
+
+    private Counter validationCounter(String result) {
+        return Counter.builder("jwt.validations")
+                .description("JWT validations by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static ByteBuffer tokenHash(String token) {
         try {
-            Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(authToken);
-            return true;
-        } catch (JwtException | IllegalArgumentException ex) {
-            // log error
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
-        return false;
     }
 }
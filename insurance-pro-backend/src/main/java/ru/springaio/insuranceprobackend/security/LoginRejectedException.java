@@ -0,0 +1,18 @@
+package ru.springaio.insuranceprobackend.security;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+// Вход отклонён до проверки пароля: превышен лимит попыток (429) или очередь проверки паролей заполнена (503)
+@Getter
+public class LoginRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    public LoginRejectedException(HttpStatus status, long retryAfterSeconds, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,58 @@
+package ru.springaio.insuranceprobackend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Ограничение частоты попыток входа в фиксированном окне, отдельно на логин и на IP-адрес.
+// Проверяется до BCrypt, так что перебор паролей и повторные нажатия не тратят процессор.
+// Лимит 0 отключает соответствующую проверку
+@Component
+public class LoginThrottle {
+
+    private final long windowMillis;
+    private final int perLogin;
+    private final int perIp;
+    private final ExpiringLruCache<String, Window> windows;
+
+    public LoginThrottle(@Value("${security.login.throttle.window:PT1M}") Duration window,
+                         @Value("${security.login.throttle.per-login:10}") int perLogin,
+                         @Value("${security.login.throttle.per-ip:600}") int perIp,
+                         @Value("${security.login.throttle.max-size:100000}") int maxSize) {
+        this.windowMillis = window.toMillis();
+        this.perLogin = perLogin;
+        this.perIp = perIp;
+        this.windows = new ExpiringLruCache<>(maxSize);
+    }
+
+    // Учитывает попытку; при превышении любого из лимитов — LoginRejectedException со сроком до конца окна
+    public void acquire(String login, String ip) {
+        long now = System.currentTimeMillis();
+        long retryAfterMillis = Math.max(attempt("login:" + login, perLogin, now), attempt("ip:" + ip, perIp, now));
+        if (retryAfterMillis > 0) {
+            throw new LoginRejectedException(HttpStatus.TOO_MANY_REQUESTS, (retryAfterMillis + 999) / 1000,
+                    "Слишком много попыток входа, повторите позже");
+        }
+    }
+
+    // 0, если попытка в пределах лимита, иначе — миллисекунды до конца окна
+    private long attempt(String key, int limit, long now) {
+        if (limit <= 0) {
+            return 0;
+        }
+        Window window = windows.getOrPut(key, () -> new Window(now + windowMillis), now + windowMillis);
+        return window.attempts.incrementAndGet() > limit ? Math.max(1, window.resetAtMillis - now) : 0;
+    }
+
+    private static final class Window {
+        private final long resetAtMillis;
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private Window(long resetAtMillis) {
+            this.resetAtMillis = resetAtMillis;
+        }
+    }
+}
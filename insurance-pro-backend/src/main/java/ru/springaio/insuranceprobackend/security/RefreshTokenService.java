@@ -0,0 +1,134 @@
+package ru.springaio.insuranceprobackend.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+// Ротируемые refresh-токены. Клиент получает 32 случайных байта (base64url), в таблице refresh_token
+// хранится только их SHA-256, поэтому копия таблицы не даёт действующих токенов.
+// Обновление — чтение строки по первичному ключу вместе с пользователем, удаление использованного токена
+// и вставка нового в одной транзакции; BCrypt при этом не вычисляется.
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final String FIND_SQL = """
+            SELECT r.expires_at, u.id, u.login, u.full_name, u.role_code, u.active
+            FROM refresh_token r JOIN users u ON u.id = r.user_id
+            WHERE r.token_hash = ?
+            """;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    // Результат обновления: пользователь для нового access-токена и следующий refresh-токен
+    public record Rotation(UserPrincipal user, String refreshToken) {
+    }
+
+    private record Row(Instant expiresAt, UserPrincipal user) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransaction;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(DataSource dataSource,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${jwt.refresh-token.ttl:P7D}") Duration ttl) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = ttl;
+    }
+
+    public String issue(Long userId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = ENCODER.encodeToString(bytes);
+        jdbcTemplate.update("INSERT INTO refresh_token (token_hash, user_id, expires_at) VALUES (?, ?, ?)",
+                hash(token), userId, Timestamp.from(Instant.now().plus(ttl)));
+        return token;
+    }
+
+    // null, если токен неизвестен, уже использован, просрочен или пользователь деактивирован.
+    // Токен удаляется при любом исходе: из двух параллельных запросов с одним токеном
+    // строку удалит только один, второй получит null
+    public Rotation rotate(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return null;
+        }
+        String tokenHash = hash(refreshToken);
+        return transactionTemplate.execute(status -> {
+            List<Row> rows = jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> new Row(
+                    rs.getTimestamp("expires_at").toInstant(),
+                    new UserPrincipal(rs.getLong("id"), rs.getString("login"), null, rs.getString("full_name"),
+                            rs.getString("role_code"), rs.getBoolean("active"))), tokenHash);
+            if (rows.isEmpty()
+                    || jdbcTemplate.update("DELETE FROM refresh_token WHERE token_hash = ?", tokenHash) == 0) {
+                return null;
+            }
+            Row row = rows.get(0);
+            if (row.expiresAt().isBefore(Instant.now()) || !row.user().isEnabled()) {
+                return null;
+            }
+            return new Rotation(row.user(), issue(row.user().getId()));
+        });
+    }
+
+    // Выход: refresh-токен больше не обменивается, выданный access-токен доживает свой короткий срок
+    public void revoke(String refreshToken) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            jdbcTemplate.update("DELETE FROM refresh_token WHERE token_hash = ?", hash(refreshToken));
+        }
+    }
+
+    // Отзыв всех сессий пользователя при его изменении (UserChangeListener). Вызывается после коммита,
+    // когда соединение завершённой транзакции ещё привязано к потоку, поэтому удаление идёт в собственной
+    public void revokeAll(Long userId) {
+        int deleted = newTransaction.execute(status ->
+                jdbcTemplate.update("DELETE FROM refresh_token WHERE user_id = ?", userId));
+        if (deleted > 0) {
+            log.info("Revoked {} refresh tokens of user {}", deleted, userId);
+        }
+    }
+
+    @Scheduled(cron = "${jwt.refresh-token.sweep-cron:0 */15 * * * *}")
+    public void deleteExpired() {
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM refresh_token WHERE expires_at < ?",
+                    Timestamp.from(Instant.now()));
+            if (deleted > 0) {
+                log.info("Deleted {} expired refresh tokens", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.error("Refresh token sweep failed", e);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ENCODER.encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
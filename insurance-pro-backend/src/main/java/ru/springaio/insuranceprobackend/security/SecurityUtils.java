@@ -1,5 +1,7 @@
 package ru.springaio.insuranceprobackend.security;
 
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -15,4 +17,13 @@ public class SecurityUtils {
             return principal.toString();
         }
     }
+
+    // Пользователь, разрешённый JwtAuthenticationFilter для текущего запроса
+    public UserPrincipal getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal;
+        }
+        throw new AuthenticationCredentialsNotFoundException("No authenticated user in security context");
+    }
 }
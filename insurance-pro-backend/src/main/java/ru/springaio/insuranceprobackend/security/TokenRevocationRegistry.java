@@ -0,0 +1,50 @@
+package ru.springaio.insuranceprobackend.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.springaio.insuranceprobackend.repository.UserRepository;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Быстрая проверка отзыва JWT без обращения к БД.
+// Каждый токен несёт версию пользователя (claim "ver"); увеличение версии отзывает все ранее
+// выданные токены пользователя. Деактивированные пользователи попадают в denylist, который
+// при старте восстанавливается из таблицы users. Версии хранятся только в памяти узла:
+// после перезапуска или на другом узле отзыв по смене роли действует до истечения токена.
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationRegistry {
+
+    private final UserRepository userRepository;
+
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+    private final Set<Long> deactivatedUsers = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void loadDeactivatedUsers() {
+        deactivatedUsers.addAll(userRepository.findIdsByActiveFalse());
+    }
+
+    public int currentVersion(Long userId) {
+        return versions.getOrDefault(userId, 0);
+    }
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        return deactivatedUsers.contains(userId) || tokenVersion < currentVersion(userId);
+    }
+
+    public void revokeTokens(Long userId) {
+        versions.merge(userId, 1, Integer::sum);
+    }
+
+    public void setActive(Long userId, boolean active) {
+        if (active) {
+            deactivatedUsers.remove(userId);
+        } else {
+            deactivatedUsers.add(userId);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ru.springaio.insuranceprobackend.security;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.springaio.insuranceprobackend.entity.User;
+
+// JPA-слушатель сущности User: после коммита сбрасывает закэшированного пользователя
+// и отзывает выданные ему токены — access через версию в TokenRevocationRegistry, refresh удалением
+// из refresh_token, — чтобы деактивация или смена роли вступали в силу на следующем же запросе
+// и не обходились обменом refresh-токена. Массовые JPQL/SQL-обновления таблицы users слушатель не видит.
+@Component
+public class UserChangeListener {
+
+    private final ObjectProvider<UserPrincipalCache> cache;
+    private final ObjectProvider<TokenRevocationRegistry> revocationRegistry;
+    private final ObjectProvider<RefreshTokenService> refreshTokenService;
+
+    public UserChangeListener(ObjectProvider<UserPrincipalCache> cache,
+                              ObjectProvider<TokenRevocationRegistry> revocationRegistry,
+                              ObjectProvider<RefreshTokenService> refreshTokenService) {
+        this.cache = cache;
+        this.revocationRegistry = revocationRegistry;
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    @PostUpdate
+    public void onUserUpdated(User user) {
+        boolean active = user.getActive() != null && user.getActive();
+        afterCommit(() -> apply(user.getId(), user.getLogin(), active));
+    }
+
+    @PostRemove
+    public void onUserRemoved(User user) {
+        afterCommit(() -> apply(user.getId(), user.getLogin(), false));
+    }
+
+    private void apply(Long userId, String login, boolean active) {
+        cache.getObject().evict(login);
+        TokenRevocationRegistry registry = revocationRegistry.getObject();
+        registry.setActive(userId, active);
+        registry.revokeTokens(userId);
+        refreshTokenService.ifAvailable(service -> service.revokeAll(userId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
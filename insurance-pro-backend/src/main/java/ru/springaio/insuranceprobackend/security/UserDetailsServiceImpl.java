@@ -1,8 +1,8 @@
 package ru.springaio.insuranceprobackend.security;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -10,26 +10,36 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.springaio.insuranceprobackend.entity.User;
 import ru.springaio.insuranceprobackend.repository.UserRepository;
 
-import java.util.Collections;
-
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
 
+    // Попадание в кэш не открывает транзакцию и не берёт соединение из пула
     @Override
-    @Transactional(readOnly = true)
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    public UserPrincipal loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserPrincipal cached = userPrincipalCache.get(username);
+        if (cached != null) {
+            return cached;
+        }
+
         User user = userRepository.findByLogin(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with login: " + username));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getLogin(),
-                user.getPassword(),
-                user.getActive() != null && user.getActive(),
-                true, true, true,
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRoleCode().getCode()))
-        );
+        UserPrincipal principal = UserPrincipal.from(user);
+        userPrincipalCache.put(principal);
+        return principal;
+    }
+
+    // DaoAuthenticationProvider вызывает после успешного входа, если хэш создан с другой стоимостью BCrypt
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        UserPrincipal principal = ((UserPrincipal) user).withPassword(newPassword);
+        userPrincipalCache.put(principal);
+        return principal;
     }
 }
@@ -0,0 +1,71 @@
+package ru.springaio.insuranceprobackend.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import ru.springaio.insuranceprobackend.entity.User;
+
+import java.util.Collection;
+import java.util.List;
+
+// Неизменяемое представление аутентифицированного пользователя.
+// Хранится в SecurityContext на время запроса и в UserPrincipalCache между запросами,
+// поэтому сервисам не нужно повторно читать таблицу users.
+@Getter
+public class UserPrincipal implements UserDetails {
+
+    public static final String ROLE_AGENT = "AGENT";
+
+    private final Long id;
+    private final String login;
+    private final String password;
+    private final String fullName;
+    private final String roleCode;
+    private final boolean active;
+    private final List<GrantedAuthority> authorities;
+
+    public UserPrincipal(Long id, String login, String password, String fullName, String roleCode, boolean active) {
+        this.id = id;
+        this.login = login;
+        this.password = password;
+        this.fullName = fullName;
+        this.roleCode = roleCode;
+        this.active = active;
+        this.authorities = roleCode == null ? List.of() : List.of(new SimpleGrantedAuthority("ROLE_" + roleCode));
+    }
+
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(
+                user.getId(),
+                user.getLogin(),
+                user.getPassword(),
+                user.getFullName(),
+                user.getRoleCode() != null ? user.getRoleCode().getCode() : null,
+                user.getActive() != null && user.getActive()
+        );
+    }
+
+    public UserPrincipal withPassword(String password) {
+        return new UserPrincipal(id, login, password, fullName, roleCode, active);
+    }
+
+    public boolean isAgent() {
+        return ROLE_AGENT.equals(roleCode);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getUsername() {
+        return login;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+}
@@ -0,0 +1,39 @@
+package ru.springaio.insuranceprobackend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Ограниченный по размеру LRU-кэш пользователей с истечением записей по TTL.
+// Инвалидируется через UserChangeListener при изменении или удалении пользователя.
+@Component
+public class UserPrincipalCache {
+
+    private final long ttlMillis;
+    private final ExpiringLruCache<String, UserPrincipal> entries;
+
+    public UserPrincipalCache(@Value("${security.user-cache.ttl:PT5M}") Duration ttl,
+                              @Value("${security.user-cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new ExpiringLruCache<>(maxSize);
+    }
+
+    public UserPrincipal get(String login) {
+        return entries.get(login);
+    }
+
+    public void put(UserPrincipal principal) {
+        if (ttlMillis > 0) {
+            entries.put(principal.getLogin(), principal, System.currentTimeMillis() + ttlMillis);
+        }
+    }
+
+    public void evict(String login) {
+        entries.remove(login);
+    }
+
+    public void evictAll() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,160 @@
+package ru.springaio.insuranceprobackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.springaio.insuranceprobackend.entity.ClaimStatus;
+import ru.springaio.insuranceprobackend.entity.Contract;
+import ru.springaio.insuranceprobackend.entity.InsuranceClaim;
+import ru.springaio.insuranceprobackend.repository.InsuranceClaimRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Первичный разбор убытков из очереди NEW.
+// Порция блокируется через FOR UPDATE SKIP LOCKED и решается в той же транзакции,
+// поэтому убыток, взятый одним обработчиком, не виден другим до фиксации решения.
+// Ошибка на одном убытке не откатывает порцию: убыток получает неудачную попытку,
+// а после max-attempts попыток больше не выбирается из очереди.
+@Slf4j
+@Service
+public class ClaimProcessor {
+
+    static final String NEW = "NEW";
+    static final String IN_REVIEW = "IN_REVIEW";
+    static final String APPROVED = "APPROVED";
+    static final String REJECTED = "REJECTED";
+
+    private final InsuranceClaimRepository claimRepository;
+    private final DictionaryRegistry dictionaryRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final BigDecimal autoApproveLimit;
+
+    // Итог одной порции по решениям; failed — убытки, на которых рассмотрение упало
+    public record BatchResult(int approved, int rejected, int sentToReview, int failed) {
+        public int total() {
+            return approved + rejected + sentToReview + failed;
+        }
+    }
+
+    public ClaimProcessor(InsuranceClaimRepository claimRepository,
+                          DictionaryRegistry dictionaryRegistry,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${claims.processing.batch-size:100}") int batchSize,
+                          @Value("${claims.processing.max-attempts:3}") int maxAttempts,
+                          @Value("${claims.processing.auto-approve-limit:0}") BigDecimal autoApproveLimit) {
+        this.claimRepository = claimRepository;
+        this.dictionaryRegistry = dictionaryRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.autoApproveLimit = autoApproveLimit;
+    }
+
+    // Рассматривает очередную порцию; total() == 0 — очередь пуста (или вся занята другими обработчиками)
+    public BatchResult processNextBatch() {
+        List<Long> locked = new ArrayList<>();
+        try {
+            return transactionTemplate.execute(status -> {
+                List<Long> ids = claimRepository.lockNextIds(NEW, maxAttempts, batchSize);
+                locked.addAll(ids);
+                Tally tally = new Tally();
+                for (InsuranceClaim claim : claimRepository.findByIdIn(ids)) {
+                    try {
+                        tally.add(adjudicate(claim));
+                    } catch (RuntimeException e) {
+                        log.warn("Claim {} failed on attempt {}", claim.getId(), claim.getProcessingAttempts() + 1, e);
+                        claim.setProcessingAttempts(claim.getProcessingAttempts() + 1);
+                        tally.failed++;
+                    }
+                }
+                return tally.result();
+            });
+        } catch (RuntimeException e) {
+            if (locked.isEmpty()) {
+                throw e;
+            }
+            // Порция откатилась при записи в БД: рассматриваем её убытки по одному, чтобы остальные не ждали виновника
+            log.warn("Claim batch of {} failed, processing claims one by one", locked.size(), e);
+            return processOneByOne(locked);
+        }
+    }
+
+    private BatchResult processOneByOne(List<Long> ids) {
+        Tally tally = new Tally();
+        for (Long id : ids) {
+            try {
+                String decision = transactionTemplate.execute(status -> {
+                    // Блокировки порции сняты откатом: убыток мог забрать другой обработчик
+                    List<Long> relocked = claimRepository.lockIds(NEW, List.of(id));
+                    return relocked.isEmpty() ? null : adjudicate(claimRepository.findByIdIn(relocked).get(0));
+                });
+                if (decision != null) {
+                    tally.add(decision);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Claim {} failed", id, e);
+                tally.failed++;
+                try {
+                    transactionTemplate.executeWithoutResult(status -> claimRepository.incrementProcessingAttempts(id));
+                } catch (RuntimeException ex) {
+                    log.warn("Failed to record processing attempt of claim {}", id, ex);
+                }
+            }
+        }
+        return tally.result();
+    }
+
+    // Автоматически отклоняется только то, что заведомо не подлежит выплате: убыток без договора,
+    // вне срока его действия или без заявленной суммы. Остальные уходят специалисту (IN_REVIEW).
+    // Одобрение без специалиста — только при явно заданном claims.processing.auto-approve-limit
+    // (по умолчанию 0 — выключено): к выплате заявленная сумма, но не больше страховой
+    private String adjudicate(InsuranceClaim claim) {
+        Contract contract = claim.getContract();
+        String decision;
+        BigDecimal payable = null;
+        if (contract == null
+                || claim.getIncidentDate().isBefore(contract.getStartDate())
+                || claim.getIncidentDate().isAfter(contract.getEndDate())
+                || claim.getClaimedAmount() == null
+                || claim.getClaimedAmount().signum() <= 0) {
+            decision = REJECTED;
+        } else {
+            payable = claim.getClaimedAmount().min(contract.getInsuredAmount());
+            decision = autoApproveLimit.signum() > 0 && payable.compareTo(autoApproveLimit) <= 0 ? APPROVED : IN_REVIEW;
+        }
+        ClaimStatus status = dictionaryRegistry.getClaimStatus(decision);
+        if (status == null) {
+            throw new IllegalStateException("Claim status " + decision + " is missing from the dictionary");
+        }
+        if (APPROVED.equals(decision)) {
+            claim.setApprovedAmount(payable);
+        }
+        claim.setStatusCode(status);
+        return decision;
+    }
+
+    private static final class Tally {
+        private int approved;
+        private int rejected;
+        private int review;
+        private int failed;
+
+        void add(String decision) {
+            switch (decision) {
+                case APPROVED -> approved++;
+                case REJECTED -> rejected++;
+                default -> review++;
+            }
+        }
+
+        BatchResult result() {
+            return new BatchResult(approved, rejected, review, failed);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.springaio.insuranceprobackend.service;
+
+import ru.springaio.insuranceprobackend.dto.ClaimDto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ClaimService {
+    List<ClaimDto> findByContract(Long contractId);
+    ClaimDto findById(Long id);
+    ClaimDto register(ClaimDto claimDto);
+    ClaimDto decide(Long id, boolean approve, BigDecimal approvedAmount);
+}
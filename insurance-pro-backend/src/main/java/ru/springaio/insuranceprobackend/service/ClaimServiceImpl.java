@@ -0,0 +1,106 @@
+package ru.springaio.insuranceprobackend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.springaio.insuranceprobackend.dto.ClaimDto;
+import ru.springaio.insuranceprobackend.entity.Contract;
+import ru.springaio.insuranceprobackend.entity.InsuranceClaim;
+import ru.springaio.insuranceprobackend.mapper.ClaimMapper;
+import ru.springaio.insuranceprobackend.repository.ContractRepository;
+import ru.springaio.insuranceprobackend.repository.InsuranceClaimRepository;
+import ru.springaio.insuranceprobackend.security.SecurityUtils;
+import ru.springaio.insuranceprobackend.security.UserPrincipal;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ClaimServiceImpl implements ClaimService {
+
+    private final InsuranceClaimRepository claimRepository;
+    private final ContractRepository contractRepository;
+    private final ClaimMapper claimMapper;
+    private final DictionaryRegistry dictionaryRegistry;
+    private final SecurityUtils securityUtils;
+    private final DocumentNumberGenerator documentNumberGenerator;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClaimDto> findByContract(Long contractId) {
+        Contract contract = contractRepository.findById(contractId)
+                .orElseThrow(() -> new RuntimeException("Contract not found"));
+        checkAccess(contract);
+        return claimRepository.findByContractIdOrderByCreatedAtAscIdAsc(contractId).stream()
+                .map(claimMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ClaimDto findById(Long id) {
+        InsuranceClaim claim = claimRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Claim not found"));
+        checkAccess(claim.getContract());
+        return claimMapper.toDto(claim);
+    }
+
+    @Override
+    @Transactional
+    public ClaimDto register(ClaimDto claimDto) {
+        if (claimDto.getContractId() == null || claimDto.getIncidentDate() == null) {
+            throw new RuntimeException("Contract and incident date are required");
+        }
+        if (claimDto.getClaimedAmount() == null || claimDto.getClaimedAmount().signum() <= 0) {
+            throw new RuntimeException("Claimed amount must be positive");
+        }
+        Contract contract = contractRepository.findById(claimDto.getContractId())
+                .orElseThrow(() -> new RuntimeException("Contract not found"));
+        checkAccess(contract);
+
+        // Новый убыток попадает в очередь и рассматривается обработчиками ClaimWorkerPool
+        InsuranceClaim claim = new InsuranceClaim();
+        claim.setContract(contract);
+        claim.setClaimNumber(documentNumberGenerator.nextClaimNumber());
+        claim.setIncidentDate(claimDto.getIncidentDate());
+        claim.setDescription(claimDto.getDescription());
+        claim.setClaimedAmount(claimDto.getClaimedAmount());
+        claim.setStatusCode(dictionaryRegistry.getClaimStatus(ClaimProcessor.NEW));
+        claim.setCreatedAt(Instant.now());
+        return claimMapper.toDto(claimRepository.save(claim));
+    }
+
+    @Override
+    @Transactional
+    public ClaimDto decide(Long id, boolean approve, BigDecimal approvedAmount) {
+        InsuranceClaim claim = claimRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Claim not found"));
+        // Решение специалиста — только по убыткам, отправленным на ручное рассмотрение
+        if (!ClaimProcessor.IN_REVIEW.equals(claim.getStatusCode().getCode())) {
+            throw new RuntimeException("Claim is not awaiting review");
+        }
+        if (approve) {
+            BigDecimal amount = approvedAmount != null ? approvedAmount
+                    : claim.getClaimedAmount().min(claim.getContract().getInsuredAmount());
+            if (amount.signum() <= 0 || amount.compareTo(claim.getContract().getInsuredAmount()) > 0) {
+                throw new RuntimeException("Approved amount must be positive and not exceed the insured amount");
+            }
+            claim.setApprovedAmount(amount);
+            claim.setStatusCode(dictionaryRegistry.getClaimStatus(ClaimProcessor.APPROVED));
+        } else {
+            claim.setApprovedAmount(null);
+            claim.setStatusCode(dictionaryRegistry.getClaimStatus(ClaimProcessor.REJECTED));
+        }
+        return claimMapper.toDto(claim);
+    }
+
+    private void checkAccess(Contract contract) {
+        UserPrincipal currentUser = securityUtils.getCurrentUser();
+        // Агент работает с убытками только по своим договорам. Менеджер и Админ — по любым.
+        if (currentUser.isAgent() && (contract.getAgent() == null || !contract.getAgent().getId().equals(currentUser.getId()))) {
+            throw new RuntimeException("Access denied");
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package ru.springaio.insuranceprobackend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.springaio.insuranceprobackend.dto.ClaimQueueStatsDto;
+import ru.springaio.insuranceprobackend.repository.InsuranceClaimRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Пул обработчиков очереди убытков. Каждый поток в цикле забирает порцию через ClaimProcessor;
+// если очередь пуста, засыпает на claims.processing.poll-interval. Несколько экземпляров
+// приложения могут работать одновременно: разделение работы обеспечивает SKIP LOCKED.
+@Slf4j
+@Component
+public class ClaimWorkerPool {
+
+    private final ClaimProcessor claimProcessor;
+    private final InsuranceClaimRepository claimRepository;
+    private final boolean enabled;
+    private final int workers;
+    private final Duration pollInterval;
+
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    private final LongAdder approved = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder sentToReview = new LongAdder();
+    private final LongAdder failedClaims = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    // Начало первой и конец последней обработанной порции (System.nanoTime) для расчёта скорости
+    private final AtomicLong firstBatchNanos = new AtomicLong();
+    private final AtomicLong lastBatchNanos = new AtomicLong();
+
+    public ClaimWorkerPool(ClaimProcessor claimProcessor,
+                           InsuranceClaimRepository claimRepository,
+                           @Value("${claims.processing.enabled:false}") boolean enabled,
+                           @Value("${claims.processing.workers:4}") int workers,
+                           @Value("${claims.processing.poll-interval:PT1S}") Duration pollInterval) {
+        this.claimProcessor = claimProcessor;
+        this.claimRepository = claimRepository;
+        this.enabled = enabled;
+        this.workers = workers;
+        this.pollInterval = pollInterval;
+    }
+
+    // Запуск после старта приложения, когда миграции Liquibase уже применены
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            Thread thread = Thread.ofPlatform().name("claim-worker-" + i).daemon(true).start(this::work);
+            threads.add(thread);
+        }
+        log.info("Started {} claim workers", workers);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+        for (Thread thread : threads) {
+            try {
+                thread.join(pollInterval.toMillis() + 5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        threads.clear();
+    }
+
+    private void work() {
+        while (running) {
+            try {
+                long started = System.nanoTime();
+                ClaimProcessor.BatchResult result = claimProcessor.processNextBatch();
+                if (result.total() > 0) {
+                    record(result, started);
+                } else {
+                    Thread.sleep(pollInterval.toMillis());
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                failedBatches.increment();
+                log.warn("Claim batch failed, retrying after {}", pollInterval, e);
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void record(ClaimProcessor.BatchResult result, long started) {
+        firstBatchNanos.compareAndSet(0, started);
+        lastBatchNanos.accumulateAndGet(System.nanoTime(), Math::max);
+        approved.add(result.approved());
+        rejected.add(result.rejected());
+        sentToReview.add(result.sentToReview());
+        failedClaims.add(result.failed());
+    }
+
+    public ClaimQueueStatsDto getStats() {
+        Map<String, Long> depth = new TreeMap<>();
+        for (Object[] row : claimRepository.countByStatus()) {
+            depth.put(row[0] != null ? (String) row[0] : "", (Long) row[1]);
+        }
+        long approvedCount = approved.sum();
+        long rejectedCount = rejected.sum();
+        long reviewCount = sentToReview.sum();
+        long processed = approvedCount + rejectedCount + reviewCount;
+        long activeNanos = lastBatchNanos.get() - firstBatchNanos.get();
+        double throughput = activeNanos > 0 ? processed * 1_000_000_000.0 / activeNanos : 0;
+        return new ClaimQueueStatsDto(depth, workers, running, processed, approvedCount, rejectedCount, reviewCount,
+                failedClaims.sum(), failedBatches.sum(), throughput);
+    }
+}
@@ -3,9 +3,14 @@ package ru.springaio.insuranceprobackend.service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import ru.springaio.insuranceprobackend.dto.ClientDto;
+import ru.springaio.insuranceprobackend.dto.CursorPageDto;
+
+import java.util.List;
 
 public interface ClientService {
     Page<ClientDto> findAll(String fullName, String passport, String phone, Pageable pageable);
+    CursorPageDto<ClientDto> findAllByCursor(String fullName, String passport, String phone, String cursor, int size);
+    List<ClientDto> search(String text, int limit);
     ClientDto findById(Long id);
     ClientDto save(ClientDto clientDto);
     ClientDto update(Long id, ClientDto clientDto);
@@ -1,47 +1,87 @@
 package ru.springaio.insuranceprobackend.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.springaio.insuranceprobackend.dto.ClientDto;
+import ru.springaio.insuranceprobackend.dto.CursorPageDto;
 import ru.springaio.insuranceprobackend.entity.Client;
-import ru.springaio.insuranceprobackend.entity.User;
 import ru.springaio.insuranceprobackend.mapper.ClientMapper;
+import ru.springaio.insuranceprobackend.monitoring.MetricsConfig;
 import ru.springaio.insuranceprobackend.repository.ClientRepository;
 import ru.springaio.insuranceprobackend.repository.ClientSpecification;
+import ru.springaio.insuranceprobackend.repository.ContractRepository;
 import ru.springaio.insuranceprobackend.repository.UserRepository;
 import ru.springaio.insuranceprobackend.security.SecurityUtils;
+import ru.springaio.insuranceprobackend.security.UserPrincipal;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ClientServiceImpl implements ClientService {
 
     private final ClientRepository clientRepository;
+    private final ContractRepository contractRepository;
     private final UserRepository userRepository;
     private final ClientMapper clientMapper;
     private final SecurityUtils securityUtils;
+    private final StatisticsAggregator statisticsAggregator;
 
     @Override
     @Transactional(readOnly = true)
     public Page<ClientDto> findAll(String fullName, String passport, String phone, Pageable pageable) {
-        User currentUser = userRepository.findByLogin(securityUtils.getCurrentUserLogin()).orElseThrow();
-        
-        Specification<Client> spec = Specification.where(ClientSpecification.hasFullName(fullName))
-                .and(ClientSpecification.hasPassport(passport))
-                .and(ClientSpecification.hasPhone(phone));
+        Specification<Client> spec = buildSpecification(fullName, passport, phone);
+        return clientRepository.findAll(spec, pageable).map(clientMapper::toDto);
+    }
 
-        // Ролевая модель
-        String role = currentUser.getRoleCode().getCode();
-        if ("AGENT".equals(role)) {
-            spec = spec.and(ClientSpecification.hasAgent(currentUser));
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<ClientDto> findAllByCursor(String fullName, String passport, String phone, String cursor, int size) {
+        Specification<Client> spec = buildSpecification(fullName, passport, phone);
+
+        // Keyset по (fullName, id): без OFFSET и без отдельного COUNT(*)
+        Window<Client> window = clientRepository.findBy(spec.and(ClientSpecification.fetchAgent()), query -> query
+                .sortBy(Sort.by("fullName", "id"))
+                .limit(size)
+                .scroll(scrollPosition(cursor)));
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            Client last = window.getContent().get(window.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getFullName(), last.getId().toString());
         }
+        return new CursorPageDto<>(window.map(clientMapper::toDto).getContent(), nextCursor, window.hasNext());
+    }
 
-        return clientRepository.findAll(spec, pageable).map(clientMapper::toDto);
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClientDto> search(String text, int limit) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        UserPrincipal currentUser = securityUtils.getCurrentUser();
+        Long agentId = currentUser.isAgent() ? currentUser.getId() : null;
+
+        // Сначала идентификаторы в порядке релевантности, затем сущности одним запросом
+        List<Long> ids = clientRepository.searchIds(text, agentId, limit);
+        Map<Long, Client> byId = clientRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Client::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).map(clientMapper::toDto).toList();
     }
 
     @Override
@@ -60,14 +100,16 @@ public class ClientServiceImpl implements ClientService {
         clientRepository.findByPassportSeriesAndPassportNumber(clientDto.getPassportSeries(), clientDto.getPassportNumber())
                 .ifPresent(c -> { throw new RuntimeException("Client with this passport already exists"); });
 
-        User currentUser = userRepository.findByLogin(securityUtils.getCurrentUserLogin()).orElseThrow();
-        
+        UserPrincipal currentUser = securityUtils.getCurrentUser();
+
         Client client = new Client();
         clientMapper.updateEntity(client, clientDto);
         client.setRegistrationDate(Instant.now());
-        client.setAgent(currentUser);
-        
-        return clientMapper.toDto(clientRepository.save(client));
+        client.setAgent(userRepository.getReferenceById(currentUser.getId()));
+
+        Client saved = clientRepository.save(client);
+        statisticsAggregator.clientAdded(saved);
+        return clientMapper.toDto(saved);
     }
 
     @Override
@@ -88,17 +130,40 @@ public class ClientServiceImpl implements ClientService {
                 .orElseThrow(() -> new RuntimeException("Client not found"));
         checkAccess(client);
         
-        if (!client.getContracts().isEmpty()) {
+        if (contractRepository.existsByClientId(id)) {
             throw new RuntimeException("Cannot delete client with active contracts");
         }
-        
+
+        statisticsAggregator.clientRemoved(client);
         clientRepository.delete(client);
     }
 
+    private Specification<Client> buildSpecification(String fullName, String passport, String phone) {
+        UserPrincipal currentUser = securityUtils.getCurrentUser();
+
+        Specification<Client> spec = Specification.where(ClientSpecification.hasFullName(fullName))
+                .and(ClientSpecification.hasPassport(passport))
+                .and(ClientSpecification.hasPhone(phone));
+
+        // Ролевая модель
+        if (currentUser.isAgent()) {
+            spec = spec.and(ClientSpecification.hasAgent(currentUser.getId()));
+        }
+        return spec;
+    }
+
+    // Позиция keyset по курсору: (fullName, id) последней строки предыдущей страницы
+    private static KeysetScrollPosition scrollPosition(String cursor) {
+        if (KeysetCursor.isFirstPage(cursor)) {
+            return ScrollPosition.keyset();
+        }
+        String[] keys = KeysetCursor.decode(cursor, 2);
+        return ScrollPosition.forward(Map.of("fullName", keys[0], "id", Long.valueOf(keys[1])));
+    }
+
     private void checkAccess(Client client) {
-        User currentUser = userRepository.findByLogin(securityUtils.getCurrentUserLogin()).orElseThrow();
-        String role = currentUser.getRoleCode().getCode();
-        if ("AGENT".equals(role) && !client.getAgent().getId().equals(currentUser.getId())) {
+        UserPrincipal currentUser = securityUtils.getCurrentUser();
+        if (currentUser.isAgent() && !client.getAgent().getId().equals(currentUser.getId())) {
             throw new RuntimeException("Access denied");
         }
     }
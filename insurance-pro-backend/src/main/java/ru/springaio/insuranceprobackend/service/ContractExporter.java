@@ -0,0 +1,186 @@
+package ru.springaio.insuranceprobackend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import ru.springaio.insuranceprobackend.dto.ContractDto;
+import ru.springaio.insuranceprobackend.entity.Client;
+import ru.springaio.insuranceprobackend.entity.Contract;
+import ru.springaio.insuranceprobackend.entity.User;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Потоковая выгрузка договоров: строки читаются курсором FORWARD_ONLY и сразу пишутся в поток.
+// Запрос выбирает скалярные колонки, а не сущности, поэтому контекст персистентности не растёт,
+// а память не зависит от числа строк. Вызывается внутри read-only транзакции (на PostgreSQL
+// fetchSize работает только при выключенном autocommit).
+@Component
+public class ContractExporter {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    // Колонки CSV совпадают с именами полей ContractDto, так что выгрузку можно загрузить обратно импортом
+    private static final String[] CSV_HEADER = {
+            "id", "contractNumber", "clientId", "clientFullName", "insuranceTypeCode", "insuranceTypeName",
+            "agentId", "agentFullName", "statusCode", "statusName", "startDate", "endDate",
+            "premiumAmount", "insuredAmount", "createdAt"
+    };
+
+    private final EntityManager entityManager;
+    private final DictionaryRegistry dictionaryRegistry;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ContractExporter(EntityManager entityManager,
+                            DictionaryRegistry dictionaryRegistry,
+                            ObjectMapper objectMapper,
+                            @Value("${contracts.export.fetch-size:1000}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.dictionaryRegistry = dictionaryRegistry;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    public void write(Specification<Contract> spec, Format format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        try (ScrollableResults<Object[]> rows = scroll(spec)) {
+            if (format == Format.CSV) {
+                writeCsv(rows, writer);
+            } else {
+                writeJsonLines(rows, writer);
+            }
+        }
+        writer.flush();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ScrollableResults<Object[]> scroll(Specification<Contract> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Contract> root = query.from(Contract.class);
+        Join<Contract, Client> client = root.join("client", JoinType.LEFT);
+        Join<Contract, User> agent = root.join("agent", JoinType.LEFT);
+        // Коды справочников берутся из внешних ключей, названия — из DictionaryRegistry
+        query.multiselect(
+                root.get("id"), root.get("contractNumber"),
+                client.get("id"), client.get("fullName"),
+                root.get("insuranceTypeCode").get("code"),
+                agent.get("id"), agent.get("fullName"),
+                root.get("statusCode").get("code"),
+                root.get("startDate"), root.get("endDate"),
+                root.get("premiumAmount"), root.get("insuredAmount"), root.get("createdAt"));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .unwrap(Query.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    private void writeCsv(ScrollableResults<Object[]> rows, Writer writer) throws IOException {
+        writeCsvRecord(writer, CSV_HEADER);
+        String[] values = new String[CSV_HEADER.length];
+        while (rows.next()) {
+            ContractDto dto = toDto(rows.get());
+            values[0] = str(dto.getId());
+            values[1] = dto.getContractNumber();
+            values[2] = str(dto.getClientId());
+            values[3] = dto.getClientFullName();
+            values[4] = dto.getInsuranceTypeCode();
+            values[5] = dto.getInsuranceTypeName();
+            values[6] = str(dto.getAgentId());
+            values[7] = dto.getAgentFullName();
+            values[8] = dto.getStatusCode();
+            values[9] = dto.getStatusName();
+            values[10] = str(dto.getStartDate());
+            values[11] = str(dto.getEndDate());
+            values[12] = dto.getPremiumAmount() != null ? dto.getPremiumAmount().toPlainString() : null;
+            values[13] = dto.getInsuredAmount() != null ? dto.getInsuredAmount().toPlainString() : null;
+            values[14] = str(dto.getCreatedAt());
+            writeCsvRecord(writer, values);
+        }
+    }
+
+    private void writeJsonLines(ScrollableResults<Object[]> rows, Writer writer) throws IOException {
+        // Генератор не закрывает writer: поток ответа закрывает контейнер
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        while (rows.next()) {
+            objectMapper.writeValue(generator, toDto(rows.get()));
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private ContractDto toDto(Object[] row) {
+        ContractDto dto = new ContractDto();
+        dto.setId((Long) row[0]);
+        dto.setContractNumber((String) row[1]);
+        dto.setClientId((Long) row[2]);
+        dto.setClientFullName((String) row[3]);
+        dto.setInsuranceTypeCode((String) row[4]);
+        dto.setInsuranceTypeName(dictionaryRegistry.getName(DictionaryRegistry.INSURANCE_TYPES, dto.getInsuranceTypeCode()));
+        dto.setAgentId((Long) row[5]);
+        dto.setAgentFullName((String) row[6]);
+        dto.setStatusCode((String) row[7]);
+        dto.setStatusName(dictionaryRegistry.getName(DictionaryRegistry.CONTRACT_STATUSES, dto.getStatusCode()));
+        dto.setStartDate((LocalDate) row[8]);
+        dto.setEndDate((LocalDate) row[9]);
+        dto.setPremiumAmount((BigDecimal) row[10]);
+        dto.setInsuredAmount((BigDecimal) row[11]);
+        dto.setCreatedAt((Instant) row[12]);
+        return dto;
+    }
+
+    private static String str(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    // RFC 4180: значение в кавычках, если содержит разделитель, кавычку или перевод строки
+    private static void writeCsvRecord(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+}
@@ -0,0 +1,382 @@
+package ru.springaio.insuranceprobackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.springaio.insuranceprobackend.dto.ContractDto;
+import ru.springaio.insuranceprobackend.dto.ContractImportResultDto;
+import ru.springaio.insuranceprobackend.dto.ImportRowErrorDto;
+import ru.springaio.insuranceprobackend.entity.Client;
+import ru.springaio.insuranceprobackend.entity.Contract;
+import ru.springaio.insuranceprobackend.entity.User;
+import ru.springaio.insuranceprobackend.security.SecurityUtils;
+import ru.springaio.insuranceprobackend.security.UserPrincipal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Потоковый импорт договоров из CSV и JSON Lines.
+// Строки читаются по одной, проверяются по тем же правилам, что и ContractServiceImpl.save,
+// и сохраняются порциями: каждая порция — отдельная транзакция с пакетной вставкой.
+// Если порция не сохранилась целиком, её строки повторяются по одной, чтобы найти виновную.
+@Slf4j
+@Service
+public class ContractImportService {
+
+    // Сколько ошибок попадает в отчёт; остальные только подсчитываются
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final DictionaryRegistry dictionaryRegistry;
+    private final StatisticsAggregator statisticsAggregator;
+    private final DocumentNumberGenerator documentNumberGenerator;
+    private final SecurityUtils securityUtils;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ContractImportService(EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 DictionaryRegistry dictionaryRegistry,
+                                 StatisticsAggregator statisticsAggregator,
+                                 DocumentNumberGenerator documentNumberGenerator,
+                                 SecurityUtils securityUtils,
+                                 ObjectMapper objectMapper,
+                                 @Value("${contracts.import.chunk-size:1000}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dictionaryRegistry = dictionaryRegistry;
+        this.statisticsAggregator = statisticsAggregator;
+        this.documentNumberGenerator = documentNumberGenerator;
+        this.securityUtils = securityUtils;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    // Первая строка — заголовок с именами полей ContractDto; разделитель — запятая или точка с запятой
+    public ContractImportResultDto importCsv(InputStream input) {
+        return run(input, CsvRowSource::new);
+    }
+
+    // Каждая непустая строка — JSON-объект с полями ContractDto
+    public ContractImportResultDto importJsonLines(InputStream input) {
+        return run(input, JsonLinesRowSource::new);
+    }
+
+    private interface RowSourceFactory {
+        RowSource open(BufferedReader reader) throws IOException;
+    }
+
+    private interface RowSource {
+        // null — строки закончились
+        ParsedRow next() throws IOException;
+    }
+
+    // Разобранная строка: либо dto, либо описание ошибки разбора
+    private record ParsedRow(long line, ContractDto dto, String error) {
+    }
+
+    private ContractImportResultDto run(InputStream input, RowSourceFactory factory) {
+        UserPrincipal currentUser = securityUtils.getCurrentUser();
+        Report report = new Report();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            RowSource source = factory.open(reader);
+            List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+            ParsedRow row;
+            while ((row = source.next()) != null) {
+                report.totalRows++;
+                if (row.error() != null) {
+                    report.fail(row.line(), row.error());
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    importChunk(chunk, currentUser, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, currentUser, report);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read import data: " + e.getMessage());
+        }
+        return report.toDto();
+    }
+
+    private void importChunk(List<ParsedRow> chunk, UserPrincipal currentUser, Report report) {
+        // Клиенты порции проверяются одним запросом вместо findById на каждую строку
+        Set<Long> clientIds = chunk.stream().map(r -> r.dto().getClientId()).filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> existingClients = clientIds.isEmpty() ? Set.of() : new HashSet<>(entityManager
+                .createQuery("select c.id from Client c where c.id in :ids", Long.class)
+                .setParameter("ids", clientIds)
+                .getResultList());
+
+        List<ParsedRow> valid = new ArrayList<>(chunk.size());
+        for (ParsedRow row : chunk) {
+            String error = validate(row.dto(), existingClients);
+            if (error != null) {
+                report.fail(row.line(), error);
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(valid, currentUser));
+            report.imported += valid.size();
+        } catch (RuntimeException chunkError) {
+            log.debug("Import chunk failed, retrying {} rows one by one", valid.size(), chunkError);
+            for (ParsedRow row : valid) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(List.of(row), currentUser));
+                    report.imported++;
+                } catch (RuntimeException rowError) {
+                    report.fail(row.line(), persistErrorMessage(rowError));
+                }
+            }
+        }
+    }
+
+    private void persist(List<ParsedRow> rows, UserPrincipal currentUser) {
+        User agent = entityManager.getReference(User.class, currentUser.getId());
+        Instant createdAt = Instant.now();
+        List<Contract> contracts = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            ContractDto dto = row.dto();
+            Contract contract = new Contract();
+            contract.setContractNumber(dto.getContractNumber() != null && !dto.getContractNumber().isBlank()
+                    ? dto.getContractNumber().trim() : documentNumberGenerator.nextContractNumber(dto.getInsuranceTypeCode()));
+            if (dto.getClientId() != null) {
+                contract.setClient(entityManager.getReference(Client.class, dto.getClientId()));
+            }
+            contract.setInsuranceTypeCode(dictionaryRegistry.getInsuranceType(dto.getInsuranceTypeCode()));
+            contract.setStatusCode(dictionaryRegistry.getContractStatus(dto.getStatusCode()));
+            contract.setStartDate(dto.getStartDate());
+            contract.setEndDate(dto.getEndDate());
+            contract.setPremiumAmount(dto.getPremiumAmount());
+            contract.setInsuredAmount(dto.getInsuredAmount());
+            contract.setCreatedAt(createdAt);
+            contract.setAgent(agent);
+            entityManager.persist(contract);
+            contracts.add(contract);
+        }
+        // Сначала отправляем вставки пакетами и отпускаем сущности порции: иначе каждый
+        // нативный запрос агрегатора запускал бы проверку изменений по всей порции
+        entityManager.flush();
+        entityManager.clear();
+        statisticsAggregator.contractsAdded(contracts);
+    }
+
+    // Правила ContractServiceImpl.save и ограничения NOT NULL таблицы contract
+    private String validate(ContractDto dto, Set<Long> existingClients) {
+        if (dto.getStartDate() == null || dto.getEndDate() == null) {
+            return "Start date and end date are required";
+        }
+        if (dto.getEndDate().isBefore(dto.getStartDate()) || dto.getEndDate().isEqual(dto.getStartDate())) {
+            return "End date must be after start date";
+        }
+        if (dto.getPremiumAmount() == null || dto.getInsuredAmount() == null) {
+            return "Premium amount and insured amount are required";
+        }
+        if (dto.getContractNumber() != null && dto.getContractNumber().trim().length() > 100) {
+            return "Contract number is too long";
+        }
+        if (dto.getInsuranceTypeCode() != null && dictionaryRegistry.getName(DictionaryRegistry.INSURANCE_TYPES, dto.getInsuranceTypeCode()) == null) {
+            return "Unknown insurance type: " + dto.getInsuranceTypeCode();
+        }
+        if (dto.getStatusCode() != null && dictionaryRegistry.getName(DictionaryRegistry.CONTRACT_STATUSES, dto.getStatusCode()) == null) {
+            return "Unknown contract status: " + dto.getStatusCode();
+        }
+        if (dto.getClientId() != null && !existingClients.contains(dto.getClientId())) {
+            return "Client not found: " + dto.getClientId();
+        }
+        return null;
+    }
+
+    // Нарушение ограничения БД (чаще всего повтор номера договора) — без текста SQL в отчёте
+    private static String persistErrorMessage(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException violation) {
+                return "Constraint violation: " + Objects.requireNonNullElse(violation.getConstraintName(), "unknown");
+            }
+        }
+        return rootMessage(e);
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    private static final class Report {
+        private long totalRows;
+        private long imported;
+        private long failed;
+        private final List<ImportRowErrorDto> errors = new ArrayList<>();
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportRowErrorDto(line, message));
+            }
+        }
+
+        private ContractImportResultDto toDto() {
+            // Ошибки разбора фиксируются при чтении, ошибки сохранения — при записи порции
+            errors.sort(Comparator.comparingLong(ImportRowErrorDto::getLine));
+            return new ContractImportResultDto(totalRows, imported, failed, errors, failed > errors.size());
+        }
+    }
+
+    private final class JsonLinesRowSource implements RowSource {
+        private final BufferedReader reader;
+        private long lineNumber;
+
+        private JsonLinesRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return new ParsedRow(lineNumber, objectMapper.readValue(line, ContractDto.class), null);
+                } catch (JsonProcessingException e) {
+                    return new ParsedRow(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    // Разбор CSV по RFC 4180: поля в кавычках могут содержать разделитель, кавычки ("") и переводы строк
+    private final class CsvRowSource implements RowSource {
+        private final BufferedReader reader;
+        private final char delimiter;
+        private final List<String> header;
+        private long lineNumber;
+
+        private CsvRowSource(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new RuntimeException("CSV header is missing");
+            }
+            lineNumber = 1;
+            if (headerLine.startsWith("﻿")) {
+                headerLine = headerLine.substring(1);
+            }
+            this.delimiter = headerLine.indexOf(';') >= 0 && headerLine.indexOf(',') < 0 ? ';' : ',';
+            this.header = parse(headerLine).stream().map(String::trim).toList();
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                lineNumber++;
+            } while (line.isBlank());
+            long startLine = lineNumber;
+
+            // Запись продолжается на следующих строках, пока кавычки не закрыты
+            StringBuilder record = new StringBuilder(line);
+            while (!quotesBalanced(record)) {
+                String continuation = reader.readLine();
+                if (continuation == null) {
+                    return new ParsedRow(startLine, null, "Unterminated quoted field");
+                }
+                lineNumber++;
+                record.append('\n').append(continuation);
+            }
+
+            List<String> values = parse(record.toString());
+            if (values.size() != header.size()) {
+                return new ParsedRow(startLine, null, "Expected " + header.size() + " fields but found " + values.size());
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                String value = values.get(i).trim();
+                if (!value.isEmpty()) {
+                    fields.put(header.get(i), value);
+                }
+            }
+            try {
+                return new ParsedRow(startLine, objectMapper.convertValue(fields, ContractDto.class), null);
+            } catch (IllegalArgumentException e) {
+                return new ParsedRow(startLine, null, "Invalid value: " + rootMessage(e));
+            }
+        }
+
+        private boolean quotesBalanced(CharSequence record) {
+            int quotes = 0;
+            for (int i = 0; i < record.length(); i++) {
+                if (record.charAt(i) == '"') quotes++;
+            }
+            return quotes % 2 == 0;
+        }
+
+        private List<String> parse(String record) {
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < record.length(); i++) {
+                char ch = record.charAt(i);
+                if (quoted) {
+                    if (ch == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        value.append('"');
+                        i++;
+                    } else if (ch == '"') {
+                        quoted = false;
+                    } else {
+                        value.append(ch);
+                    }
+                } else if (ch == '"') {
+                    quoted = true;
+                } else if (ch == delimiter) {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else {
+                    value.append(ch);
+                }
+            }
+            values.add(value.toString());
+            return values;
+        }
+    }
+}
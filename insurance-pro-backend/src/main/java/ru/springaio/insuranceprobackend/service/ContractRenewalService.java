@@ -0,0 +1,486 @@
+package ru.springaio.insuranceprobackend.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.springaio.insuranceprobackend.dto.RenewalReportDto;
+import ru.springaio.insuranceprobackend.entity.Contract;
+import ru.springaio.insuranceprobackend.entity.User;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+// Ночная пролонгация: для действующих договоров, срок которых заканчивается в пределах горизонта,
+// создаются черновики на следующий период с премией по текущим тарифам (TariffEngine) и копией данных продукта.
+// Договоры делятся на диапазоны id (renewal_partition), диапазоны обрабатываются параллельно на ForkJoinPool,
+// каждый — одной транзакцией с пакетными JDBC-вставками и без загрузки сущностей.
+// Обработанный диапазон отмечается в той же транзакции, поэтому прерванный прогон продолжается со следующих.
+// Диапазон, упавший max-attempts раз, больше не повторяется: прогон завершается со статусом FAILED,
+// и следующий вызов начинает новый прогон на свою дату.
+@Slf4j
+@Service
+public class ContractRenewalService {
+
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+    static final String FAILED = "FAILED";
+
+    // Шаг contract_seq (allocationSize в Contract): значение последовательности — верхняя граница блока id
+    private static final int CONTRACT_ID_BLOCK = 50;
+
+    private static final String ELIGIBLE = """
+            c.status_code = 'ACTIVE' AND c.end_date BETWEEN ? AND ?
+            AND NOT EXISTS (SELECT 1 FROM contract_renewal r WHERE r.source_contract_id = c.id)
+            """;
+
+    private static final String SELECT_PARTITION = """
+            SELECT c.id, c.client_id, c.insurance_type_code, c.agent_id, c.start_date, c.end_date,
+                   c.premium_amount, c.insured_amount,
+                   COALESCE(cd.id, od.id, ld.id, pd.id) AS details_id,
+                   cd.vehicle_cost, cd.manufacture_year, cd.franchise_amount,
+                   od.driving_experience,
+                   ld.birth_date, ld.health_status,
+                   pd.cost, pd.area, pd.construction_year
+            FROM contract c
+            LEFT JOIN casco_data cd ON cd.contract_id = c.id
+            LEFT JOIN osago_data od ON od.contract_id = c.id
+            LEFT JOIN life_insurance_data ld ON ld.contract_id = c.id
+            LEFT JOIN property_insurance_data pd ON pd.contract_id = c.id
+            WHERE c.id >= ? AND c.id < ? AND
+            """ + ELIGIBLE + " ORDER BY c.id";
+
+    private static final String INSERT_CONTRACT = """
+            INSERT INTO contract (id, contract_number, client_id, insurance_type_code, agent_id, status_code,
+                                  start_date, end_date, premium_amount, insured_amount, created_at)
+            VALUES (?, ?, ?, ?, ?, 'DRAFT', ?, ?, ?, ?, ?)
+            """;
+
+    // Данные продукта копируются из исходного договора: (id черновика, id исходного договора)
+    private static final Map<String, String> COPY_DETAILS = Map.of(
+            TariffEngine.CASCO, """
+                    INSERT INTO casco_data (contract_id, vehicle_model, manufacture_year, vehicle_cost, has_franchise, franchise_amount)
+                    SELECT ?, vehicle_model, manufacture_year, vehicle_cost, has_franchise, franchise_amount
+                    FROM casco_data WHERE contract_id = ?
+                    """,
+            TariffEngine.OSAGO, """
+                    INSERT INTO osago_data (contract_id, license_plate, vehicle_model, vin, driving_experience)
+                    SELECT ?, license_plate, vehicle_model, vin, driving_experience
+                    FROM osago_data WHERE contract_id = ?
+                    """,
+            TariffEngine.LIFE, """
+                    INSERT INTO life_insurance_data (contract_id, birth_date, gender, profession, health_status)
+                    SELECT ?, birth_date, gender, profession, health_status
+                    FROM life_insurance_data WHERE contract_id = ?
+                    """,
+            TariffEngine.PROPERTY, """
+                    INSERT INTO property_insurance_data (contract_id, property_type, address, area, construction_year, cost)
+                    SELECT ?, property_type, address, area, construction_year, cost
+                    FROM property_insurance_data WHERE contract_id = ?
+                    """);
+
+    private final TariffEngine tariffEngine;
+    private final StatisticsAggregator statisticsAggregator;
+    private final DictionaryRegistry dictionaryRegistry;
+    private final DocumentNumberGenerator documentNumberGenerator;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool pool;
+    private final String nextContractIdBlockSql;
+    private final Period horizon;
+    private final int partitionSize;
+    private final int maxAttempts;
+
+    // Один прогон за раз в пределах экземпляра. Между экземплярами: второй прогон RUNNING не даёт создать
+    // уникальный индекс idx_renewal_run_running, а разделы общего прогона разбираются через SKIP LOCKED;
+    // повторную пролонгацию договора исключает ключ contract_renewal
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile RenewalReportDto lastReport;
+
+    public ContractRenewalService(TariffEngine tariffEngine,
+                                  StatisticsAggregator statisticsAggregator,
+                                  DictionaryRegistry dictionaryRegistry,
+                                  DocumentNumberGenerator documentNumberGenerator,
+                                  EntityManager entityManager,
+                                  EntityManagerFactory entityManagerFactory,
+                                  DataSource dataSource,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${renewals.horizon:P30D}") Period horizon,
+                                  @Value("${renewals.partition-size:10000}") int partitionSize,
+                                  @Value("${renewals.max-attempts:3}") int maxAttempts,
+                                  @Value("${renewals.parallelism:4}") int parallelism) {
+        this.tariffEngine = tariffEngine;
+        this.statisticsAggregator = statisticsAggregator;
+        this.dictionaryRegistry = dictionaryRegistry;
+        this.documentNumberGenerator = documentNumberGenerator;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Каждый поток держит соединение на время раздела, поэтому параллелизм должен быть меньше пула соединений
+        this.pool = new ForkJoinPool(parallelism);
+        this.nextContractIdBlockSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString("contract_seq");
+        this.horizon = horizon;
+        this.partitionSize = partitionSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    // Диапазон id [fromId, toId)
+    record Partition(long id, long fromId, long toId) {
+    }
+
+    // Строка выборки раздела вместе с данными продукта
+    private record Source(long id, Long clientId, String typeCode, Long agentId, LocalDate startDate, LocalDate endDate,
+                          BigDecimal premium, BigDecimal insuredAmount, boolean hasDetails,
+                          BigDecimal vehicleCost, Integer manufactureYear, BigDecimal franchiseAmount,
+                          Integer drivingExperience, LocalDate birthDate, String healthStatus,
+                          BigDecimal cost, BigDecimal area, Integer constructionYear) {
+    }
+
+    @Scheduled(cron = "${renewals.cron:0 30 2 * * *}")
+    public void scheduledRenewal() {
+        if (running.get()) {
+            log.info("Contract renewal skipped: previous run is still in progress");
+            return;
+        }
+        try {
+            renew(LocalDate.now());
+        } catch (RuntimeException e) {
+            log.error("Contract renewal failed", e);
+        }
+    }
+
+    // Если предыдущий прогон не завершён, он продолжается со своими датами, а date не используется;
+    // прогон, в котором остались только исчерпавшие попытки разделы, завершается как FAILED
+    public RenewalReportDto renew(LocalDate date) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Contract renewal is already running");
+        }
+        try {
+            Instant startedAt = Instant.now();
+            long started = System.nanoTime();
+
+            Map<String, Object> run = findRunningRun();
+            boolean resumed = run != null;
+            if (!resumed) {
+                try {
+                    startRun(date, date.plus(horizon), startedAt);
+                } catch (DuplicateKeyException e) {
+                    // Тот же cron на другом экземпляре успел создать прогон: разбираем его разделы вместе
+                    resumed = true;
+                }
+                run = findRunningRun();
+                if (run == null) {
+                    throw new IllegalStateException("Contract renewal run finished concurrently, nothing to do");
+                }
+            }
+            long runId = ((Number) run.get("id")).longValue();
+            LocalDate runDate = toLocalDate(run.get("run_date"));
+            LocalDate horizonDate = toLocalDate(run.get("horizon_date"));
+            if (resumed) {
+                log.info("Resuming contract renewal run {} for {}..{}", runId, runDate, horizonDate);
+            }
+            int partitions = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM renewal_partition WHERE run_id = ?", Integer.class, runId);
+            List<Partition> pending = jdbcTemplate.query("""
+                            SELECT id, from_id, to_id FROM renewal_partition
+                            WHERE run_id = ? AND done = FALSE AND attempts < ? ORDER BY from_id
+                            """,
+                    (rs, rowNum) -> new Partition(rs.getLong("id"), rs.getLong("from_id"), rs.getLong("to_id")),
+                    runId, maxAttempts);
+
+            PartitionTask task = new PartitionTask(pending, 0, pending.size(), runId, runDate, horizonDate);
+            long renewed = pending.isEmpty() ? 0 : pool.invoke(task);
+            int failed = task.failed();
+            int processed = task.processed();
+
+            String status = finishRunIfExhausted(runId);
+            boolean completed = COMPLETED.equals(status);
+
+            long durationMs = (System.nanoTime() - started) / 1_000_000;
+            double throughput = durationMs > 0 ? renewed * 1000.0 / durationMs : renewed;
+            RenewalReportDto report = new RenewalReportDto(runId, runDate, horizonDate, resumed, completed, status,
+                    startedAt, durationMs, partitions, processed, failed, renewed, throughput);
+            log.info("Contract renewal run {} for {}..{} is {}: {} drafts from {} partitions ({} failed), {} ms ({} per second)",
+                    runId, runDate, horizonDate, status, renewed, processed, failed, durationMs, Math.round(throughput));
+            lastReport = report;
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // null, если пролонгация ещё не запускалась
+    public RenewalReportDto getLastReport() {
+        return lastReport;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private Map<String, Object> findRunningRun() {
+        List<Map<String, Object>> unfinished = jdbcTemplate.queryForList(
+                "SELECT id, run_date, horizon_date FROM renewal_run WHERE status = ? ORDER BY id DESC", RUNNING);
+        return unfinished.isEmpty() ? null : unfinished.get(0);
+    }
+
+    // Прогон завершается, когда не осталось разделов, которые можно повторить: COMPLETED, если обработаны все,
+    // иначе FAILED. Разделы, которые сейчас обрабатывает другой экземпляр, оставляют прогон RUNNING
+    private String finishRunIfExhausted(long runId) {
+        Map<String, Object> left = jdbcTemplate.queryForMap("""
+                SELECT COUNT(CASE WHEN attempts < ? THEN 1 END) AS retryable, COUNT(*) AS undone
+                FROM renewal_partition WHERE run_id = ? AND done = FALSE
+                """, maxAttempts, runId);
+        if (((Number) left.get("retryable")).longValue() > 0) {
+            return RUNNING;
+        }
+        String status = ((Number) left.get("undone")).longValue() == 0 ? COMPLETED : FAILED;
+        jdbcTemplate.update("UPDATE renewal_run SET status = ?, finished_at = ? WHERE id = ? AND status = ?",
+                status, Timestamp.from(Instant.now()), runId, RUNNING);
+        if (FAILED.equals(status)) {
+            log.error("Contract renewal run {} failed: some partitions failed {} times and were abandoned", runId, maxAttempts);
+        }
+        return status;
+    }
+
+    // Прогон и его разделы создаются одной транзакцией; пустые диапазоны id тоже попадают в разделы,
+    // зато границы считаются без чтения договоров
+    private long startRun(LocalDate runDate, LocalDate horizonDate, Instant startedAt) {
+        return transactionTemplate.execute(status -> {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO renewal_run (run_date, horizon_date, status, started_at) VALUES (?, ?, ?, ?)",
+                        new String[]{"id"});
+                statement.setDate(1, Date.valueOf(runDate));
+                statement.setDate(2, Date.valueOf(horizonDate));
+                statement.setString(3, RUNNING);
+                statement.setTimestamp(4, Timestamp.from(startedAt));
+                return statement;
+            }, keyHolder);
+            long runId = keyHolder.getKey().longValue();
+
+            Map<String, Object> bounds = jdbcTemplate.queryForMap(
+                    "SELECT MIN(c.id) AS min_id, MAX(c.id) AS max_id FROM contract c WHERE " + ELIGIBLE,
+                    Date.valueOf(runDate), Date.valueOf(horizonDate));
+            if (bounds.get("min_id") != null) {
+                long minId = ((Number) bounds.get("min_id")).longValue();
+                long maxId = ((Number) bounds.get("max_id")).longValue();
+                List<Object[]> rows = new ArrayList<>();
+                for (long from = minId; from <= maxId; from += partitionSize) {
+                    rows.add(new Object[]{runId, from, Math.min(from + partitionSize, maxId + 1)});
+                }
+                jdbcTemplate.batchUpdate("INSERT INTO renewal_partition (run_id, from_id, to_id) VALUES (?, ?, ?)", rows);
+            }
+            return runId;
+        });
+    }
+
+    // Делит список разделов пополам, пока не останется один; ошибка раздела не останавливает остальные
+    private final class PartitionTask extends RecursiveTask<Long> {
+        private final List<Partition> partitions;
+        private final int from;
+        private final int to;
+        private final long runId;
+        private final LocalDate runDate;
+        private final LocalDate horizonDate;
+        private int failed;
+        private int processed;
+
+        private PartitionTask(List<Partition> partitions, int from, int to, long runId, LocalDate runDate, LocalDate horizonDate) {
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+            this.runId = runId;
+            this.runDate = runDate;
+            this.horizonDate = horizonDate;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from == 1) {
+                Partition partition = partitions.get(from);
+                try {
+                    Integer renewed = transactionTemplate.execute(status -> renewPartition(partition, runId, runDate, horizonDate));
+                    if (renewed == null) {
+                        return 0L;
+                    }
+                    processed = 1;
+                    return (long) renewed;
+                } catch (RuntimeException e) {
+                    log.error("Renewal of contracts {}..{} failed, will be retried with the run",
+                            partition.fromId(), partition.toId() - 1, e);
+                    failed = 1;
+                    jdbcTemplate.update("UPDATE renewal_partition SET attempts = attempts + 1 WHERE id = ?", partition.id());
+                    return 0L;
+                }
+            }
+            int middle = (from + to) >>> 1;
+            PartitionTask left = new PartitionTask(partitions, from, middle, runId, runDate, horizonDate);
+            PartitionTask right = new PartitionTask(partitions, middle, to, runId, runDate, horizonDate);
+            left.fork();
+            long renewed = right.compute() + left.join();
+            failed = left.failed + right.failed;
+            processed = left.processed + right.processed;
+            return renewed;
+        }
+
+        private int failed() {
+            return failed;
+        }
+
+        private int processed() {
+            return processed;
+        }
+    }
+
+    // null, если раздел уже обработан или его сейчас обрабатывает другой экземпляр
+    private Integer renewPartition(Partition partition, long runId, LocalDate runDate, LocalDate horizonDate) {
+        List<Long> claimed = jdbcTemplate.queryForList(
+                "SELECT id FROM renewal_partition WHERE id = ? AND done = FALSE FOR UPDATE SKIP LOCKED",
+                Long.class, partition.id());
+        if (claimed.isEmpty()) {
+            return null;
+        }
+        List<Source> sources = jdbcTemplate.query(SELECT_PARTITION, (rs, rowNum) -> source(rs),
+                partition.fromId(), partition.toId(), Date.valueOf(runDate), Date.valueOf(horizonDate));
+        if (!sources.isEmpty()) {
+            insertRenewals(sources, runId);
+        }
+        jdbcTemplate.update("UPDATE renewal_partition SET done = TRUE, renewed = ?, finished_at = ? WHERE id = ?",
+                sources.size(), Timestamp.from(Instant.now()), partition.id());
+        return sources.size();
+    }
+
+    private void insertRenewals(List<Source> sources, long runId) {
+        long[] ids = reserveContractIds(sources.size());
+        Timestamp createdAt = Timestamp.from(Instant.now());
+        List<Object[]> contracts = new ArrayList<>(sources.size());
+        List<Object[]> links = new ArrayList<>(sources.size());
+        Map<String, List<Object[]>> details = Map.of(
+                TariffEngine.CASCO, new ArrayList<>(), TariffEngine.OSAGO, new ArrayList<>(),
+                TariffEngine.LIFE, new ArrayList<>(), TariffEngine.PROPERTY, new ArrayList<>());
+        List<Contract> added = new ArrayList<>(sources.size());
+
+        for (int i = 0; i < sources.size(); i++) {
+            Source source = sources.get(i);
+            long id = ids[i];
+            // Следующий период той же длительности, начиная со дня после окончания
+            LocalDate startDate = source.endDate().plusDays(1);
+            LocalDate endDate = startDate.plus(Period.between(source.startDate(), source.endDate()));
+            BigDecimal premium = renewalPremium(source, startDate, endDate);
+
+            contracts.add(new Object[]{id, documentNumberGenerator.nextContractNumber(source.typeCode()), source.clientId(), source.typeCode(), source.agentId(),
+                    Date.valueOf(startDate), Date.valueOf(endDate), premium, source.insuredAmount(), createdAt});
+            links.add(new Object[]{source.id(), id, runId});
+            List<Object[]> typeDetails = details.get(source.typeCode());
+            if (typeDetails != null && source.hasDetails()) {
+                typeDetails.add(new Object[]{id, source.id()});
+            }
+
+            // Для дневных агрегатов статистики достаточно ключа и премии
+            Contract contract = new Contract();
+            contract.setAgent(source.agentId() != null ? entityManager.getReference(User.class, source.agentId()) : null);
+            contract.setInsuranceTypeCode(dictionaryRegistry.getInsuranceType(source.typeCode()));
+            contract.setPremiumAmount(premium);
+            contract.setCreatedAt(createdAt.toInstant());
+            added.add(contract);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_CONTRACT, contracts);
+        details.forEach((typeCode, rows) -> {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(COPY_DETAILS.get(typeCode), rows);
+            }
+        });
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO contract_renewal (source_contract_id, renewal_contract_id, run_id) VALUES (?, ?, ?)", links);
+        statisticsAggregator.contractsAdded(added);
+    }
+
+    // Без данных продукта или тарифа премия переносится из исходного договора
+    private BigDecimal renewalPremium(Source s, LocalDate startDate, LocalDate endDate) {
+        if (!s.hasDetails() || s.typeCode() == null || !tariffEngine.hasTariff(s.typeCode())) {
+            return s.premium();
+        }
+        double term = TariffEngine.termYears(startDate, endDate);
+        double premium = switch (s.typeCode()) {
+            case TariffEngine.CASCO -> s.vehicleCost() == null ? Double.NaN
+                    : tariffEngine.priceCasco(s.vehicleCost().doubleValue(),
+                    TariffEngine.yearsSince(s.manufactureYear(), startDate), value(s.franchiseAmount()), term);
+            case TariffEngine.OSAGO -> tariffEngine.priceOsago(value(s.insuredAmount()), value(s.drivingExperience()), term);
+            case TariffEngine.LIFE -> s.birthDate() == null ? Double.NaN
+                    : tariffEngine.priceLife(value(s.insuredAmount()), ChronoUnit.YEARS.between(s.birthDate(), startDate),
+                    s.healthStatus(), term);
+            case TariffEngine.PROPERTY -> s.cost() == null ? Double.NaN
+                    : tariffEngine.priceProperty(s.cost().doubleValue(), value(s.area()),
+                    TariffEngine.yearsSince(s.constructionYear(), startDate), term);
+            default -> Double.NaN;
+        };
+        return Double.isNaN(premium) ? s.premium() : TariffEngine.round(premium);
+    }
+
+    // id черновиков берутся блоками из contract_seq так же, как их берёт Hibernate, поэтому не пересекаются
+    // ни с договорами, сохранёнными через JPA, ни с другими разделами
+    private long[] reserveContractIds(int count) {
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            long high = jdbcTemplate.queryForObject(nextContractIdBlockSql, Long.class);
+            for (long id = high - CONTRACT_ID_BLOCK + 1; id <= high && filled < count; id++) {
+                ids[filled++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private static Source source(ResultSet rs) throws SQLException {
+        return new Source(rs.getLong("id"), rs.getObject("client_id", Long.class), rs.getString("insurance_type_code"),
+                rs.getObject("agent_id", Long.class), rs.getDate("start_date").toLocalDate(), rs.getDate("end_date").toLocalDate(),
+                rs.getBigDecimal("premium_amount"), rs.getBigDecimal("insured_amount"), rs.getObject("details_id") != null,
+                rs.getBigDecimal("vehicle_cost"), rs.getObject("manufacture_year", Integer.class), rs.getBigDecimal("franchise_amount"),
+                rs.getObject("driving_experience", Integer.class),
+                toLocalDate(rs.getDate("birth_date")), rs.getString("health_status"),
+                rs.getBigDecimal("cost"), rs.getBigDecimal("area"), rs.getObject("construction_year", Integer.class));
+    }
+
+    private static double value(Number number) {
+        return number != null ? number.doubleValue() : Double.NaN;
+    }
+
+    private static LocalDate toLocalDate(Object date) {
+        if (date == null) {
+            return null;
+        }
+        return date instanceof LocalDate localDate ? localDate : ((Date) date).toLocalDate();
+    }
+}
@@ -3,11 +3,18 @@ package ru.springaio.insuranceprobackend.service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import ru.springaio.insuranceprobackend.dto.ContractDto;
+import ru.springaio.insuranceprobackend.dto.CursorPageDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.List;
 
 public interface ContractService {
     Page<ContractDto> findAll(String contractNumber, String insuranceType, String status, LocalDate start, LocalDate end, Pageable pageable);
+    CursorPageDto<ContractDto> findAllByCursor(String contractNumber, String insuranceType, String status, LocalDate start, LocalDate end, String cursor, int size);
+    List<ContractDto> search(String text, int limit);
+    void export(String contractNumber, String insuranceType, String status, LocalDate start, LocalDate end, ContractExporter.Format format, OutputStream output) throws IOException;
     ContractDto findById(Long id);
     ContractDto save(ContractDto contractDto);
     ContractDto update(Long id, ContractDto contractDto);
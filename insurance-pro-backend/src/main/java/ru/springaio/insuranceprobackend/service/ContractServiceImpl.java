@@ -1,50 +1,97 @@
 package ru.springaio.insuranceprobackend.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.springaio.insuranceprobackend.dto.ContractDto;
+import ru.springaio.insuranceprobackend.dto.CursorPageDto;
 import ru.springaio.insuranceprobackend.entity.Contract;
-import ru.springaio.insuranceprobackend.entity.User;
 import ru.springaio.insuranceprobackend.mapper.ContractMapper;
+import ru.springaio.insuranceprobackend.monitoring.MetricsConfig;
 import ru.springaio.insuranceprobackend.repository.ContractRepository;
 import ru.springaio.insuranceprobackend.repository.ContractSpecification;
 import ru.springaio.insuranceprobackend.repository.UserRepository;
 import ru.springaio.insuranceprobackend.security.SecurityUtils;
+import ru.springaio.insuranceprobackend.security.UserPrincipal;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.util.Random;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ContractServiceImpl implements ContractService {
 
     private final ContractRepository contractRepository;
     private final UserRepository userRepository;
     private final ContractMapper contractMapper;
     private final SecurityUtils securityUtils;
+    private final StatisticsAggregator statisticsAggregator;
+    private final ContractExporter contractExporter;
+    private final DocumentNumberGenerator documentNumberGenerator;
 
     @Override
     @Transactional(readOnly = true)
     public Page<ContractDto> findAll(String contractNumber, String insuranceType, String status, LocalDate start, LocalDate end, Pageable pageable) {
-        User currentUser = userRepository.findByLogin(securityUtils.getCurrentUserLogin()).orElseThrow();
-        
-        Specification<Contract> spec = Specification.where(ContractSpecification.hasContractNumber(contractNumber))
-                .and(ContractSpecification.hasInsuranceType(insuranceType))
-                .and(ContractSpecification.hasStatus(status))
-                .and(ContractSpecification.isWithinPeriod(start, end));
+        Specification<Contract> spec = buildSpecification(contractNumber, insuranceType, status, start, end);
+        return contractRepository.findAll(spec, pageable).map(contractMapper::toDto);
+    }
 
-        // Ролевая модель
-        String role = currentUser.getRoleCode().getCode();
-        if ("AGENT".equals(role)) {
-            spec = spec.and(ContractSpecification.hasAgent(currentUser));
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<ContractDto> findAllByCursor(String contractNumber, String insuranceType, String status, LocalDate start, LocalDate end, String cursor, int size) {
+        Specification<Contract> spec = buildSpecification(contractNumber, insuranceType, status, start, end);
+
+        // Keyset по (createdAt, id): без OFFSET и без отдельного COUNT(*)
+        Window<Contract> window = contractRepository.findBy(spec.and(ContractSpecification.fetchDetails()), query -> query
+                .sortBy(Sort.by("createdAt", "id"))
+                .limit(size)
+                .scroll(scrollPosition(cursor)));
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            Contract last = window.getContent().get(window.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getCreatedAt().toString(), last.getId().toString());
         }
+        return new CursorPageDto<>(window.map(contractMapper::toDto).getContent(), nextCursor, window.hasNext());
+    }
 
-        return contractRepository.findAll(spec, pageable).map(contractMapper::toDto);
+    @Override
+    @Transactional(readOnly = true)
+    public List<ContractDto> search(String text, int limit) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        UserPrincipal currentUser = securityUtils.getCurrentUser();
+        Long agentId = currentUser.isAgent() ? currentUser.getId() : null;
+
+        // Сначала идентификаторы в порядке релевантности, затем сущности одним запросом
+        List<Long> ids = contractRepository.searchIds(text, agentId, limit);
+        Map<Long, Contract> byId = contractRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Contract::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).map(contractMapper::toDto).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void export(String contractNumber, String insuranceType, String status, LocalDate start, LocalDate end, ContractExporter.Format format, OutputStream output) throws IOException {
+        // Те же фильтры и ограничение агента, что и в findAll
+        contractExporter.write(buildSpecification(contractNumber, insuranceType, status, start, end), format, output);
     }
 
     @Override
@@ -63,15 +110,17 @@ public class ContractServiceImpl implements ContractService {
             throw new RuntimeException("End date must be after start date");
         }
 
-        User currentUser = userRepository.findByLogin(securityUtils.getCurrentUserLogin()).orElseThrow();
-        
+        UserPrincipal currentUser = securityUtils.getCurrentUser();
+
         Contract contract = new Contract();
         contractMapper.updateEntity(contract, contractDto);
         contract.setCreatedAt(Instant.now());
-        contract.setAgent(currentUser);
-        contract.setContractNumber("INS-" + System.currentTimeMillis() + "-" + (100 + new Random().nextInt(900)));
-        
-        return contractMapper.toDto(contractRepository.save(contract));
+        contract.setAgent(userRepository.getReferenceById(currentUser.getId()));
+        contract.setContractNumber(documentNumberGenerator.nextContractNumber(contractDto.getInsuranceTypeCode()));
+
+        Contract saved = contractRepository.save(contract);
+        statisticsAggregator.contractAdded(saved);
+        return contractMapper.toDto(saved);
     }
 
     @Override
@@ -85,8 +134,11 @@ public class ContractServiceImpl implements ContractService {
             throw new RuntimeException("End date must be after start date");
         }
         
+        StatisticsAggregator.ContractContribution before = statisticsAggregator.contributionOf(contract);
         contractMapper.updateEntity(contract, contractDto);
-        return contractMapper.toDto(contractRepository.save(contract));
+        Contract saved = contractRepository.save(contract);
+        statisticsAggregator.contractChanged(before, saved);
+        return contractMapper.toDto(saved);
     }
 
     @Override
@@ -95,14 +147,38 @@ public class ContractServiceImpl implements ContractService {
         Contract contract = contractRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Contract not found"));
         checkAccess(contract);
+        statisticsAggregator.contractRemoved(contract);
         contractRepository.delete(contract);
     }
 
+    private Specification<Contract> buildSpecification(String contractNumber, String insuranceType, String status, LocalDate start, LocalDate end) {
+        UserPrincipal currentUser = securityUtils.getCurrentUser();
+
+        Specification<Contract> spec = Specification.where(ContractSpecification.hasContractNumber(contractNumber))
+                .and(ContractSpecification.hasInsuranceType(insuranceType))
+                .and(ContractSpecification.hasStatus(status))
+                .and(ContractSpecification.isWithinPeriod(start, end));
+
+        // Ролевая модель
+        if (currentUser.isAgent()) {
+            spec = spec.and(ContractSpecification.hasAgent(currentUser.getId()));
+        }
+        return spec;
+    }
+
+    // Позиция keyset по курсору: (createdAt, id) последней строки предыдущей страницы
+    private static KeysetScrollPosition scrollPosition(String cursor) {
+        if (KeysetCursor.isFirstPage(cursor)) {
+            return ScrollPosition.keyset();
+        }
+        String[] keys = KeysetCursor.decode(cursor, 2);
+        return ScrollPosition.forward(Map.of("createdAt", Instant.parse(keys[0]), "id", Long.valueOf(keys[1])));
+    }
+
     private void checkAccess(Contract contract) {
-        User currentUser = userRepository.findByLogin(securityUtils.getCurrentUserLogin()).orElseThrow();
-        String role = currentUser.getRoleCode().getCode();
+        UserPrincipal currentUser = securityUtils.getCurrentUser();
         // Агент может редактировать только свои договоры. Менеджер и Админ — любые.
-        if ("AGENT".equals(role) && !contract.getAgent().getId().equals(currentUser.getId())) {
+        if (currentUser.isAgent() && !contract.getAgent().getId().equals(currentUser.getId())) {
             throw new RuntimeException("Access denied");
         }
     }
@@ -0,0 +1,111 @@
+package ru.springaio.insuranceprobackend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.springaio.insuranceprobackend.dto.DictionaryDto;
+import ru.springaio.insuranceprobackend.entity.ClaimStatus;
+import ru.springaio.insuranceprobackend.entity.ContractStatus;
+import ru.springaio.insuranceprobackend.entity.InsuranceType;
+import ru.springaio.insuranceprobackend.repository.ClaimStatusRepository;
+import ru.springaio.insuranceprobackend.repository.ContractStatusRepository;
+import ru.springaio.insuranceprobackend.repository.InsuranceTypeRepository;
+import ru.springaio.insuranceprobackend.repository.PaymentStatusRepository;
+import ru.springaio.insuranceprobackend.repository.UserRoleRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Справочники в памяти: загружаются при старте и по команде администратора.
+// Таблицы справочников меняются только changeset-ами Liquibase, поэтому
+// повторно читать их на каждый запрос или при сохранении договора не нужно.
+@Service
+@RequiredArgsConstructor
+public class DictionaryRegistry {
+
+    public static final String INSURANCE_TYPES = "insurance-types";
+    public static final String CONTRACT_STATUSES = "contract-statuses";
+    public static final String PAYMENT_STATUSES = "payment-statuses";
+    public static final String CLAIM_STATUSES = "claim-statuses";
+    public static final String USER_ROLES = "user-roles";
+
+    private final InsuranceTypeRepository insuranceTypeRepository;
+    private final ContractStatusRepository contractStatusRepository;
+    private final PaymentStatusRepository paymentStatusRepository;
+    private final ClaimStatusRepository claimStatusRepository;
+    private final UserRoleRepository userRoleRepository;
+    private final EntityManager entityManager;
+
+    // Записи справочника, названия по коду и строгий ETag содержимого
+    public record Dictionary(List<DictionaryDto> entries, Map<String, String> names, String etag) {
+    }
+
+    // Снимок заменяется целиком, читатели видят либо старую, либо новую версию
+    private volatile Map<String, Dictionary> dictionaries = Map.of();
+
+    @PostConstruct
+    public void reload() {
+        Map<String, Dictionary> loaded = new LinkedHashMap<>();
+        loaded.put(INSURANCE_TYPES, build(insuranceTypeRepository.findAll(), t -> new DictionaryDto(t.getCode(), t.getName())));
+        loaded.put(CONTRACT_STATUSES, build(contractStatusRepository.findAll(), s -> new DictionaryDto(s.getCode(), s.getName())));
+        loaded.put(PAYMENT_STATUSES, build(paymentStatusRepository.findAll(), s -> new DictionaryDto(s.getCode(), s.getName())));
+        loaded.put(CLAIM_STATUSES, build(claimStatusRepository.findAll(), s -> new DictionaryDto(s.getCode(), s.getName())));
+        loaded.put(USER_ROLES, build(userRoleRepository.findAll(), r -> new DictionaryDto(r.getCode(), r.getName())));
+        dictionaries = Map.copyOf(loaded);
+    }
+
+    // null, если справочника с таким именем нет
+    public Dictionary get(String name) {
+        return dictionaries.get(name);
+    }
+
+    public String getName(String dictionary, String code) {
+        Dictionary d = dictionaries.get(dictionary);
+        return d != null && code != null ? d.names().get(code) : null;
+    }
+
+    // Ссылка на вид страхования без запроса к БД; null для неизвестного кода
+    public InsuranceType getInsuranceType(String code) {
+        return getName(INSURANCE_TYPES, code) != null ? entityManager.getReference(InsuranceType.class, code) : null;
+    }
+
+    // Ссылка на статус договора без запроса к БД; null для неизвестного кода
+    public ContractStatus getContractStatus(String code) {
+        return getName(CONTRACT_STATUSES, code) != null ? entityManager.getReference(ContractStatus.class, code) : null;
+    }
+
+    // Ссылка на статус убытка без запроса к БД; null для неизвестного кода
+    public ClaimStatus getClaimStatus(String code) {
+        return getName(CLAIM_STATUSES, code) != null ? entityManager.getReference(ClaimStatus.class, code) : null;
+    }
+
+    private static <T> Dictionary build(List<T> rows, Function<T, DictionaryDto> mapper) {
+        List<DictionaryDto> entries = rows.stream().map(mapper).toList();
+        Map<String, String> names = entries.stream()
+                .collect(Collectors.toUnmodifiableMap(DictionaryDto::getCode, DictionaryDto::getName));
+        return new Dictionary(entries, names, etagOf(entries));
+    }
+
+    private static String etagOf(List<DictionaryDto> entries) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (DictionaryDto entry : entries) {
+                digest.update(entry.getCode().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ru.springaio.insuranceprobackend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Номера договоров и убытков вида CASCO-2026-000123 и CLM-2026-000045.
+// Счётчик берётся из последовательности БД блоками по BLOCK_SIZE и раздаётся из памяти,
+// так что номер уникален между экземплярами приложения и не требует повторной вставки.
+// Счётчик сквозной для всех видов и лет; после перезапуска остаток блока пропускается (номера идут с пропусками).
+@Component
+public class DocumentNumberGenerator {
+
+    // Шаг последовательностей contract_number_seq и claim_number_seq в number_sequences.xml
+    static final int BLOCK_SIZE = 100;
+
+    static final String CLAIM_PREFIX = "CLM";
+    // Для договора без вида страхования
+    static final String DEFAULT_CONTRACT_PREFIX = "INS";
+
+    private static final int COUNTER_DIGITS = 6;
+
+    private final SequenceBlock contractNumbers;
+    private final SequenceBlock claimNumbers;
+
+    public DocumentNumberGenerator(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        this.contractNumbers = new SequenceBlock(jdbcTemplate,
+                dialect.getSequenceSupport().getSequenceNextValString("contract_number_seq"));
+        this.claimNumbers = new SequenceBlock(jdbcTemplate,
+                dialect.getSequenceSupport().getSequenceNextValString("claim_number_seq"));
+    }
+
+    public String nextContractNumber(String insuranceTypeCode) {
+        String prefix = insuranceTypeCode != null && !insuranceTypeCode.isBlank() ? insuranceTypeCode : DEFAULT_CONTRACT_PREFIX;
+        return format(prefix, contractNumbers.next());
+    }
+
+    public String nextClaimNumber() {
+        return format(CLAIM_PREFIX, claimNumbers.next());
+    }
+
+    static String format(String prefix, long counter) {
+        String digits = Long.toString(counter);
+        StringBuilder number = new StringBuilder(prefix.length() + 6 + Math.max(COUNTER_DIGITS, digits.length()));
+        number.append(prefix).append('-').append(LocalDate.now().getYear()).append('-');
+        for (int i = digits.length(); i < COUNTER_DIGITS; i++) {
+            number.append('0');
+        }
+        return number.append(digits).toString();
+    }
+
+    // Блок значений последовательности [next, high]; новый блок запрашивается, когда текущий исчерпан.
+    // ReentrantLock вместо synchronized: запрос блока идёт в БД под блокировкой, а виртуальный поток,
+    // ждущий ответа внутри synchronized, занимал бы поток-носитель (Java 21)
+    static final class SequenceBlock {
+        private final JdbcTemplate jdbcTemplate;
+        private final String nextValueSql;
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next = 1;
+        private long high;
+
+        SequenceBlock(JdbcTemplate jdbcTemplate, String nextValueSql) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.nextValueSql = nextValueSql;
+        }
+
+        long next() {
+            lock.lock();
+            try {
+                if (next > high) {
+                    high = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+                    next = high - BLOCK_SIZE + 1;
+                }
+                return next++;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
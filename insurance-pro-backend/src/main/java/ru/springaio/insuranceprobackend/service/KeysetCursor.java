@@ -0,0 +1,36 @@
+package ru.springaio.insuranceprobackend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Непрозрачный курсор keyset-пагинации: значения ключа сортировки и id последней строки,
+// закодированные в base64url. Пустой курсор означает первую страницу.
+final class KeysetCursor {
+
+    private static final String SEPARATOR = "\u0000";
+
+    private KeysetCursor() {
+    }
+
+    static String encode(String... keys) {
+        byte[] raw = String.join(SEPARATOR, keys).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    static String[] decode(String cursor, int keyCount) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] keys = raw.split(SEPARATOR, -1);
+            if (keys.length == keyCount) {
+                return keys;
+            }
+        } catch (IllegalArgumentException ignored) {
+            // обрабатывается ниже как некорректный курсор
+        }
+        throw new RuntimeException("Invalid cursor");
+    }
+
+    static boolean isFirstPage(String cursor) {
+        return cursor == null || cursor.isEmpty();
+    }
+}
@@ -0,0 +1,12 @@
+package ru.springaio.insuranceprobackend.service;
+
+import ru.springaio.insuranceprobackend.dto.PaymentDto;
+
+import java.util.List;
+
+public interface PaymentService {
+    List<PaymentDto> findByContract(Long contractId);
+    PaymentDto findById(Long id);
+    PaymentDto register(PaymentDto paymentDto);
+    PaymentDto confirm(Long id, String transactionNumber);
+}
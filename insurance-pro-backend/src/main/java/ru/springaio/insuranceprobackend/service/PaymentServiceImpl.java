@@ -0,0 +1,102 @@
+package ru.springaio.insuranceprobackend.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.springaio.insuranceprobackend.dto.PaymentDto;
+import ru.springaio.insuranceprobackend.entity.Contract;
+import ru.springaio.insuranceprobackend.entity.Payment;
+import ru.springaio.insuranceprobackend.entity.PaymentStatus;
+import ru.springaio.insuranceprobackend.mapper.PaymentMapper;
+import ru.springaio.insuranceprobackend.repository.ContractRepository;
+import ru.springaio.insuranceprobackend.repository.PaymentRepository;
+import ru.springaio.insuranceprobackend.security.SecurityUtils;
+import ru.springaio.insuranceprobackend.security.UserPrincipal;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class PaymentServiceImpl implements PaymentService {
+
+    private final PaymentRepository paymentRepository;
+    private final ContractRepository contractRepository;
+    private final PaymentMapper paymentMapper;
+    private final SecurityUtils securityUtils;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PaymentDto> findByContract(Long contractId) {
+        Contract contract = contractRepository.findById(contractId)
+                .orElseThrow(() -> new RuntimeException("Contract not found"));
+        checkAccess(contract);
+        return paymentRepository.findByContractIdOrderByPaymentDateAscIdAsc(contractId).stream()
+                .map(paymentMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaymentDto findById(Long id) {
+        Payment payment = paymentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Payment not found"));
+        checkAccess(payment.getContract());
+        return paymentMapper.toDto(payment);
+    }
+
+    @Override
+    @Transactional
+    public PaymentDto register(PaymentDto paymentDto) {
+        if (paymentDto.getContractId() == null) {
+            throw new RuntimeException("Contract is required");
+        }
+        if (paymentDto.getAmount() == null || paymentDto.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new RuntimeException("Amount must be positive");
+        }
+        Contract contract = contractRepository.findById(paymentDto.getContractId())
+                .orElseThrow(() -> new RuntimeException("Contract not found"));
+        checkAccess(contract);
+
+        // Новый платёж ожидает проведения; в PAID его переводит PaymentSettlementService
+        Payment payment = new Payment();
+        payment.setContract(contract);
+        payment.setAmount(paymentDto.getAmount());
+        payment.setPaymentDate(paymentDto.getPaymentDate() != null ? paymentDto.getPaymentDate() : LocalDate.now());
+        payment.setStatusCode(entityManager.getReference(PaymentStatus.class, PaymentSettlementService.PENDING));
+        payment.setPaymentMethod(paymentDto.getPaymentMethod());
+        payment.setTransactionNumber(blankToNull(paymentDto.getTransactionNumber()));
+        return paymentMapper.toDto(paymentRepository.save(payment));
+    }
+
+    @Override
+    @Transactional
+    public PaymentDto confirm(Long id, String transactionNumber) {
+        Payment payment = paymentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Payment not found"));
+        checkAccess(payment.getContract());
+        if (!PaymentSettlementService.PENDING.equals(payment.getStatusCode().getCode())) {
+            throw new RuntimeException("Payment is already settled");
+        }
+        if (blankToNull(transactionNumber) == null) {
+            throw new RuntimeException("Transaction number is required");
+        }
+        payment.setTransactionNumber(transactionNumber.trim());
+        return paymentMapper.toDto(payment);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private void checkAccess(Contract contract) {
+        UserPrincipal currentUser = securityUtils.getCurrentUser();
+        // Агент работает с платежами только по своим договорам. Менеджер и Админ — по любым.
+        if (currentUser.isAgent() && (contract.getAgent() == null || !contract.getAgent().getId().equals(currentUser.getId()))) {
+            throw new RuntimeException("Access denied");
+        }
+    }
+}
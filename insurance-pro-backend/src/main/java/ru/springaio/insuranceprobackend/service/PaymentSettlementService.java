@@ -0,0 +1,91 @@
+package ru.springaio.insuranceprobackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.springaio.insuranceprobackend.dto.SettlementReportDto;
+import ru.springaio.insuranceprobackend.repository.PaymentRepository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Пакетное проведение платежей: PENDING с номером транзакции и наступившей датой платежа -> PAID.
+// Платежи переводятся массовыми UPDATE порциями по payments.settlement.chunk-size строк,
+// каждая порция — отдельная короткая транзакция, сущности не загружаются.
+@Slf4j
+@Service
+public class PaymentSettlementService {
+
+    static final String PENDING = "PENDING";
+    static final String PAID = "PAID";
+
+    private final PaymentRepository paymentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    // Один прогон за раз в пределах экземпляра; между экземплярами защищает условие по статусу в UPDATE
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile SettlementReportDto lastReport;
+
+    public PaymentSettlementService(PaymentRepository paymentRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${payments.settlement.chunk-size:5000}") int chunkSize) {
+        this.paymentRepository = paymentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${payments.settlement.cron:0 */5 * * * *}")
+    public void scheduledSettlement() {
+        if (running.get()) {
+            log.info("Payment settlement skipped: previous run is still in progress");
+            return;
+        }
+        try {
+            settle(LocalDate.now());
+        } catch (RuntimeException e) {
+            log.error("Payment settlement failed", e);
+        }
+    }
+
+    public SettlementReportDto settle(LocalDate settlementDate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Payment settlement is already running");
+        }
+        try {
+            Instant startedAt = Instant.now();
+            long started = System.nanoTime();
+            long settled = 0;
+            int chunks = 0;
+            int updated;
+            do {
+                updated = transactionTemplate.execute(status ->
+                        paymentRepository.settleChunk(PENDING, PAID, settlementDate, chunkSize));
+                settled += updated;
+                chunks++;
+            } while (updated == chunkSize);
+
+            long durationMs = (System.nanoTime() - started) / 1_000_000;
+            double throughput = durationMs > 0 ? settled * 1000.0 / durationMs : settled;
+            SettlementReportDto report = new SettlementReportDto(settlementDate, startedAt, durationMs, settled, chunks,
+                    throughput, paymentRepository.countByStatusCodeCode(PENDING),
+                    paymentRepository.findOldestPaymentDateByStatus(PENDING));
+            log.info("Payment settlement for {}: {} payments in {} chunks, {} ms ({} per second), {} still pending since {}",
+                    settlementDate, settled, chunks, durationMs, Math.round(throughput),
+                    report.getPendingRemaining(), report.getOldestPendingDate());
+            lastReport = report;
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // null, если проведение ещё не запускалось
+    public SettlementReportDto getLastReport() {
+        return lastReport;
+    }
+}
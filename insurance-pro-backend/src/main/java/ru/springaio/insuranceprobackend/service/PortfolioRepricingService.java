@@ -0,0 +1,177 @@
+package ru.springaio.insuranceprobackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.springaio.insuranceprobackend.dto.RepricingReportDto;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+// Пересчёт премий всего портфеля по текущим тарифам.
+// Договоры читаются потоком (по виду страхования, вместе с данными продукта) и считаются
+// в TariffEngine без загрузки сущностей; изменённые премии пишутся пакетными UPDATE.
+// Без apply выполняется пробный прогон: отчёт строится, данные не меняются.
+@Slf4j
+@Service
+public class PortfolioRepricingService {
+
+    private static final String CASCO_SQL = """
+            SELECT c.id, c.premium_amount, c.start_date, c.end_date, c.insured_amount,
+                   d.vehicle_cost, d.manufacture_year, d.franchise_amount
+            FROM contract c JOIN casco_data d ON d.contract_id = c.id
+            WHERE c.insurance_type_code = 'CASCO'
+            """;
+    private static final String OSAGO_SQL = """
+            SELECT c.id, c.premium_amount, c.start_date, c.end_date, c.insured_amount, d.driving_experience
+            FROM contract c JOIN osago_data d ON d.contract_id = c.id
+            WHERE c.insurance_type_code = 'OSAGO'
+            """;
+    private static final String LIFE_SQL = """
+            SELECT c.id, c.premium_amount, c.start_date, c.end_date, c.insured_amount, d.birth_date, d.health_status
+            FROM contract c JOIN life_insurance_data d ON d.contract_id = c.id
+            WHERE c.insurance_type_code = 'LIFE'
+            """;
+    private static final String PROPERTY_SQL = """
+            SELECT c.id, c.premium_amount, c.start_date, c.end_date, c.insured_amount,
+                   d.cost, d.area, d.construction_year
+            FROM contract c JOIN property_insurance_data d ON d.contract_id = c.id
+            WHERE c.insurance_type_code = 'PROPERTY'
+            """;
+
+    private final TariffEngine tariffEngine;
+    private final StatisticsAggregator statisticsAggregator;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public PortfolioRepricingService(TariffEngine tariffEngine,
+                                     StatisticsAggregator statisticsAggregator,
+                                     DataSource dataSource,
+                                     @Value("${tariffs.repricing.fetch-size:1000}") int fetchSize,
+                                     @Value("${tariffs.repricing.batch-size:1000}") int batchSize) {
+        this.tariffEngine = tariffEngine;
+        this.statisticsAggregator = statisticsAggregator;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.batchSize = batchSize;
+    }
+
+    // Премия одной строки выборки; для дат берётся начало действия договора
+    @FunctionalInterface
+    private interface RowPricer {
+        double price(ResultSet rs, LocalDate onDate, double termYears) throws SQLException;
+    }
+
+    @Transactional
+    public RepricingReportDto reprice(boolean apply) {
+        long started = System.currentTimeMillis();
+        Run run = new Run(apply);
+
+        run.price(TariffEngine.CASCO, CASCO_SQL, (rs, onDate, term) -> {
+            BigDecimal vehicleCost = rs.getBigDecimal("vehicle_cost");
+            double sum = vehicleCost != null ? vehicleCost.doubleValue() : amount(rs, "insured_amount");
+            return tariffEngine.priceCasco(sum, TariffEngine.yearsSince(integer(rs, "manufacture_year"), onDate),
+                    amount(rs, "franchise_amount"), term);
+        });
+        run.price(TariffEngine.OSAGO, OSAGO_SQL, (rs, onDate, term) ->
+                tariffEngine.priceOsago(amount(rs, "insured_amount"), amount(rs, "driving_experience"), term));
+        run.price(TariffEngine.LIFE, LIFE_SQL, (rs, onDate, term) -> {
+            Date birthDate = rs.getDate("birth_date");
+            double age = birthDate != null ? ChronoUnit.YEARS.between(birthDate.toLocalDate(), onDate) : Double.NaN;
+            return tariffEngine.priceLife(amount(rs, "insured_amount"), age, rs.getString("health_status"), term);
+        });
+        run.price(TariffEngine.PROPERTY, PROPERTY_SQL, (rs, onDate, term) -> {
+            BigDecimal cost = rs.getBigDecimal("cost");
+            double sum = cost != null ? cost.doubleValue() : amount(rs, "insured_amount");
+            return tariffEngine.priceProperty(sum, amount(rs, "area"),
+                    TariffEngine.yearsSince(integer(rs, "construction_year"), onDate), term);
+        });
+        run.flush();
+
+        // Премии входят в дневные агрегаты статистики
+        if (apply && run.changed > 0) {
+            statisticsAggregator.rebuild();
+        }
+
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contract", Long.class);
+        long durationMs = System.currentTimeMillis() - started;
+        log.info("Repricing {}: priced {}, changed {} in {} ms", apply ? "applied" : "dry run", run.priced, run.changed, durationMs);
+        return new RepricingReportDto(apply, run.priced, run.changed, (total != null ? total : 0) - run.priced,
+                run.premiumBefore, run.premiumAfter, durationMs);
+    }
+
+    private static double amount(ResultSet rs, String column) throws SQLException {
+        BigDecimal value = rs.getBigDecimal(column);
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    private static Integer integer(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    // Состояние одного прогона: счётчики и очередь изменённых премий
+    private final class Run {
+        private final boolean apply;
+        private final List<Object[]> pending = new ArrayList<>();
+        private long priced;
+        private long changed;
+        private BigDecimal premiumBefore = BigDecimal.ZERO;
+        private BigDecimal premiumAfter = BigDecimal.ZERO;
+
+        private Run(boolean apply) {
+            this.apply = apply;
+        }
+
+        private void price(String typeCode, String sql, RowPricer pricer) {
+            // Договоры вида без тарифа остаются нерассчитанными
+            if (!tariffEngine.hasTariff(typeCode)) {
+                return;
+            }
+            jdbcTemplate.query(sql, rs -> {
+                LocalDate start = toLocalDate(rs.getDate("start_date"));
+                LocalDate end = toLocalDate(rs.getDate("end_date"));
+                double premium = pricer.price(rs, start != null ? start : LocalDate.now(), TariffEngine.termYears(start, end));
+                // Без суммы страхования премию посчитать нельзя
+                if (Double.isNaN(premium)) {
+                    return;
+                }
+                BigDecimal before = rs.getBigDecimal("premium_amount");
+                BigDecimal after = TariffEngine.round(premium);
+                priced++;
+                premiumBefore = premiumBefore.add(before != null ? before : BigDecimal.ZERO);
+                premiumAfter = premiumAfter.add(after);
+                if (before == null || before.compareTo(after) != 0) {
+                    changed++;
+                    if (apply) {
+                        pending.add(new Object[]{after, rs.getLong("id")});
+                        if (pending.size() >= batchSize) {
+                            flush();
+                        }
+                    }
+                }
+            });
+        }
+
+        private void flush() {
+            if (!pending.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE contract SET premium_amount = ? WHERE id = ?", pending);
+                pending.clear();
+            }
+        }
+
+        private static LocalDate toLocalDate(Date date) {
+            return date != null ? date.toLocalDate() : null;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package ru.springaio.insuranceprobackend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.springaio.insuranceprobackend.dto.ProductDetailsDto;
+import ru.springaio.insuranceprobackend.entity.Contract;
+import ru.springaio.insuranceprobackend.mapper.ProductDetailsMapper;
+import ru.springaio.insuranceprobackend.repository.CascoDatumRepository;
+import ru.springaio.insuranceprobackend.repository.ContractRepository;
+import ru.springaio.insuranceprobackend.repository.LifeInsuranceDatumRepository;
+import ru.springaio.insuranceprobackend.repository.OsagoDatumRepository;
+import ru.springaio.insuranceprobackend.repository.PropertyInsuranceDatumRepository;
+import ru.springaio.insuranceprobackend.security.SecurityUtils;
+import ru.springaio.insuranceprobackend.security.UserPrincipal;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+// Данные продукта по договорам. Таблица выбирается по коду вида страхования договора,
+// поэтому для одного договора выполняется один запрос, а для страницы — по одному IN-запросу
+// на каждый встретившийся вид страхования.
+@Service
+@RequiredArgsConstructor
+public class ProductDetailsService {
+
+    private final ContractRepository contractRepository;
+    private final CascoDatumRepository cascoDatumRepository;
+    private final OsagoDatumRepository osagoDatumRepository;
+    private final LifeInsuranceDatumRepository lifeInsuranceDatumRepository;
+    private final PropertyInsuranceDatumRepository propertyInsuranceDatumRepository;
+    private final ProductDetailsMapper productDetailsMapper;
+    private final SecurityUtils securityUtils;
+
+    @Transactional(readOnly = true)
+    public ProductDetailsDto findByContract(Long contractId) {
+        Contract contract = contractRepository.findById(contractId)
+                .orElseThrow(() -> new RuntimeException("Contract not found"));
+        if (!isAccessible(contract, securityUtils.getCurrentUser())) {
+            throw new RuntimeException("Access denied");
+        }
+        ProductDetailsDto details = load(typeCodeOf(contract), List.of(contractId)).get(contractId);
+        if (details == null) {
+            throw new RuntimeException("Product details not found");
+        }
+        return details;
+    }
+
+    // Договоры без данных продукта или недоступные текущему пользователю пропускаются; порядок — как в contractIds
+    @Transactional(readOnly = true)
+    public List<ProductDetailsDto> findByContracts(Collection<Long> contractIds) {
+        UserPrincipal currentUser = securityUtils.getCurrentUser();
+        Map<String, List<Long>> idsByType = contractRepository.findByIdIn(contractIds).stream()
+                .filter(contract -> isAccessible(contract, currentUser))
+                .filter(contract -> typeCodeOf(contract) != null)
+                .collect(Collectors.groupingBy(ProductDetailsService::typeCodeOf,
+                        Collectors.mapping(Contract::getId, Collectors.toList())));
+
+        Map<Long, ProductDetailsDto> byContract = new HashMap<>();
+        idsByType.forEach((typeCode, ids) -> byContract.putAll(load(typeCode, ids)));
+        return contractIds.stream().distinct().map(byContract::get).filter(Objects::nonNull).toList();
+    }
+
+    private Map<Long, ProductDetailsDto> load(String typeCode, Collection<Long> contractIds) {
+        if (typeCode == null) {
+            return Map.of();
+        }
+        return switch (typeCode) {
+            case "CASCO" -> cascoDatumRepository.findByContractIdIn(contractIds).stream()
+                    .collect(Collectors.toMap(d -> d.getContract().getId(), productDetailsMapper::toDto));
+            case "OSAGO" -> osagoDatumRepository.findByContractIdIn(contractIds).stream()
+                    .collect(Collectors.toMap(d -> d.getContract().getId(), productDetailsMapper::toDto));
+            case "LIFE" -> lifeInsuranceDatumRepository.findByContractIdIn(contractIds).stream()
+                    .collect(Collectors.toMap(d -> d.getContract().getId(), productDetailsMapper::toDto));
+            case "PROPERTY" -> propertyInsuranceDatumRepository.findByContractIdIn(contractIds).stream()
+                    .collect(Collectors.toMap(d -> d.getContract().getId(), productDetailsMapper::toDto));
+            default -> Map.of();
+        };
+    }
+
+    private static String typeCodeOf(Contract contract) {
+        return contract.getInsuranceTypeCode() != null ? contract.getInsuranceTypeCode().getCode() : null;
+    }
+
+    // Агент видит только свои договоры. Менеджер и Админ — любые.
+    private static boolean isAccessible(Contract contract, UserPrincipal currentUser) {
+        return !currentUser.isAgent()
+                || (contract.getAgent() != null && contract.getAgent().getId().equals(currentUser.getId()));
+    }
+}
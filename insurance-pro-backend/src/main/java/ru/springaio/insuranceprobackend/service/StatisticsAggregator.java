@@ -0,0 +1,207 @@
+package ru.springaio.insuranceprobackend.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.springaio.insuranceprobackend.entity.Client;
+import ru.springaio.insuranceprobackend.entity.Contract;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+// Поддерживает дневные агрегаты contract_stats_daily и client_stats_daily.
+// Вызывается из ContractServiceImpl и ClientServiceImpl в той же транзакции,
+// что и изменение договора или клиента, поэтому агрегаты фиксируются вместе с ним.
+@Service
+@RequiredArgsConstructor
+public class StatisticsAggregator {
+
+    // Значения ключа для договоров и клиентов без агента или вида страхования
+    static final long NO_AGENT = 0L;
+    static final String NO_INSURANCE_TYPE = "";
+
+    private final EntityManager entityManager;
+
+    // Ключ и вклад договора в агрегаты на момент снимка
+    public record ContractContribution(long agentId, String insuranceTypeCode, LocalDate statDate, BigDecimal premium) {
+    }
+
+    public ContractContribution contributionOf(Contract contract) {
+        LocalDate statDate = toStatDate(contract.getCreatedAt());
+        if (statDate == null) {
+            return null;
+        }
+        return new ContractContribution(
+                contract.getAgent() != null ? contract.getAgent().getId() : NO_AGENT,
+                contract.getInsuranceTypeCode() != null ? contract.getInsuranceTypeCode().getCode() : NO_INSURANCE_TYPE,
+                statDate,
+                contract.getPremiumAmount() != null ? contract.getPremiumAmount() : BigDecimal.ZERO);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void contractAdded(Contract contract) {
+        applyContract(contributionOf(contract), 1);
+    }
+
+    // Пакетный вариант для импорта: вклады с одинаковым ключом складываются до обращения к БД
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void contractsAdded(Collection<Contract> contracts) {
+        Map<ContractContribution, Long> counts = new HashMap<>();
+        Map<ContractContribution, BigDecimal> premiums = new HashMap<>();
+        for (Contract contract : contracts) {
+            ContractContribution c = contributionOf(contract);
+            if (c == null) {
+                continue;
+            }
+            // Ключ корзины без премии
+            ContractContribution key = new ContractContribution(c.agentId(), c.insuranceTypeCode(), c.statDate(), BigDecimal.ZERO);
+            counts.merge(key, 1L, Long::sum);
+            premiums.merge(key, c.premium(), BigDecimal::add);
+        }
+        counts.forEach((key, count) -> applyContract(key, count, premiums.get(key)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void contractRemoved(Contract contract) {
+        applyContract(contributionOf(contract), -1);
+    }
+
+    // before — снимок, снятый до изменения договора
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void contractChanged(ContractContribution before, Contract contract) {
+        ContractContribution after = contributionOf(contract);
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        applyContract(before, -1);
+        applyContract(after, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void clientAdded(Client client) {
+        applyClient(client, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void clientRemoved(Client client) {
+        applyClient(client, -1);
+    }
+
+    // Полный пересчёт агрегатов из таблиц contract и client
+    @Transactional
+    public void rebuild() {
+        // На PostgreSQL блокируем агрегаты от инкрементальных обновлений на время пересчёта:
+        // транзакции, уже изменившие агрегаты, завершатся до него, остальные применят дельту после
+        if (isPostgreSql()) {
+            entityManager.createNativeQuery("LOCK TABLE contract_stats_daily, client_stats_daily IN SHARE ROW EXCLUSIVE MODE")
+                    .executeUpdate();
+        }
+        entityManager.createNativeQuery("DELETE FROM contract_stats_daily").executeUpdate();
+        entityManager.createNativeQuery("""
+                INSERT INTO contract_stats_daily (agent_id, insurance_type_code, stat_date, contract_count, premium_sum)
+                SELECT COALESCE(agent_id, 0), COALESCE(insurance_type_code, ''), CAST(created_at AS DATE),
+                       COUNT(*), COALESCE(SUM(premium_amount), 0)
+                FROM contract
+                WHERE created_at IS NOT NULL
+                GROUP BY COALESCE(agent_id, 0), COALESCE(insurance_type_code, ''), CAST(created_at AS DATE)
+                """).executeUpdate();
+        entityManager.createNativeQuery("DELETE FROM client_stats_daily").executeUpdate();
+        entityManager.createNativeQuery("""
+                INSERT INTO client_stats_daily (agent_id, stat_date, client_count)
+                SELECT COALESCE(agent_id, 0), CAST(registration_date AS DATE), COUNT(*)
+                FROM client
+                WHERE registration_date IS NOT NULL
+                GROUP BY COALESCE(agent_id, 0), CAST(registration_date AS DATE)
+                """).executeUpdate();
+    }
+
+    private void applyContract(ContractContribution contribution, int sign) {
+        if (contribution == null) {
+            return;
+        }
+        applyContract(contribution, sign, sign > 0 ? contribution.premium() : contribution.premium().negate());
+    }
+
+    private void applyContract(ContractContribution contribution, long count, BigDecimal premium) {
+        if (updateContractBucket(contribution, count, premium) > 0) {
+            return;
+        }
+        // Корзины ещё нет: создаём пустую (конкурентная вставка не приведёт к ошибке) и применяем дельту
+        entityManager.createNativeQuery("""
+                        INSERT INTO contract_stats_daily (agent_id, insurance_type_code, stat_date, contract_count, premium_sum)
+                        VALUES (:agentId, :typeCode, :statDate, 0, 0)
+                        ON CONFLICT DO NOTHING
+                        """)
+                .setParameter("agentId", contribution.agentId())
+                .setParameter("typeCode", contribution.insuranceTypeCode())
+                .setParameter("statDate", contribution.statDate())
+                .executeUpdate();
+        updateContractBucket(contribution, count, premium);
+    }
+
+    private int updateContractBucket(ContractContribution contribution, long count, BigDecimal premium) {
+        return entityManager.createNativeQuery("""
+                        UPDATE contract_stats_daily
+                        SET contract_count = contract_count + :count, premium_sum = premium_sum + :premium
+                        WHERE agent_id = :agentId AND insurance_type_code = :typeCode AND stat_date = :statDate
+                        """)
+                .setParameter("count", count)
+                .setParameter("premium", premium)
+                .setParameter("agentId", contribution.agentId())
+                .setParameter("typeCode", contribution.insuranceTypeCode())
+                .setParameter("statDate", contribution.statDate())
+                .executeUpdate();
+    }
+
+    private void applyClient(Client client, int sign) {
+        LocalDate statDate = toStatDate(client.getRegistrationDate());
+        if (statDate == null) {
+            return;
+        }
+        long agentId = client.getAgent() != null ? client.getAgent().getId() : NO_AGENT;
+        if (updateClientBucket(agentId, statDate, sign) > 0) {
+            return;
+        }
+        entityManager.createNativeQuery("""
+                        INSERT INTO client_stats_daily (agent_id, stat_date, client_count)
+                        VALUES (:agentId, :statDate, 0)
+                        ON CONFLICT DO NOTHING
+                        """)
+                .setParameter("agentId", agentId)
+                .setParameter("statDate", statDate)
+                .executeUpdate();
+        updateClientBucket(agentId, statDate, sign);
+    }
+
+    private int updateClientBucket(long agentId, LocalDate statDate, int count) {
+        return entityManager.createNativeQuery("""
+                        UPDATE client_stats_daily SET client_count = client_count + :count
+                        WHERE agent_id = :agentId AND stat_date = :statDate
+                        """)
+                .setParameter("count", count)
+                .setParameter("agentId", agentId)
+                .setParameter("statDate", statDate)
+                .executeUpdate();
+    }
+
+    // created_at и registration_date — TIMESTAMP WITHOUT TIME ZONE, которые Hibernate пишет
+    // в часовом поясе JVM, поэтому день совпадает с CAST(... AS DATE) в rebuild
+    private static LocalDate toStatDate(Instant instant) {
+        return instant != null ? LocalDate.ofInstant(instant, ZoneId.systemDefault()) : null;
+    }
+
+    private boolean isPostgreSql() {
+        return entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName())
+                .toLowerCase().contains("postgresql");
+    }
+}
@@ -0,0 +1,48 @@
+package ru.springaio.insuranceprobackend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+// Выполняет независимые запросы статистики параллельно на ограниченном пуле виртуальных потоков.
+// Каждый запрос получает собственную read-only транзакцию (и соединение) с таймаутом,
+// поэтому размер пула ограничивает число соединений, которые забирает один дашборд.
+@Component
+public class StatisticsQueryExecutor {
+
+    private final ExecutorService executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration timeout;
+
+    public StatisticsQueryExecutor(PlatformTransactionManager transactionManager,
+                                   @Value("${statistics.query-parallelism:4}") int parallelism,
+                                   @Value("${statistics.query-timeout:PT5S}") Duration timeout) {
+        this.executor = Executors.newFixedThreadPool(parallelism, Thread.ofVirtual().name("statistics-", 0).factory());
+        this.timeout = timeout;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Таймаут транзакции Spring переносит на JDBC-запросы, так что зависший запрос отменяется и в БД
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> query.get()), executor);
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
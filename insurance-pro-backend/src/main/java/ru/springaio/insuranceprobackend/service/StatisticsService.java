@@ -1,41 +1,214 @@
 package ru.springaio.insuranceprobackend.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.springaio.insuranceprobackend.dto.StatisticsConsistencyDto;
 import ru.springaio.insuranceprobackend.dto.StatisticsDto;
 import ru.springaio.insuranceprobackend.dto.TypeCountDto;
 import ru.springaio.insuranceprobackend.dto.TypeAverageDto;
 import ru.springaio.insuranceprobackend.dto.MonthCountDto;
-import ru.springaio.insuranceprobackend.entity.User;
+import ru.springaio.insuranceprobackend.monitoring.MetricsConfig;
 import ru.springaio.insuranceprobackend.repository.ClientRepository;
 import ru.springaio.insuranceprobackend.repository.ContractRepository;
-import ru.springaio.insuranceprobackend.repository.UserRepository;
 import ru.springaio.insuranceprobackend.security.SecurityUtils;
+import ru.springaio.insuranceprobackend.security.UserPrincipal;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class StatisticsService {
 
     private final ClientRepository clientRepository;
     private final ContractRepository contractRepository;
-    private final UserRepository userRepository;
+    private final StatisticsAggregator statisticsAggregator;
+    private final StatisticsQueryExecutor queryExecutor;
     private final SecurityUtils securityUtils;
     private final EntityManager entityManager;
 
-    @Transactional(readOnly = true)
+    // Статистика собирается из дневных агрегатов (см. StatisticsAggregator), а не из таблицы contract.
+    // Три независимых запроса выполняются параллельно; если какой-то не уложился в таймаут,
+    // дашборд получает остальные разделы и признак partial со списком недостающих
     public StatisticsDto getStatistics(LocalDate startDate, LocalDate endDate) {
-        User currentUser = userRepository.findByLogin(securityUtils.getCurrentUserLogin()).orElseThrow();
-        String role = currentUser.getRoleCode().getCode();
-        Long agentId = "AGENT".equals(role) ? currentUser.getId() : null;
+        UserPrincipal currentUser = securityUtils.getCurrentUser();
+        Long agentId = currentUser.isAgent() ? currentUser.getId() : null;
+
+        CompletableFuture<Long> clients = queryExecutor.submit(() -> countAggregatedClients(agentId, startDate, endDate));
+        CompletableFuture<TypeTotals> types = queryExecutor.submit(() -> getAggregatedTypeTotals(agentId, startDate, endDate));
+        CompletableFuture<List<MonthCountDto>> months = queryExecutor.submit(() -> getAggregatedDynamicByMonth(agentId, startDate, endDate));
+
+        long deadline = System.nanoTime() + queryExecutor.getTimeout().toNanos();
+        List<String> missing = new ArrayList<>();
+        Long totalClients = await(clients, deadline, missing, "totalClients");
+        TypeTotals typeTotals = await(types, deadline, missing, "totalContracts", "contractsByType", "averagePremiumByType");
+        List<MonthCountDto> dynamicByMonth = await(months, deadline, missing, "dynamicByMonth");
+
+        return StatisticsDto.builder()
+                .totalClients(totalClients != null ? totalClients : 0)
+                .totalContracts(typeTotals != null ? typeTotals.totalContracts() : 0)
+                .contractsByType(typeTotals != null ? typeTotals.contractsByType() : List.of())
+                .averagePremiumByType(typeTotals != null ? typeTotals.averagePremiumByType() : List.of())
+                .dynamicByMonth(dynamicByMonth != null ? dynamicByMonth : List.of())
+                .partial(!missing.isEmpty())
+                .missingSections(missing)
+                .build();
+    }
+
+    @Transactional
+    public void rebuild() {
+        statisticsAggregator.rebuild();
+    }
+
+    // Сверка агрегатов с расчётом по исходным таблицам: по всей системе и по каждому агенту
+    @Transactional(readOnly = true)
+    public StatisticsConsistencyDto checkConsistency(LocalDate startDate, LocalDate endDate) {
+        List<Long> scopes = new ArrayList<>();
+        scopes.add(null);
+        scopes.addAll(findAgentIds());
+
+        List<String> mismatches = new ArrayList<>();
+        for (Long agentId : scopes) {
+            StatisticsDto aggregated = getAggregatedStatistics(agentId, startDate, endDate);
+            StatisticsDto live = getLiveStatistics(agentId, startDate, endDate);
+            String scope = agentId == null ? "all" : "agent " + agentId;
+            compare(mismatches, scope, "totalClients", live.getTotalClients(), aggregated.getTotalClients());
+            compare(mismatches, scope, "totalContracts", live.getTotalContracts(), aggregated.getTotalContracts());
+            compare(mismatches, scope, "contractsByType",
+                    toMap(live.getContractsByType(), TypeCountDto::getType, TypeCountDto::getCount),
+                    toMap(aggregated.getContractsByType(), TypeCountDto::getType, TypeCountDto::getCount));
+            compare(mismatches, scope, "averagePremiumByType",
+                    toMap(live.getAveragePremiumByType(), TypeAverageDto::getType, a -> scaled(a.getAveragePremium())),
+                    toMap(aggregated.getAveragePremiumByType(), TypeAverageDto::getType, a -> scaled(a.getAveragePremium())));
+            compare(mismatches, scope, "dynamicByMonth",
+                    toMap(live.getDynamicByMonth(), MonthCountDto::getMonth, MonthCountDto::getCount),
+                    toMap(aggregated.getDynamicByMonth(), MonthCountDto::getMonth, MonthCountDto::getCount));
+        }
+        return new StatisticsConsistencyDto(mismatches.isEmpty(), scopes.size(), mismatches);
+    }
+
+    private StatisticsDto getAggregatedStatistics(Long agentId, LocalDate startDate, LocalDate endDate) {
+        TypeTotals typeTotals = getAggregatedTypeTotals(agentId, startDate, endDate);
+        return StatisticsDto.builder()
+                .totalClients(countAggregatedClients(agentId, startDate, endDate))
+                .totalContracts(typeTotals.totalContracts())
+                .contractsByType(typeTotals.contractsByType())
+                .averagePremiumByType(typeTotals.averagePremiumByType())
+                .dynamicByMonth(getAggregatedDynamicByMonth(agentId, startDate, endDate))
+                .missingSections(List.of())
+                .build();
+    }
+
+    // Итоги по договорам: общее количество, количество и средняя премия по видам страхования
+    private record TypeTotals(long totalContracts, List<TypeCountDto> contractsByType, List<TypeAverageDto> averagePremiumByType) {
+    }
+
+    private long countAggregatedClients(Long agentId, LocalDate startDate, LocalDate endDate) {
+        return ((Number) bucketQuery(
+                "SELECT COALESCE(SUM(s.client_count), 0) FROM client_stats_daily s WHERE 1=1 ", "",
+                agentId, startDate, endDate).getSingleResult()).longValue();
+    }
+
+    // Один запрос вместо трёх: LEFT JOIN оставляет договоры без вида страхования в общем количестве,
+    // среднее = сумма / количество
+    private TypeTotals getAggregatedTypeTotals(Long agentId, LocalDate startDate, LocalDate endDate) {
+        List<Object[]> rows = bucketQuery(
+                "SELECT t.name, SUM(s.contract_count), SUM(s.premium_sum) FROM contract_stats_daily s "
+                        + "LEFT JOIN insurance_type t ON t.code = s.insurance_type_code WHERE 1=1 ",
+                "GROUP BY t.name ORDER BY t.name",
+                agentId, startDate, endDate).getResultList();
+        long totalContracts = 0;
+        List<TypeCountDto> contractsByType = new ArrayList<>();
+        List<TypeAverageDto> averagePremiumByType = new ArrayList<>();
+        for (Object[] r : rows) {
+            long count = ((Number) r[1]).longValue();
+            totalContracts += count;
+            if (r[0] == null || count <= 0) {
+                continue;
+            }
+            BigDecimal premiumSum = new BigDecimal(r[2].toString());
+            contractsByType.add(new TypeCountDto((String) r[0], count));
+            averagePremiumByType.add(new TypeAverageDto((String) r[0],
+                    premiumSum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP)));
+        }
+        return new TypeTotals(totalContracts, contractsByType, averagePremiumByType);
+    }
+
+    private List<MonthCountDto> getAggregatedDynamicByMonth(Long agentId, LocalDate startDate, LocalDate endDate) {
+        List<Object[]> rows = bucketQuery(
+                "SELECT TO_CHAR(s.stat_date, 'YYYY-MM'), SUM(s.contract_count) FROM contract_stats_daily s WHERE 1=1 ",
+                "GROUP BY TO_CHAR(s.stat_date, 'YYYY-MM') HAVING SUM(s.contract_count) > 0 ORDER BY TO_CHAR(s.stat_date, 'YYYY-MM')",
+                agentId, startDate, endDate).getResultList();
+        return rows.stream()
+                .map(r -> new MonthCountDto((String) r[0], ((Number) r[1]).longValue()))
+                .collect(Collectors.toList());
+    }
+
+    // Ждёт результат не дольше общего дедлайна; при таймауте или ошибке раздел помечается недостающим
+    private static <T> T await(CompletableFuture<T> future, long deadlineNanos, List<String> missing, String... sections) {
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Statistics sections {} timed out", Arrays.toString(sections));
+        } catch (ExecutionException e) {
+            log.warn("Statistics sections {} failed", Arrays.toString(sections), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        missing.addAll(Arrays.asList(sections));
+        return null;
+    }
+
+    private Query bucketQuery(String select, String tail, Long agentId, LocalDate start, LocalDate end) {
+        StringBuilder queryStr = new StringBuilder(select);
+        if (agentId != null) queryStr.append("AND s.agent_id = :agentId ");
+        if (start != null) queryStr.append("AND s.stat_date >= :start ");
+        if (end != null) queryStr.append("AND s.stat_date <= :end ");
+        queryStr.append(tail);
+
+        var query = entityManager.createNativeQuery(queryStr.toString());
+        if (agentId != null) query.setParameter("agentId", agentId);
+        if (start != null) query.setParameter("start", start);
+        if (end != null) query.setParameter("end", end);
+        return query;
+    }
 
+    private List<Long> findAgentIds() {
+        List<?> ids = entityManager.createNativeQuery("""
+                SELECT agent_id FROM contract WHERE agent_id IS NOT NULL
+                UNION SELECT agent_id FROM client WHERE agent_id IS NOT NULL
+                UNION SELECT agent_id FROM contract_stats_daily WHERE agent_id <> 0
+                UNION SELECT agent_id FROM client_stats_daily WHERE agent_id <> 0
+                """).getResultList();
+        return ids.stream().map(id -> ((Number) id).longValue()).sorted().collect(Collectors.toList());
+    }
+
+    // Расчёт по исходным таблицам, которым статистика строилась до появления агрегатов
+    private StatisticsDto getLiveStatistics(Long agentId, LocalDate startDate, LocalDate endDate) {
         LocalDateTime start = startDate != null ? startDate.atStartOfDay() : null;
         LocalDateTime end = endDate != null ? endDate.atTime(23, 59, 59) : null;
 
@@ -70,8 +243,13 @@ public class StatisticsService {
             });
         }
 
-        List<TypeCountDto> contractsByType = getContractsByType(agentId, start, end);
-        List<TypeAverageDto> averagePremiumByType = getAveragePremiumByType(agentId, start, end);
+        // Количество и средняя премия группируются по одному ключу — один запрос на оба раздела
+        List<TypeCountDto> contractsByType = new ArrayList<>();
+        List<TypeAverageDto> averagePremiumByType = new ArrayList<>();
+        for (Object[] r : getCountAndAveragePremiumByType(agentId, start, end)) {
+            contractsByType.add(new TypeCountDto((String) r[0], ((Number) r[1]).longValue()));
+            averagePremiumByType.add(new TypeAverageDto((String) r[0], r[2] != null ? BigDecimal.valueOf(((Number) r[2]).doubleValue()) : BigDecimal.ZERO));
+        }
         List<MonthCountDto> dynamicByMonth = getDynamicByMonth(agentId, start, end);
 
         return StatisticsDto.builder()
@@ -83,22 +261,8 @@ public class StatisticsService {
                 .build();
     }
 
-    private List<TypeCountDto> getContractsByType(Long agentId, LocalDateTime start, LocalDateTime end) {
-        StringBuilder queryStr = new StringBuilder("SELECT new ru.springaio.insuranceprobackend.dto.TypeCountDto(c.insuranceTypeCode.name, COUNT(c)) FROM Contract c WHERE 1=1 ");
-        if (agentId != null) queryStr.append("AND c.agent.id = :agentId ");
-        if (start != null) queryStr.append("AND c.createdAt >= :start ");
-        if (end != null) queryStr.append("AND c.createdAt <= :end ");
-        queryStr.append("GROUP BY c.insuranceTypeCode.name");
-
-        var query = entityManager.createQuery(queryStr.toString(), TypeCountDto.class);
-        if (agentId != null) query.setParameter("agentId", agentId);
-        if (start != null) query.setParameter("start", start);
-        if (end != null) query.setParameter("end", end);
-        return query.getResultList();
-    }
-
-    private List<TypeAverageDto> getAveragePremiumByType(Long agentId, LocalDateTime start, LocalDateTime end) {
-        StringBuilder queryStr = new StringBuilder("SELECT c.insuranceTypeCode.name, AVG(c.premiumAmount) FROM Contract c WHERE 1=1 ");
+    private List<Object[]> getCountAndAveragePremiumByType(Long agentId, LocalDateTime start, LocalDateTime end) {
+        StringBuilder queryStr = new StringBuilder("SELECT c.insuranceTypeCode.name, COUNT(c), AVG(c.premiumAmount) FROM Contract c WHERE 1=1 ");
         if (agentId != null) queryStr.append("AND c.agent.id = :agentId ");
         if (start != null) queryStr.append("AND c.createdAt >= :start ");
         if (end != null) queryStr.append("AND c.createdAt <= :end ");
@@ -108,15 +272,11 @@ public class StatisticsService {
         if (agentId != null) query.setParameter("agentId", agentId);
         if (start != null) query.setParameter("start", start);
         if (end != null) query.setParameter("end", end);
-        
-        List<Object[]> results = query.getResultList();
-        return results.stream()
-                .map(r -> new TypeAverageDto((String) r[0], r[1] != null ? BigDecimal.valueOf(((Number) r[1]).doubleValue()) : BigDecimal.ZERO))
-                .collect(Collectors.toList());
+        return query.getResultList();
     }
 
     private List<MonthCountDto> getDynamicByMonth(Long agentId, LocalDateTime start, LocalDateTime end) {
-        StringBuilder queryStr = new StringBuilder("SELECT TO_CHAR(c.created_at, 'YYYY-MM'), COUNT(c) FROM contract c WHERE 1=1 ");
+        StringBuilder queryStr = new StringBuilder("SELECT TO_CHAR(c.created_at, 'YYYY-MM'), COUNT(*) FROM contract c WHERE 1=1 ");
         if (agentId != null) queryStr.append("AND c.agent_id = :agentId ");
         if (start != null) queryStr.append("AND c.created_at >= :start ");
         if (end != null) queryStr.append("AND c.created_at <= :end ");
@@ -132,4 +292,30 @@ public class StatisticsService {
                 .map(r -> new MonthCountDto((String) r[0], ((Number) r[1]).longValue()))
                 .collect(Collectors.toList());
     }
+
+    private static <T, V> Map<String, V> toMap(List<T> items, Function<T, String> key, Function<T, V> value) {
+        Map<String, V> map = new LinkedHashMap<>();
+        for (T item : items) {
+            map.put(key.apply(item), value.apply(item));
+        }
+        return map;
+    }
+
+    private static BigDecimal scaled(BigDecimal value) {
+        return value != null ? value.setScale(2, RoundingMode.HALF_UP) : null;
+    }
+
+    private static void compare(List<String> mismatches, String scope, String metric, Object live, Object aggregated) {
+        if (!Objects.equals(live, aggregated)) {
+            mismatches.add(scope + ": " + metric + " live=" + live + " aggregated=" + aggregated);
+        }
+    }
+
+    private static <V> void compare(List<String> mismatches, String scope, String metric, Map<String, V> live, Map<String, V> aggregated) {
+        Set<String> keys = new TreeSet<>(live.keySet());
+        keys.addAll(aggregated.keySet());
+        for (String key : keys) {
+            compare(mismatches, scope, metric + "[" + key + "]", live.get(key), aggregated.get(key));
+        }
+    }
 }
@@ -0,0 +1,270 @@
+package ru.springaio.insuranceprobackend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import ru.springaio.insuranceprobackend.dto.QuoteDto;
+import ru.springaio.insuranceprobackend.dto.QuoteRequestDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Расчёт страховой премии по тарифным коэффициентам из tariff_coefficient.
+// Таблица загружается при старте и компилируется в массивы: шкала — отсортированные границы
+// и коэффициенты с двоичным поиском, категории — короткие массивы ключей. Расчёт идёт в double
+// без обращения к БД и без создания BigDecimal; в BigDecimal переводится только итог при округлении.
+// Неизвестное значение фактора передаётся как Double.NaN и даёт коэффициент 1.
+@Service
+@RequiredArgsConstructor
+public class TariffEngine {
+
+    public static final String CASCO = "CASCO";
+    public static final String OSAGO = "OSAGO";
+    public static final String LIFE = "LIFE";
+    public static final String PROPERTY = "PROPERTY";
+
+    static final String BASE_RATE = "BASE_RATE";
+    static final String VEHICLE_AGE = "VEHICLE_AGE";
+    static final String FRANCHISE_SHARE = "FRANCHISE_SHARE";
+    static final String DRIVING_EXPERIENCE = "DRIVING_EXPERIENCE";
+    static final String AGE = "AGE";
+    static final String HEALTH = "HEALTH";
+    static final String AREA = "AREA";
+    static final String BUILDING_AGE = "BUILDING_AGE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Снимок заменяется целиком, как в DictionaryRegistry
+    private volatile Map<String, Tariff> tariffs = Map.of();
+
+    // Строка tariff_coefficient; lowerBound == null для категорий и базовой ставки
+    record Coefficient(String insuranceTypeCode, String factor, Double lowerBound, String category, double coefficient) {
+    }
+
+    @PostConstruct
+    public void reload() {
+        tariffs = compile(jdbcTemplate.query("""
+                        SELECT insurance_type_code, factor, lower_bound, category, coefficient
+                        FROM tariff_coefficient
+                        """,
+                (rs, rowNum) -> new Coefficient(
+                        rs.getString("insurance_type_code"),
+                        rs.getString("factor"),
+                        rs.getObject("lower_bound") != null ? rs.getDouble("lower_bound") : null,
+                        rs.getString("category"),
+                        rs.getDouble("coefficient"))));
+    }
+
+    public QuoteDto quote(QuoteRequestDto request) {
+        String typeCode = request.getInsuranceTypeCode();
+        if (typeCode == null) {
+            throw new RuntimeException("Insurance type is required");
+        }
+        LocalDate onDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now();
+        double term = termYears(request.getStartDate(), request.getEndDate());
+
+        BigDecimal sumInsured;
+        double premium;
+        switch (typeCode) {
+            case CASCO -> {
+                sumInsured = required(request.getVehicleCost() != null ? request.getVehicleCost() : request.getInsuredAmount(), "Vehicle cost");
+                premium = priceCasco(sumInsured.doubleValue(), yearsSince(request.getManufactureYear(), onDate),
+                        value(request.getFranchiseAmount()), term);
+            }
+            case OSAGO -> {
+                sumInsured = required(request.getInsuredAmount(), "Insured amount");
+                premium = priceOsago(sumInsured.doubleValue(), value(request.getDrivingExperience()), term);
+            }
+            case LIFE -> {
+                sumInsured = required(request.getInsuredAmount(), "Insured amount");
+                if (request.getBirthDate() == null) {
+                    throw new RuntimeException("Birth date is required");
+                }
+                premium = priceLife(sumInsured.doubleValue(), ChronoUnit.YEARS.between(request.getBirthDate(), onDate),
+                        request.getHealthStatus(), term);
+            }
+            case PROPERTY -> {
+                sumInsured = required(request.getCost() != null ? request.getCost() : request.getInsuredAmount(), "Property cost");
+                premium = priceProperty(sumInsured.doubleValue(), value(request.getArea()),
+                        yearsSince(request.getConstructionYear(), onDate), term);
+            }
+            default -> throw new RuntimeException("No tariff for insurance type: " + typeCode);
+        }
+        return new QuoteDto(typeCode, sumInsured, round(premium));
+    }
+
+    public double priceCasco(double vehicleCost, double vehicleAge, double franchiseAmount, double termYears) {
+        Tariff tariff = tariff(CASCO);
+        double franchiseShare = vehicleCost > 0 ? franchiseAmount / vehicleCost : Double.NaN;
+        return vehicleCost * tariff.baseRate
+                * tariff.scale(VEHICLE_AGE, vehicleAge)
+                * tariff.scale(FRANCHISE_SHARE, franchiseShare)
+                * termYears;
+    }
+
+    public double priceOsago(double insuredAmount, double drivingExperience, double termYears) {
+        Tariff tariff = tariff(OSAGO);
+        return insuredAmount * tariff.baseRate
+                * tariff.scale(DRIVING_EXPERIENCE, drivingExperience)
+                * termYears;
+    }
+
+    public double priceLife(double insuredAmount, double age, String healthStatus, double termYears) {
+        Tariff tariff = tariff(LIFE);
+        return insuredAmount * tariff.baseRate
+                * tariff.scale(AGE, age)
+                * tariff.category(HEALTH, healthStatus)
+                * termYears;
+    }
+
+    public double priceProperty(double cost, double area, double buildingAge, double termYears) {
+        Tariff tariff = tariff(PROPERTY);
+        return cost * tariff.baseRate
+                * tariff.scale(AREA, area)
+                * tariff.scale(BUILDING_AGE, buildingAge)
+                * termYears;
+    }
+
+    public boolean hasTariff(String typeCode) {
+        return tariffs.containsKey(typeCode);
+    }
+
+    // Срок действия в годах; без дат — один год
+    public static double termYears(LocalDate start, LocalDate end) {
+        if (start == null || end == null || !end.isAfter(start)) {
+            return 1.0;
+        }
+        return ChronoUnit.DAYS.between(start, end) / 365.0;
+    }
+
+    public static double yearsSince(Integer year, LocalDate onDate) {
+        return year != null ? Math.max(0, onDate.getYear() - year) : Double.NaN;
+    }
+
+    public static BigDecimal round(double premium) {
+        return BigDecimal.valueOf(premium).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static double value(Number number) {
+        return number != null ? number.doubleValue() : Double.NaN;
+    }
+
+    private static BigDecimal required(BigDecimal amount, String name) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new RuntimeException(name + " must be positive");
+        }
+        return amount;
+    }
+
+    private Tariff tariff(String typeCode) {
+        Tariff tariff = tariffs.get(typeCode);
+        if (tariff == null) {
+            throw new RuntimeException("No tariff for insurance type: " + typeCode);
+        }
+        return tariff;
+    }
+
+    static Map<String, Tariff> compile(List<Coefficient> rows) {
+        Map<String, Map<String, List<Coefficient>>> byType = new LinkedHashMap<>();
+        for (Coefficient row : rows) {
+            byType.computeIfAbsent(row.insuranceTypeCode(), t -> new LinkedHashMap<>())
+                    .computeIfAbsent(row.factor(), f -> new ArrayList<>())
+                    .add(row);
+        }
+        Map<String, Tariff> compiled = new HashMap<>();
+        byType.forEach((typeCode, factors) -> {
+            double baseRate = 0;
+            Map<String, Scale> scales = new HashMap<>();
+            Map<String, Categories> categories = new HashMap<>();
+            for (Map.Entry<String, List<Coefficient>> factor : factors.entrySet()) {
+                List<Coefficient> entries = factor.getValue();
+                if (BASE_RATE.equals(factor.getKey())) {
+                    baseRate = entries.get(0).coefficient();
+                } else if (entries.get(0).lowerBound() != null) {
+                    scales.put(factor.getKey(), Scale.of(entries));
+                } else {
+                    categories.put(factor.getKey(), Categories.of(entries));
+                }
+            }
+            compiled.put(typeCode, new Tariff(baseRate, Map.copyOf(scales), Map.copyOf(categories)));
+        });
+        return Map.copyOf(compiled);
+    }
+
+    record Tariff(double baseRate, Map<String, Scale> scales, Map<String, Categories> categories) {
+
+        double scale(String factor, double value) {
+            Scale scale = scales.get(factor);
+            return scale != null ? scale.lookup(value) : 1.0;
+        }
+
+        double category(String factor, String value) {
+            Categories category = categories.get(factor);
+            return category != null ? category.lookup(value) : 1.0;
+        }
+    }
+
+    // Ступенчатая шкала: коэффициент последней границы, не превышающей значение
+    record Scale(double[] bounds, double[] coefficients) {
+
+        static Scale of(List<Coefficient> entries) {
+            Coefficient[] sorted = entries.toArray(Coefficient[]::new);
+            Arrays.sort(sorted, (a, b) -> Double.compare(a.lowerBound(), b.lowerBound()));
+            double[] bounds = new double[sorted.length];
+            double[] coefficients = new double[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                bounds[i] = sorted[i].lowerBound();
+                coefficients[i] = sorted[i].coefficient();
+            }
+            return new Scale(bounds, coefficients);
+        }
+
+        double lookup(double value) {
+            if (Double.isNaN(value)) {
+                return 1.0;
+            }
+            int i = Arrays.binarySearch(bounds, value);
+            if (i < 0) {
+                i = -i - 2;
+            }
+            // Ниже первой границы действует первый коэффициент
+            return coefficients[Math.max(i, 0)];
+        }
+    }
+
+    // Категории без учёта регистра; неизвестная категория — коэффициент 1
+    record Categories(String[] keys, double[] coefficients) {
+
+        static Categories of(List<Coefficient> entries) {
+            String[] keys = new String[entries.size()];
+            double[] coefficients = new double[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                keys[i] = entries.get(i).category();
+                coefficients[i] = entries.get(i).coefficient();
+            }
+            return new Categories(keys, coefficients);
+        }
+
+        double lookup(String value) {
+            if (value == null) {
+                return 1.0;
+            }
+            String trimmed = value.strip();
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equalsIgnoreCase(trimmed)) {
+                    return coefficients[i];
+                }
+            }
+            return 1.0;
+        }
+    }
+}
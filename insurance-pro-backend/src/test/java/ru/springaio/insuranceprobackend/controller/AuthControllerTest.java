@@ -0,0 +1,234 @@
+package ru.springaio.insuranceprobackend.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.springaio.insuranceprobackend.dto.JwtResponse;
+import ru.springaio.insuranceprobackend.dto.LoginRequest;
+import ru.springaio.insuranceprobackend.dto.RefreshTokenRequest;
+import ru.springaio.insuranceprobackend.entity.User;
+import ru.springaio.insuranceprobackend.entity.UserRole;
+import ru.springaio.insuranceprobackend.repository.UserRepository;
+import ru.springaio.insuranceprobackend.security.AuthenticationExecutor;
+import ru.springaio.insuranceprobackend.security.JwtTokenProvider;
+import ru.springaio.insuranceprobackend.security.LoginRejectedException;
+import ru.springaio.insuranceprobackend.security.LoginThrottle;
+import ru.springaio.insuranceprobackend.security.RefreshTokenService;
+import ru.springaio.insuranceprobackend.security.SecurityConfig;
+import ru.springaio.insuranceprobackend.security.TokenRevocationRegistry;
+import ru.springaio.insuranceprobackend.security.UserDetailsServiceImpl;
+import ru.springaio.insuranceprobackend.security.UserPrincipalCache;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({AuthController.class, AuthenticationExecutor.class, LoginThrottle.class, JwtTokenProvider.class,
+        TokenRevocationRegistry.class, UserDetailsServiceImpl.class, UserPrincipalCache.class, RefreshTokenService.class,
+        AuthControllerTest.AuthenticationConfig.class})
+@TestPropertySource(properties = {
+        "security.password.bcrypt-strength=5",
+        "security.login.threads=1",
+        "security.login.throttle.per-login=3",
+        "security.login.throttle.per-ip=0"
+})
+// Проверка паролей идёт в потоке AuthenticationExecutor: пользователи должны быть закоммичены
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuthControllerTest {
+
+    @TestConfiguration
+    static class AuthenticationConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new SecurityConfig(null).passwordEncoder(5);
+        }
+
+        // Как InitializeUserDetailsBeanManagerConfigurer: сервис пользователей он же обновляет пароли
+        @Bean
+        AuthenticationManager authenticationManager(UserDetailsServiceImpl userDetailsService, PasswordEncoder passwordEncoder) {
+            DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+            provider.setPasswordEncoder(passwordEncoder);
+            provider.setUserDetailsPasswordService(userDetailsService);
+            return new ProviderManager(provider);
+        }
+    }
+
+    private static final List<String> LOGINS =
+            List.of("login-agent", "rehash-agent", "throttled-agent", "refresh-agent", "deactivated-agent", "promoted-agent");
+
+    @Autowired
+    private AuthController authController;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void deleteUsers() {
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("delete from User u where u.login in :logins")
+                .setParameter("logins", LOGINS)
+                .executeUpdate());
+    }
+
+    @Test
+    void respondsWithUserLoadedDuringAuthentication() {
+        User user = agent("login-agent", new BCryptPasswordEncoder(5).encode("secret"));
+
+        JwtResponse response = (JwtResponse) login("login-agent", "secret").getBody();
+
+        assertThat(response.getId()).isEqualTo(user.getId());
+        assertThat(response.getUsername()).isEqualTo("login-agent");
+        assertThat(response.getFullName()).isEqualTo("Агент Входа");
+        assertThat(response.getRoles()).containsExactly("ROLE_AGENT");
+        assertThat(response.getToken()).isNotBlank();
+        verify(userRepository, times(1)).findByLogin("login-agent");
+        verify(userRepository, never()).updatePassword(anyString(), anyString());
+    }
+
+    @Test
+    void rehashesPasswordWhenCostFactorChanges() {
+        agent("rehash-agent", new BCryptPasswordEncoder(4).encode("secret"));
+
+        login("rehash-agent", "secret");
+
+        String rehashed = userRepository.findByLogin("rehash-agent").orElseThrow().getPassword();
+        assertThat(rehashed).startsWith("$2a$05$");
+        assertThat(new BCryptPasswordEncoder().matches("secret", rehashed)).isTrue();
+
+        // Новый хэш уже в кэше пользователей: повторный вход ничего не перехэширует
+        login("rehash-agent", "secret");
+        verify(userRepository, times(1)).updatePassword(anyString(), anyString());
+    }
+
+    @Test
+    void throttlesAttemptsPerLoginBeforeCheckingPassword() {
+        agent("throttled-agent", new BCryptPasswordEncoder(5).encode("secret"));
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> login("throttled-agent", "wrong")).isInstanceOf(BadCredentialsException.class);
+        }
+        assertThatThrownBy(() -> login("throttled-agent", "secret"))
+                .isInstanceOfSatisfying(LoginRejectedException.class, ex -> {
+                    assertThat(ex.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    assertThat(ex.getRetryAfterSeconds()).isBetween(1L, 60L);
+                });
+        verify(userRepository, times(1)).findByLogin(any());
+    }
+
+    @Test
+    void refreshRotatesTokenWithoutCheckingPassword() {
+        User user = agent("refresh-agent", new BCryptPasswordEncoder(5).encode("secret"));
+        JwtResponse login = (JwtResponse) login("refresh-agent", "secret").getBody();
+
+        JwtResponse refreshed = (JwtResponse) authController.refreshToken(refreshRequest(login.getRefreshToken())).getBody();
+
+        assertThat(refreshed.getId()).isEqualTo(user.getId());
+        assertThat(refreshed.getRoles()).containsExactly("ROLE_AGENT");
+        assertThat(refreshed.getToken()).isNotBlank();
+        assertThat(refreshed.getRefreshToken()).isNotEqualTo(login.getRefreshToken());
+        verify(userRepository, times(1)).findByLogin("refresh-agent");
+
+        // Использованный токен погашен, следующий действует
+        assertThatThrownBy(() -> authController.refreshToken(refreshRequest(login.getRefreshToken())))
+                .isInstanceOf(CredentialsExpiredException.class);
+        authController.logout(refreshRequest(refreshed.getRefreshToken()));
+        assertThatThrownBy(() -> authController.refreshToken(refreshRequest(refreshed.getRefreshToken())))
+                .isInstanceOf(CredentialsExpiredException.class);
+    }
+
+    @Test
+    void refreshIsRejectedForDeactivatedUser() {
+        agent("deactivated-agent", new BCryptPasswordEncoder(5).encode("secret"));
+        JwtResponse login = (JwtResponse) login("deactivated-agent", "secret").getBody();
+        transactionTemplate.executeWithoutResult(status ->
+                userRepository.findByLogin("deactivated-agent").orElseThrow().setActive(false));
+
+        assertThatThrownBy(() -> authController.refreshToken(refreshRequest(login.getRefreshToken())))
+                .isInstanceOf(CredentialsExpiredException.class);
+    }
+
+    @Test
+    void refreshIsRejectedAfterRoleChange() {
+        agent("promoted-agent", new BCryptPasswordEncoder(5).encode("secret"));
+        JwtResponse login = (JwtResponse) login("promoted-agent", "secret").getBody();
+        // Смена роли отзывает и access-, и refresh-токены: новую роль даёт только повторный вход
+        transactionTemplate.executeWithoutResult(status -> userRepository.findByLogin("promoted-agent").orElseThrow()
+                .setRoleCode(entityManager.getReference(UserRole.class, "MANAGER")));
+
+        assertThatThrownBy(() -> authController.refreshToken(refreshRequest(login.getRefreshToken())))
+                .isInstanceOf(CredentialsExpiredException.class);
+    }
+
+    private static RefreshTokenRequest refreshRequest(String refreshToken) {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken(refreshToken);
+        return request;
+    }
+
+    private ResponseEntity<?> login(String username, String password) {
+        LoginRequest request = new LoginRequest();
+        request.setUsername(username);
+        request.setPassword(password);
+        return authController.authenticateUser(request, new MockHttpServletRequest());
+    }
+
+    private User agent(String login, String passwordHash) {
+        return transactionTemplate.execute(status -> {
+            User user = new User();
+            user.setLogin(login);
+            user.setPassword(passwordHash);
+            user.setFullName("Агент Входа");
+            user.setActive(true);
+            user.setCreatedAt(Instant.now());
+            user.setRoleCode(entityManager.getReference(UserRole.class, "AGENT"));
+            entityManager.persist(user);
+            return user;
+        });
+    }
+}
@@ -0,0 +1,110 @@
+package ru.springaio.insuranceprobackend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.springaio.insuranceprobackend.security.JwtTokenProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Полная цепочка безопасности: клиент обновляет токены только по 401, поэтому истёкший
+// или испорченный access-токен не должен давать 403
+@SpringBootTest(properties = "security.password.bcrypt-strength=4")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class TokenExpiryTest {
+
+    private static final String LOGIN = "expiry-agent";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    private long userId;
+
+    @BeforeEach
+    void createUser() {
+        jdbcTemplate.update("INSERT INTO users (login, password, full_name, role_code, active, created_at) "
+                        + "VALUES (?, ?, 'Агент Сессии', 'AGENT', true, CURRENT_TIMESTAMP)",
+                LOGIN, new BCryptPasswordEncoder(4).encode("secret"));
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE login = ?", Long.class, LOGIN);
+    }
+
+    @AfterEach
+    void deleteUser() {
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void missingOrInvalidTokenIsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/contracts")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/contracts").header("Authorization", "Bearer not-a-jwt"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void expiredTokenIsUnauthorizedUntilRefreshed() throws Exception {
+        JsonNode session = postJson("/api/auth/login", "{\"username\":\"" + LOGIN + "\",\"password\":\"secret\"}");
+        mockMvc.perform(get("/api/contracts").header("Authorization", "Bearer " + session.get("token").asText()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/contracts").header("Authorization", "Bearer " + expiredToken()))
+                .andExpect(status().isUnauthorized());
+
+        JsonNode refreshed = postJson("/api/auth/refresh",
+                "{\"refreshToken\":\"" + session.get("refreshToken").asText() + "\"}");
+        mockMvc.perform(get("/api/contracts").header("Authorization", "Bearer " + refreshed.get("token").asText()))
+                .andExpect(status().isOk());
+    }
+
+    // Токен с теми же claims, что выпускает JwtTokenProvider, но срок которого уже прошёл
+    private String expiredToken() {
+        Instant issued = Instant.now().minus(Duration.ofHours(1));
+        return Jwts.builder()
+                .subject(LOGIN)
+                .claim(JwtTokenProvider.CLAIM_USER_ID, userId)
+                .claim(JwtTokenProvider.CLAIM_ROLE, "AGENT")
+                .claim(JwtTokenProvider.CLAIM_VERSION, 0)
+                .issuedAt(Date.from(issued))
+                .expiration(Date.from(issued.plus(Duration.ofMinutes(15))))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    private JsonNode postJson(String url, String body) throws Exception {
+        String response = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+}
@@ -0,0 +1,98 @@
+package ru.springaio.insuranceprobackend.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(ConnectionLimiterConfig.class)
+@TestPropertySource(properties = {
+        "database.limiter.enabled=true",
+        "database.limiter.timeout=PT10S",
+        "spring.datasource.hikari.maximum-pool-size=4"
+})
+// Без транзакции теста: иначе она сама держала бы одно соединение
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ConnectionLimiterTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ConnectionLimiter connectionLimiter;
+
+    @Test
+    void virtualThreadsQueueForPoolSizedPermits() throws Exception {
+        assertThat(connectionLimiter.getLimit()).isEqualTo(4);
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger maxInUse = new AtomicInteger();
+
+        // Потоков в 50 раз больше, чем соединений: все дожидаются очереди, ни один не падает по таймауту пула
+        List<Future<Long>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(() -> {
+                    try (Connection connection = dataSource.getConnection();
+                         Statement statement = connection.createStatement()) {
+                        maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                        Thread.sleep(5);
+                        inUse.decrementAndGet();
+                        try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM users")) {
+                            rs.next();
+                            return rs.getLong(1);
+                        }
+                    }
+                }));
+            }
+        }
+        for (Future<Long> result : results) {
+            assertThat(result.get()).isPositive();
+        }
+        assertThat(maxInUse.get()).isLessThanOrEqualTo(4);
+        assertThat(connectionLimiter.getAvailable()).isEqualTo(4);
+    }
+
+    @Test
+    void rejectsAfterTimeoutAndReleasesPermitOnce() throws Exception {
+        ConnectionLimiter limiter = new ConnectionLimiter(2, Duration.ofMillis(100));
+        DataSource limited = new ConnectionLimitingDataSource(dataSource, limiter);
+
+        Connection first = limited.getConnection();
+        Connection second = limited.getConnection();
+        assertThat(limiter.getAvailable()).isZero();
+        assertThatThrownBy(limited::getConnection).isInstanceOf(ConnectionLimitExceededException.class);
+
+        first.close();
+        first.close();
+        assertThat(limiter.getAvailable()).isEqualTo(1);
+        try (Connection third = limited.getConnection()) {
+            assertThat(third.isValid(1)).isTrue();
+            assertThat(third).isEqualTo(third).isNotEqualTo(second);
+        }
+        second.close();
+        assertThat(limiter.getAvailable()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,141 @@
+package ru.springaio.insuranceprobackend.datasource;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.springaio.insuranceprobackend.repository.UserRepository;
+
+import java.sql.Connection;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Основная БД и реплика — две H2 в памяти с одной схемой. Строка, которая есть только в реплике,
+// показывает, куда ушла транзакция. Отставание реплики задаёт таблица replica_lag в ней самой
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(ReplicationConfig.class)
+@TestPropertySource(properties = {
+        "database.replication.enabled=true",
+        "database.replication.max-lag=PT5S",
+        "database.replication.connection-timeout=PT0.25S",
+        "database.replication.replicas[0].pool-size=1",
+        "database.replication.replicas[0].name=replica-h2",
+        "database.replication.replicas[0].url=" + ReplicationTest.REPLICA_URL,
+        "database.replication.replicas[0].lag-query=SELECT lag_seconds FROM replica_lag"
+})
+// Каждая транзакция теста сама выбирает источник соединения
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicationTest {
+
+    static final String REPLICA_URL =
+            "jdbc:h2:mem:replication-test-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReplicaRouter replicaRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void createReplica() throws Exception {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(replica.getDataSource());
+        liquibase.setChangeLog("classpath:/db/changelog/db.changelog-master.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        replica.update("INSERT INTO users (login, password, full_name, role_code, active) "
+                + "VALUES ('replica-only', 'x', 'Только в реплике', 'AGENT', true)");
+        replica.execute("CREATE TABLE replica_lag (lag_seconds NUMERIC)");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+    }
+
+    @BeforeEach
+    void checkLag() {
+        replicaRouter.checkLag();
+    }
+
+    @AfterEach
+    void resetLag() {
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (lag_seconds NUMERIC)");
+        replica.update("DELETE FROM replica_lag");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+    }
+
+    @Test
+    void onlyReadOnlyTransactionsGoToReplica() {
+        assertThat(readOnly(() -> userRepository.findByLogin("replica-only").isPresent())).isTrue();
+        // Производные запросы репозитория вне транзакции не помечены readOnly и читают основную БД
+        assertThat(userRepository.findByLogin("replica-only")).isEmpty();
+        assertThat(readWrite(() -> userRepository.findByLogin("replica-only").isPresent())).isFalse();
+    }
+
+    @Test
+    void laggingReplicaIsSkippedUntilItCatchesUp() {
+        replica.update("UPDATE replica_lag SET lag_seconds = 60");
+        replicaRouter.checkLag();
+
+        assertThat(replicaRouter.getReplicas().get(0).isAvailable()).isFalse();
+        assertThat(replicaRouter.getReplicas().get(0).getLagSeconds()).isEqualTo(60.0);
+        assertThat(readOnly(() -> userRepository.findByLogin("replica-only").isPresent())).isFalse();
+
+        replica.update("UPDATE replica_lag SET lag_seconds = 1");
+        replicaRouter.checkLag();
+
+        assertThat(replicaRouter.getReplicas().get(0).isAvailable()).isTrue();
+        assertThat(readOnly(() -> userRepository.findByLogin("replica-only").isPresent())).isTrue();
+    }
+
+    @Test
+    void failedLagCheckFallsBackToPrimary() {
+        replica.execute("DROP TABLE replica_lag");
+        replicaRouter.checkLag();
+
+        assertThat(replicaRouter.getReplicas().get(0).isAvailable()).isFalse();
+        assertThat(replicaRouter.getReplicas().get(0).getLagSeconds()).isNaN();
+        assertThat(readOnly(() -> userRepository.findByLogin("replica-only").isPresent())).isFalse();
+    }
+
+    @Test
+    void exhaustedReplicaPoolFallsBackWithoutLeavingRotation() throws Exception {
+        try (Connection held = replicaRouter.getConnection()) {
+            assertThat(held).isNotNull();
+            // Единственное соединение пула занято: запрос уходит на основную БД, реплика остаётся в ротации
+            assertThat(readOnly(() -> userRepository.findByLogin("replica-only").isPresent())).isFalse();
+            assertThat(replicaRouter.getReplicas().get(0).isAvailable()).isTrue();
+        }
+        assertThat(readOnly(() -> userRepository.findByLogin("replica-only").isPresent())).isTrue();
+    }
+
+    private <T> T readOnly(Supplier<T> action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> action.get());
+    }
+
+    private <T> T readWrite(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+}
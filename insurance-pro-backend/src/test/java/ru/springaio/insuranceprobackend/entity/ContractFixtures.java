@@ -0,0 +1,38 @@
+package ru.springaio.insuranceprobackend.entity;
+
+import jakarta.persistence.EntityManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Несохранённый договор для тестов: действует с 2026-01-01 по 2027-01-01, премия 1 000, страховая сумма 100 000.
+// Поля, которые проверяет тест, он задаёт сам после вызова
+public final class ContractFixtures {
+
+    public static final LocalDate START_DATE = LocalDate.of(2026, 1, 1);
+    public static final LocalDate END_DATE = LocalDate.of(2027, 1, 1);
+    public static final BigDecimal PREMIUM = new BigDecimal("1000.00");
+    public static final BigDecimal INSURED_AMOUNT = new BigDecimal("100000.00");
+
+    private ContractFixtures() {
+    }
+
+    public static Contract contract(String contractNumber) {
+        Contract contract = new Contract();
+        contract.setContractNumber(contractNumber);
+        contract.setStartDate(START_DATE);
+        contract.setEndDate(END_DATE);
+        contract.setPremiumAmount(PREMIUM);
+        contract.setInsuredAmount(INSURED_AMOUNT);
+        contract.setCreatedAt(Instant.now());
+        return contract;
+    }
+
+    // Договор вида страхования typeCode с уникальным номером
+    public static Contract contract(EntityManager entityManager, String typeCode) {
+        Contract contract = contract(typeCode + "-" + System.nanoTime());
+        contract.setInsuranceTypeCode(entityManager.getReference(InsuranceType.class, typeCode));
+        return contract;
+    }
+}
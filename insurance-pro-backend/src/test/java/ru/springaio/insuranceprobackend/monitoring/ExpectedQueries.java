@@ -0,0 +1,19 @@
+package ru.springaio.insuranceprobackend.monitoring;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Тест падает, если за время тестового метода к БД было больше max обращений.
+// Считаются запросы через DataSource, обёрнутый QueryCountingConfig (тест должен его подключить через @Import).
+// @BeforeEach не входит в счёт; отложенные вставки Hibernate учитываются, только если тест вызывает flush
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(ExpectedQueriesExtension.class)
+public @interface ExpectedQueries {
+
+    int max();
+}
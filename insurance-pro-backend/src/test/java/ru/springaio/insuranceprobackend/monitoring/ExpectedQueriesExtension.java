@@ -0,0 +1,37 @@
+package ru.springaio.insuranceprobackend.monitoring;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class ExpectedQueriesExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(ExpectedQueriesExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        QueryCounter queryCounter = SpringExtension.getApplicationContext(context).getBean(QueryCounter.class);
+        context.getStore(NAMESPACE).put(QueryCounter.class, queryCounter);
+        context.getStore(NAMESPACE).put(QueryCounter.Queries.class, queryCounter.begin());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryCounter queryCounter = context.getStore(NAMESPACE).remove(QueryCounter.class, QueryCounter.class);
+        QueryCounter.Queries queries = context.getStore(NAMESPACE).remove(QueryCounter.Queries.class, QueryCounter.Queries.class);
+        queryCounter.end();
+
+        int max = context.getRequiredTestMethod().getAnnotation(ExpectedQueries.class).max();
+        if (queries.getTotal() > max && context.getExecutionException().isEmpty()) {
+            String statements = queries.getStatements().entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .map(e -> e.getValue() + " × " + e.getKey())
+                    .collect(Collectors.joining("\n  ", "\n  ", ""));
+            throw new AssertionError("Expected at most " + max + " queries but was " + queries.getTotal() + ":" + statements);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ru.springaio.insuranceprobackend.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.springaio.insuranceprobackend.entity.Client;
+import ru.springaio.insuranceprobackend.entity.Contract;
+import ru.springaio.insuranceprobackend.entity.ContractFixtures;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Поиск клиентов и договоров на H2: ветка без pg_trgm (LIKE по нормализованным колонкам)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class SearchRepositoryTest {
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Test
+    void findsClientsByNameFragmentWithPrefixMatchesFirst() {
+        Client ivanova = clientRepository.save(client("Сидорова Иванна Петровна", "+7 (900) 000-00-01"));
+        Client ivanov = clientRepository.save(client("Иванов Иван Иванович", "+7 (900) 000-00-02"));
+        clientRepository.save(client("Петров Пётр Петрович", "+7 (900) 000-00-03"));
+
+        List<Long> ids = clientRepository.searchIds("ИВАН", null, 10);
+
+        assertThat(ids).containsExactly(ivanov.getId(), ivanova.getId());
+    }
+
+    @Test
+    void findsClientsByPhoneDigitsRegardlessOfFormat() {
+        Client client = clientRepository.save(client("Смирнов Олег", "+7 (916) 555-11-22"));
+        clientRepository.save(client("Кузнецов Павел", "+7 (916) 444-33-22"));
+
+        assertThat(client.getPhoneDigits()).isEqualTo("79165551122");
+        assertThat(clientRepository.searchIds("916 555-11", null, 10)).containsExactly(client.getId());
+        assertThat(clientRepository.findAll(ClientSpecification.hasPhone("916-555-1122")))
+                .extracting(Client::getId).containsExactly(client.getId());
+    }
+
+    @Test
+    void escapesLikeWildcardsInSearchText() {
+        clientRepository.save(client("Андреев Андрей", "+7 (900) 000-00-04"));
+
+        assertThat(clientRepository.searchIds("%", null, 10)).isEmpty();
+        assertThat(clientRepository.searchIds("_", null, 10)).isEmpty();
+    }
+
+    @Test
+    void findsContractsByNumberFragment() {
+        Contract casco = contractRepository.save(ContractFixtures.contract("CASCO-2026-000123"));
+        contractRepository.save(ContractFixtures.contract("OSAGO-2026-000777"));
+
+        assertThat(contractRepository.searchIds("casco-2026", null, 10)).containsExactly(casco.getId());
+        assertThat(contractRepository.findByIdIn(List.of(casco.getId())))
+                .extracting(Contract::getContractNumber).containsExactly("CASCO-2026-000123");
+    }
+
+    private static Client client(String fullName, String phone) {
+        Client client = new Client();
+        client.setFullName(fullName);
+        client.setPhone(phone);
+        client.setRegistrationDate(Instant.now());
+        return client;
+    }
+}
@@ -0,0 +1,89 @@
+package ru.springaio.insuranceprobackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.springaio.insuranceprobackend.dto.ClaimQueueStatsDto;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Нагрузочный прогон очереди убытков: 100 000 синтетических убытков через пул обработчиков.
+// Исключён из обычной сборки (тег load), запуск:
+//   mvn test -Dtest.excludedGroups= -Dgroups=load
+@Slf4j
+@Tag("load")
+@SpringBootTest(properties = {
+        "claims.processing.enabled=true",
+        "claims.processing.workers=8",
+        "claims.processing.batch-size=500",
+        "claims.processing.poll-interval=PT0.05S",
+        "claims.processing.auto-approve-limit=90000"
+})
+@ActiveProfiles("h2")
+class ClaimPipelineLoadTest {
+
+    private static final int CLAIMS = 100_000;
+    private static final Duration TIMEOUT = Duration.ofMinutes(10);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClaimWorkerPool claimWorkerPool;
+
+    @Test
+    void processesEveryClaimExactlyOnce() throws InterruptedException {
+        jdbcTemplate.update("""
+                INSERT INTO contract (contract_number, start_date, end_date, premium_amount, insured_amount, created_at)
+                VALUES ('LOAD-1', DATE '2026-01-01', DATE '2026-12-31', 1000, 100000, CURRENT_TIMESTAMP)
+                """);
+        Long contractId = jdbcTemplate.queryForObject("SELECT id FROM contract WHERE contract_number = 'LOAD-1'", Long.class);
+
+        // Каждый десятый — вне срока договора (отказ), каждый двадцатый — выше лимита (ручное рассмотрение)
+        List<Object[]> rows = new ArrayList<>(CLAIMS);
+        for (int i = 0; i < CLAIMS; i++) {
+            LocalDate incident = i % 10 == 0 ? LocalDate.of(2025, 6, 1) : LocalDate.of(2026, 1 + i % 12, 1 + i % 28);
+            int amount = i % 20 == 1 ? 95_000 : 1_000 + i % 50_000;
+            rows.add(new Object[]{contractId, "LOAD-CLM-" + i, Date.valueOf(incident), amount});
+        }
+        long started = System.nanoTime();
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO insurance_claim (contract_id, claim_number, incident_date, claimed_amount, status_code, created_at)
+                VALUES (?, ?, ?, ?, 'NEW', CURRENT_TIMESTAMP)
+                """, rows);
+
+        long deadline = started + TIMEOUT.toNanos();
+        while (queueDepth() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(200);
+        }
+
+        ClaimQueueStatsDto stats = claimWorkerPool.getStats();
+        log.info("Processed {} claims in {} ms, {} claims/s while busy ({} workers)", stats.getProcessed(),
+                (System.nanoTime() - started) / 1_000_000, Math.round(stats.getThroughputPerSecond()), stats.getWorkers());
+
+        assertThat(queueDepth()).isZero();
+        // Счётчики обработчиков совпадают с числом убытков: ни один не рассмотрен дважды
+        assertThat(stats.getProcessed()).isEqualTo(CLAIMS);
+        assertThat(stats.getRejected()).isEqualTo(CLAIMS / 10);
+        assertThat(stats.getSentToReview()).isEqualTo(CLAIMS / 20);
+        assertThat(stats.getDepthByStatus().get("APPROVED") + stats.getDepthByStatus().get("REJECTED")
+                + stats.getDepthByStatus().get("IN_REVIEW")).isEqualTo(CLAIMS);
+        assertThat(stats.getFailedClaims()).isZero();
+        assertThat(stats.getFailedBatches()).isZero();
+        assertThat(stats.getThroughputPerSecond()).isPositive();
+    }
+
+    private long queueDepth() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM insurance_claim WHERE status_code = 'NEW'", Long.class);
+    }
+}
@@ -0,0 +1,119 @@
+package ru.springaio.insuranceprobackend.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.springaio.insuranceprobackend.entity.ClaimStatus;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+
+// Порции рассматриваются в собственных транзакциях, поэтому тест работает без общей транзакции
+@DataJpaTest(properties = {"claims.processing.batch-size=2", "claims.processing.max-attempts=3"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ClaimProcessor.class, DictionaryRegistry.class})
+class ClaimProcessorTest {
+
+    @Autowired
+    private ClaimProcessor claimProcessor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoSpyBean
+    private DictionaryRegistry dictionaryRegistry;
+
+    private long contractId;
+
+    @BeforeEach
+    void createContract() {
+        jdbcTemplate.update("""
+                INSERT INTO contract (contract_number, start_date, end_date, premium_amount, insured_amount, created_at)
+                VALUES ('CLM-TEST-1', DATE '2026-01-01', DATE '2026-12-31', 1000, 100000, CURRENT_TIMESTAMP)
+                """);
+        contractId = jdbcTemplate.queryForObject("SELECT id FROM contract WHERE contract_number = 'CLM-TEST-1'", Long.class);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM insurance_claim");
+        jdbcTemplate.update("DELETE FROM contract");
+    }
+
+    @Test
+    void payableClaimsGoToReviewWithoutAutoApproveLimit() {
+        claim("CLM-1", LocalDate.of(2026, 3, 1));
+        claim("CLM-2", LocalDate.of(2025, 3, 1));
+
+        ClaimProcessor.BatchResult result = claimProcessor.processNextBatch();
+
+        assertThat(result).isEqualTo(new ClaimProcessor.BatchResult(0, 1, 1, 0));
+        assertThat(claimState("CLM-1")).containsEntry("status_code", "IN_REVIEW").containsEntry("approved_amount", null);
+        assertThat(claimState("CLM-2")).containsEntry("status_code", "REJECTED");
+    }
+
+    @Test
+    void failingClaimIsParkedWithoutStallingQueue() {
+        // Статуса IN_REVIEW «нет в справочнике»: рассмотрение CLM-1 падает, отказы проходят
+        doReturn(null).when(dictionaryRegistry).getClaimStatus("IN_REVIEW");
+        claim("CLM-1", LocalDate.of(2026, 3, 1));
+        claim("CLM-2", LocalDate.of(2025, 3, 1));
+        claim("CLM-3", LocalDate.of(2025, 4, 1));
+
+        assertThat(claimProcessor.processNextBatch()).isEqualTo(new ClaimProcessor.BatchResult(0, 1, 0, 1));
+        assertThat(claimProcessor.processNextBatch()).isEqualTo(new ClaimProcessor.BatchResult(0, 1, 0, 1));
+        assertThat(claimProcessor.processNextBatch()).isEqualTo(new ClaimProcessor.BatchResult(0, 0, 0, 1));
+        // После max-attempts попыток убыток больше не выбирается
+        assertThat(claimProcessor.processNextBatch().total()).isZero();
+
+        assertThat(claimState("CLM-1")).containsEntry("status_code", "NEW").containsEntry("processing_attempts", 3);
+        assertThat(claimState("CLM-3")).containsEntry("status_code", "REJECTED");
+    }
+
+    @Test
+    void batchRejectedByDatabaseIsRetriedClaimByClaim() {
+        // Несуществующий код статуса нарушает внешний ключ при фиксации всей порции
+        doAnswer(invocation -> entityManager.getReference(ClaimStatus.class, "UNKNOWN"))
+                .when(dictionaryRegistry).getClaimStatus("IN_REVIEW");
+        claim("CLM-1", LocalDate.of(2026, 3, 1));
+        claim("CLM-2", LocalDate.of(2025, 3, 1));
+
+        assertThat(claimProcessor.processNextBatch()).isEqualTo(new ClaimProcessor.BatchResult(0, 1, 0, 1));
+
+        assertThat(claimState("CLM-1")).containsEntry("status_code", "NEW").containsEntry("processing_attempts", 1);
+        assertThat(claimState("CLM-2")).containsEntry("status_code", "REJECTED");
+    }
+
+    private void claim(String number, LocalDate incidentDate) {
+        jdbcTemplate.update("""
+                INSERT INTO insurance_claim (contract_id, claim_number, incident_date, claimed_amount, status_code, created_at)
+                VALUES (?, ?, ?, 5000, 'NEW', CURRENT_TIMESTAMP)
+                """, contractId, number, Date.valueOf(incidentDate));
+    }
+
+    private Map<String, Object> claimState(String number) {
+        return jdbcTemplate.queryForMap(
+                "SELECT status_code, approved_amount, processing_attempts FROM insurance_claim WHERE claim_number = ?",
+                number);
+    }
+}
@@ -0,0 +1,102 @@
+package ru.springaio.insuranceprobackend.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.springaio.insuranceprobackend.dto.ClientDto;
+import ru.springaio.insuranceprobackend.entity.Client;
+import ru.springaio.insuranceprobackend.entity.Contract;
+import ru.springaio.insuranceprobackend.entity.ContractFixtures;
+import ru.springaio.insuranceprobackend.entity.User;
+import ru.springaio.insuranceprobackend.entity.UserRole;
+import ru.springaio.insuranceprobackend.mapper.ClientMapper;
+import ru.springaio.insuranceprobackend.monitoring.ExpectedQueries;
+import ru.springaio.insuranceprobackend.monitoring.QueryCountingConfig;
+import ru.springaio.insuranceprobackend.security.SecurityUtils;
+import ru.springaio.insuranceprobackend.security.UserPrincipal;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+// Число обращений к БД в методах клиентов не зависит от числа строк
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({QueryCountingConfig.class, ClientServiceImpl.class, ClientMapper.class, StatisticsAggregator.class})
+class ClientServiceQueriesTest {
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private SecurityUtils securityUtils;
+
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        when(securityUtils.getCurrentUser()).thenReturn(new UserPrincipal(1L, "manager", "", "Менеджер", "MANAGER", true));
+        for (int i = 0; i < 5; i++) {
+            client = client(agent("agent-" + i));
+        }
+        contract(client);
+        contract(client);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @ExpectedQueries(max = 1)
+    void loadsPageWithAgentsInOneQuery() {
+        Page<ClientDto> page = clientService.findAll(null, null, null, PageRequest.of(0, 20));
+
+        assertThat(page.getContent()).hasSize(5)
+                .allSatisfy(dto -> assertThat(dto.getAgentFullName()).startsWith("agent-"));
+    }
+
+    @Test
+    @ExpectedQueries(max = 2)
+    void rejectsDeletingClientWithContractsWithoutLoadingThem() {
+        assertThatThrownBy(() -> clientService.delete(client.getId()))
+                .hasMessage("Cannot delete client with active contracts");
+    }
+
+    private User agent(String login) {
+        User agent = new User();
+        agent.setLogin(login);
+        agent.setPassword("");
+        agent.setFullName(login);
+        agent.setRoleCode(entityManager.getReference(UserRole.class, "AGENT"));
+        agent.setActive(true);
+        entityManager.persist(agent);
+        return agent;
+    }
+
+    private Client client(User agent) {
+        Client client = new Client();
+        client.setFullName("Клиент " + agent.getLogin());
+        client.setPhone("+7900" + System.nanoTime() % 10_000_000);
+        client.setAgent(agent);
+        entityManager.persist(client);
+        return client;
+    }
+
+    private void contract(Client client) {
+        Contract contract = ContractFixtures.contract(entityManager, "CASCO");
+        contract.setClient(client);
+        entityManager.persist(contract);
+    }
+}
@@ -0,0 +1,205 @@
+package ru.springaio.insuranceprobackend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.springaio.insuranceprobackend.dto.ContractImportResultDto;
+import ru.springaio.insuranceprobackend.dto.ImportRowErrorDto;
+import ru.springaio.insuranceprobackend.security.SecurityUtils;
+import ru.springaio.insuranceprobackend.security.UserPrincipal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+// Порции сохраняются в собственных транзакциях, поэтому тест работает без общей транзакции
+@DataJpaTest(properties = "contracts.import.chunk-size=3")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ContractImportService.class, ContractExporter.class, StatisticsAggregator.class, DictionaryRegistry.class,
+        DocumentNumberGenerator.class, JacksonAutoConfiguration.class})
+class ContractImportServiceTest {
+
+    private static final String HEADER = "contractNumber,insuranceTypeCode,statusCode,startDate,endDate,premiumAmount,insuredAmount";
+    private static final String TAIL = ",OSAGO,ACTIVE,2026-01-01,2027-01-01,1000.00,100000.00";
+
+    @Autowired
+    private ContractImportService contractImportService;
+
+    @Autowired
+    private ContractExporter contractExporter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private SecurityUtils securityUtils;
+
+    private long agentId;
+
+    @BeforeEach
+    void createAgent() {
+        jdbcTemplate.update("INSERT INTO users (login, password, full_name, role_code, active) "
+                + "VALUES ('import-agent', 'x', 'Агент Импорта', 'AGENT', true)");
+        agentId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE login = 'import-agent'", Long.class);
+        when(securityUtils.getCurrentUser())
+                .thenReturn(new UserPrincipal(agentId, "import-agent", "", "Агент Импорта", "AGENT", true));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM contract");
+        jdbcTemplate.update("DELETE FROM client");
+        jdbcTemplate.update("DELETE FROM contract_stats_daily");
+        jdbcTemplate.update("DELETE FROM client_stats_daily");
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", agentId);
+    }
+
+    @Test
+    void quotedFieldsMayContainDelimiterQuotesAndLineBreaks() {
+        ContractImportResultDto result = importCsv(HEADER + "\r\n"
+                + "\"IMP,1\"" + TAIL + "\r\n"
+                + "\"IMP \"\"2\"\"\"" + TAIL + "\r\n"
+                + "\"IMP\n3\"" + TAIL + "\r\n"
+                + "IMP-4,OSAGO,ACTIVE,2026-01-01,2026-01-01,1000.00,100000.00\r\n");
+
+        assertThat(result.getTotalRows()).isEqualTo(4);
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(contractNumbers()).containsExactlyInAnyOrder("IMP,1", "IMP \"2\"", "IMP\n3");
+        // Запись в кавычках заняла строки 4–5, поэтому следующая начинается на строке 6
+        assertThat(result.getErrors()).containsExactly(new ImportRowErrorDto(6, "End date must be after start date"));
+    }
+
+    @Test
+    void semicolonHeaderAfterBomSelectsDelimiter() {
+        ContractImportResultDto result = importCsv("\uFEFF" + HEADER.replace(',', ';') + "\n"
+                + "IMP,5;CASCO;DRAFT;2026-02-01;2027-02-01;2500.50;500000\n");
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).isEmpty();
+        Map<String, Object> contract = jdbcTemplate.queryForMap(
+                "SELECT contract_number, insurance_type_code, status_code, premium_amount FROM contract");
+        assertThat(contract).containsEntry("contract_number", "IMP,5")
+                .containsEntry("insurance_type_code", "CASCO")
+                .containsEntry("status_code", "DRAFT");
+        assertThat(contract.get("premium_amount").toString()).isEqualTo("2500.50");
+    }
+
+    @Test
+    void malformedRecordsAreReportedByStartLine() {
+        ContractImportResultDto result = importCsv(HEADER + "\n"
+                + "IMP-6,OSAGO,ACTIVE\n"
+                + "IMP-7" + TAIL + "\n"
+                + "\"IMP-8" + TAIL + "\n"
+                + "IMP-9" + TAIL + "\n");
+
+        assertThat(result.getTotalRows()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(2);
+        // Незакрытая кавычка поглощает файл до конца: IMP-9 оказывается внутри поля
+        assertThat(result.getErrors()).containsExactly(
+                new ImportRowErrorDto(2, "Expected 7 fields but found 3"),
+                new ImportRowErrorDto(4, "Unterminated quoted field"));
+        assertThat(contractNumbers()).containsExactly("IMP-7");
+    }
+
+    @Test
+    void duplicateNumberFailsOnlyItsRow() {
+        ContractImportResultDto result = importCsv(HEADER + "\n"
+                + "DUP-1" + TAIL + "\n"
+                + "DUP-2" + TAIL + "\n"
+                + "DUP-1" + TAIL + "\n"
+                + "DUP-3" + TAIL + "\n");
+
+        // Первая порция из трёх строк откатывается целиком и повторяется по строке, вторая сохраняется сразу
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(4);
+            assertThat(error.getMessage()).startsWith("Constraint violation");
+        });
+        assertThat(contractNumbers()).containsExactlyInAnyOrder("DUP-1", "DUP-2", "DUP-3");
+        // Откаченная порция не попала в статистику
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(contract_count) FROM contract_stats_daily", Long.class))
+                .isEqualTo(3);
+    }
+
+    @Test
+    void errorReportIsCapped() {
+        StringBuilder csv = new StringBuilder(HEADER).append('\n');
+        for (int i = 0; i < 1005; i++) {
+            csv.append("BAD-").append(i).append('\n');
+        }
+
+        ContractImportResultDto result = importCsv(csv.toString());
+
+        assertThat(result.getTotalRows()).isEqualTo(1005);
+        assertThat(result.getFailed()).isEqualTo(1005);
+        assertThat(result.getErrors()).hasSize(1000);
+        assertThat(result.getErrors().get(999).getLine()).isEqualTo(1001);
+        assertThat(result.isErrorsTruncated()).isTrue();
+    }
+
+    @Test
+    void exportedCsvImportsBack() throws Exception {
+        jdbcTemplate.update("INSERT INTO client (full_name, phone, agent_id) VALUES ('Иванов, \"Иван\"', '+79000000001', ?)",
+                agentId);
+        long clientId = jdbcTemplate.queryForObject("SELECT id FROM client", Long.class);
+        jdbcTemplate.update("""
+                INSERT INTO contract (contract_number, client_id, agent_id, insurance_type_code, status_code,
+                                      start_date, end_date, premium_amount, insured_amount, created_at)
+                VALUES ('EXP-1', ?, ?, 'CASCO', 'ACTIVE', DATE '2026-01-01', DATE '2027-01-01', 45000.00, 1000000.00, CURRENT_TIMESTAMP),
+                       ('EXP "2"', ?, ?, 'LIFE', 'DRAFT', DATE '2026-03-15', DATE '2036-03-15', 1200.50, 300000.00, CURRENT_TIMESTAMP)
+                """, clientId, agentId, clientId, agentId);
+        String columns = "SELECT contract_number, client_id, insurance_type_code, status_code, start_date, end_date, "
+                + "premium_amount, insured_amount FROM contract ORDER BY contract_number";
+        List<Map<String, Object>> exported = jdbcTemplate.queryForList(columns);
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try {
+                contractExporter.write((root, query, cb) -> null, ContractExporter.Format.CSV, csv);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        jdbcTemplate.update("DELETE FROM contract");
+
+        ContractImportResultDto result = contractImportService.importCsv(new ByteArrayInputStream(csv.toByteArray()));
+
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList(columns)).isEqualTo(exported);
+    }
+
+    private ContractImportResultDto importCsv(String csv) {
+        return contractImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private List<String> contractNumbers() {
+        return jdbcTemplate.queryForList("SELECT contract_number FROM contract", String.class);
+    }
+}
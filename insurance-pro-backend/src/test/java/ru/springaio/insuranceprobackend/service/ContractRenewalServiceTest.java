@@ -0,0 +1,167 @@
+package ru.springaio.insuranceprobackend.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.springaio.insuranceprobackend.dto.RenewalReportDto;
+import ru.springaio.insuranceprobackend.entity.CascoDatum;
+import ru.springaio.insuranceprobackend.entity.Contract;
+import ru.springaio.insuranceprobackend.entity.ContractFixtures;
+import ru.springaio.insuranceprobackend.entity.ContractStatus;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+// Разделы обрабатываются в собственных транзакциях на потоках пула, поэтому тест работает без общей транзакции
+@DataJpaTest(properties = {"renewals.partition-size=2", "renewals.max-attempts=2"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ContractRenewalService.class, TariffEngine.class, StatisticsAggregator.class, DictionaryRegistry.class,
+        DocumentNumberGenerator.class})
+class ContractRenewalServiceTest {
+
+    private static final LocalDate RUN_DATE = LocalDate.of(2026, 12, 15);
+
+    @Autowired
+    private ContractRenewalService contractRenewalService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoSpyBean
+    private TariffEngine tariffEngine;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM renewal_run");
+        jdbcTemplate.update("DELETE FROM contract");
+        jdbcTemplate.update("DELETE FROM contract_stats_daily");
+    }
+
+    @Test
+    void createsDraftsForExpiringContractsOnce() {
+        long casco = contract("CASCO", "ACTIVE", LocalDate.of(2027, 1, 1), new BigDecimal("1000000.00"));
+        long osago = contract("OSAGO", "ACTIVE", LocalDate.of(2027, 1, 10), null);
+        contract("OSAGO", "ACTIVE", LocalDate.of(2027, 6, 1), null);
+        contract("OSAGO", "TERMINATED", LocalDate.of(2027, 1, 1), null);
+
+        RenewalReportDto report = contractRenewalService.renew(RUN_DATE);
+
+        assertThat(report.isCompleted()).isTrue();
+        assertThat(report.getRenewed()).isEqualTo(2);
+        Map<String, Object> draft = renewalOf(casco);
+        assertThat(draft.get("status_code")).isEqualTo("DRAFT");
+        assertThat(draft.get("start_date").toString()).isEqualTo("2027-01-02");
+        assertThat(draft.get("end_date").toString()).isEqualTo("2028-01-02");
+        // Премия по тарифу на начало нового периода: 1 000 000 × 0.045 × 1.1 (автомобилю 6 лет)
+        assertThat((BigDecimal) draft.get("premium_amount")).isEqualByComparingTo("49500.00");
+        assertThat(jdbcTemplate.queryForObject("SELECT vehicle_model FROM casco_data WHERE contract_id = ?",
+                String.class, draft.get("id"))).isEqualTo("Kia Rio");
+        // Для ОСАГО без данных продукта премия переносится
+        assertThat((BigDecimal) renewalOf(osago).get("premium_amount")).isEqualByComparingTo("1000.00");
+
+        assertThat(contractRenewalService.renew(RUN_DATE).getRenewed()).isZero();
+    }
+
+    @Test
+    void resumesUnfinishedRunFromPendingPartitions() {
+        long first = contract("OSAGO", "ACTIVE", LocalDate.of(2027, 1, 1), null);
+        long second = contract("OSAGO", "ACTIVE", LocalDate.of(2027, 1, 1), null);
+        // Прогон прервался после первого раздела
+        jdbcTemplate.update("INSERT INTO renewal_run (id, run_date, horizon_date, status, started_at) VALUES (100, ?, ?, 'RUNNING', ?)",
+                RUN_DATE, RUN_DATE.plusDays(30), Timestamp.from(Instant.now()));
+        jdbcTemplate.update("INSERT INTO renewal_partition (run_id, from_id, to_id, done) VALUES (100, ?, ?, TRUE)", first, first + 1);
+        jdbcTemplate.update("INSERT INTO renewal_partition (run_id, from_id, to_id, done) VALUES (100, ?, ?, FALSE)", second, second + 1);
+
+        RenewalReportDto report = contractRenewalService.renew(LocalDate.of(2026, 1, 1));
+
+        assertThat(report.isResumed()).isTrue();
+        assertThat(report.getRunId()).isEqualTo(100);
+        assertThat(report.getRunDate()).isEqualTo(RUN_DATE);
+        assertThat(report.getPartitionsProcessed()).isEqualTo(1);
+        assertThat(report.getRenewed()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contract_renewal WHERE source_contract_id = ?",
+                Integer.class, first)).isZero();
+        assertThat(renewalOf(second)).isNotNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM renewal_run WHERE id = 100", String.class))
+                .isEqualTo(ContractRenewalService.COMPLETED);
+    }
+
+    @Test
+    void runWithExhaustedPartitionFailsAndNextRunStartsForNewDate() {
+        contract("OSAGO", "ACTIVE", LocalDate.of(2027, 1, 1), null);
+        contract("OSAGO", "ACTIVE", LocalDate.of(2027, 1, 1), null);
+        long casco = contract("CASCO", "ACTIVE", LocalDate.of(2027, 1, 1), new BigDecimal("1000000.00"));
+        doThrow(new IllegalStateException("Тариф КАСКО недоступен")).when(tariffEngine).hasTariff("CASCO");
+
+        RenewalReportDto first = contractRenewalService.renew(RUN_DATE);
+        assertThat(first.getStatus()).isEqualTo(ContractRenewalService.RUNNING);
+        assertThat(first.getRenewed()).isEqualTo(2);
+        assertThat(first.getPartitionsFailed()).isEqualTo(1);
+
+        // Вторая попытка раздела исчерпывает лимит: прогон закрывается, а не остаётся RUNNING навсегда
+        RenewalReportDto second = contractRenewalService.renew(RUN_DATE.plusDays(1));
+        assertThat(second.isResumed()).isTrue();
+        assertThat(second.getRunId()).isEqualTo(first.getRunId());
+        assertThat(second.getStatus()).isEqualTo(ContractRenewalService.FAILED);
+
+        reset(tariffEngine);
+        RenewalReportDto third = contractRenewalService.renew(RUN_DATE.plusDays(1));
+        assertThat(third.isResumed()).isFalse();
+        assertThat(third.getRunDate()).isEqualTo(RUN_DATE.plusDays(1));
+        assertThat(third.isCompleted()).isTrue();
+        assertThat(third.getRenewed()).isEqualTo(1);
+        assertThat(renewalOf(casco)).isNotNull();
+    }
+
+    private Map<String, Object> renewalOf(long contractId) {
+        return jdbcTemplate.queryForMap("""
+                SELECT c.* FROM contract c JOIN contract_renewal r ON r.renewal_contract_id = c.id
+                WHERE r.source_contract_id = ?
+                """, contractId);
+    }
+
+    private long contract(String typeCode, String statusCode, LocalDate endDate, BigDecimal vehicleCost) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Contract contract = ContractFixtures.contract(entityManager, typeCode);
+            contract.setStatusCode(entityManager.getReference(ContractStatus.class, statusCode));
+            contract.setStartDate(endDate.minusYears(1));
+            contract.setEndDate(endDate);
+            entityManager.persist(contract);
+            if (vehicleCost != null) {
+                CascoDatum datum = new CascoDatum();
+                datum.setContract(contract);
+                datum.setVehicleModel("Kia Rio");
+                datum.setVehicleCost(vehicleCost);
+                datum.setManufactureYear(2021);
+                entityManager.persist(datum);
+            }
+            return contract.getId();
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package ru.springaio.insuranceprobackend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(DocumentNumberGenerator.class)
+class DocumentNumberGeneratorTest {
+
+    @Autowired
+    private DocumentNumberGenerator documentNumberGenerator;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void formatsNumbersByInsuranceTypeAndYear() {
+        int year = LocalDate.now().getYear();
+
+        assertThat(documentNumberGenerator.nextContractNumber("CASCO")).matches("CASCO-" + year + "-\\d{6}");
+        assertThat(documentNumberGenerator.nextContractNumber(null)).startsWith("INS-" + year + "-");
+        assertThat(documentNumberGenerator.nextClaimNumber()).matches("CLM-" + year + "-\\d{6}");
+        assertThat(DocumentNumberGenerator.format("OSAGO", 1234567)).isEqualTo("OSAGO-" + year + "-1234567");
+    }
+
+    @Test
+    void instancesSharingSequenceNeverIssueSameNumber() throws Exception {
+        // Два генератора — как два экземпляра приложения над одной БД
+        List<DocumentNumberGenerator> nodes = List.of(documentNumberGenerator,
+                new DocumentNumberGenerator(dataSource, entityManagerFactory));
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        int perThread = 5 * DocumentNumberGenerator.BLOCK_SIZE;
+
+        // Виртуальные потоки, как у запросов при spring.threads.virtual.enabled
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                DocumentNumberGenerator node = nodes.get(t % 2);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        issued.add(node.nextContractNumber("CASCO"));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(issued).hasSize(8 * perThread);
+    }
+}
@@ -0,0 +1,131 @@
+package ru.springaio.insuranceprobackend.service;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.springaio.insuranceprobackend.dto.CascoDetailsDto;
+import ru.springaio.insuranceprobackend.dto.OsagoDetailsDto;
+import ru.springaio.insuranceprobackend.dto.ProductDetailsDto;
+import ru.springaio.insuranceprobackend.entity.CascoDatum;
+import ru.springaio.insuranceprobackend.entity.Contract;
+import ru.springaio.insuranceprobackend.entity.ContractFixtures;
+import ru.springaio.insuranceprobackend.entity.OsagoDatum;
+import ru.springaio.insuranceprobackend.mapper.ProductDetailsMapper;
+import ru.springaio.insuranceprobackend.repository.ContractRepository;
+import ru.springaio.insuranceprobackend.security.SecurityUtils;
+import ru.springaio.insuranceprobackend.security.UserPrincipal;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+// Данные продукта загружаются из одной таблицы по виду страхования, а обычное чтение договора их не трогает
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({ProductDetailsService.class, ProductDetailsMapper.class})
+class ProductDetailsServiceTest {
+
+    @Autowired
+    private ProductDetailsService productDetailsService;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private SecurityUtils securityUtils;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        when(securityUtils.getCurrentUser()).thenReturn(new UserPrincipal(1L, "manager", "", "Менеджер", "MANAGER", true));
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void loadingContractDoesNotQueryProductTables() {
+        Contract contract = contract("CASCO");
+        casco(contract, "Kia Rio");
+        resetSession();
+
+        assertThat(contractRepository.findById(contract.getId())).isPresent();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void loadsDetailsFromTableMatchingInsuranceType() {
+        Contract contract = contract("CASCO");
+        casco(contract, "Kia Rio");
+        resetSession();
+
+        ProductDetailsDto details = productDetailsService.findByContract(contract.getId());
+
+        assertThat(details).isInstanceOfSatisfying(CascoDetailsDto.class,
+                casco -> assertThat(casco.getVehicleModel()).isEqualTo("Kia Rio"));
+        assertThat(details.getContractId()).isEqualTo(contract.getId());
+        // Договор и одна таблица данных продукта
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void loadsPageOfDetailsWithOneQueryPerInsuranceType() {
+        Contract first = contract("CASCO");
+        Contract osago = contract("OSAGO");
+        Contract second = contract("CASCO");
+        Contract life = contract("LIFE");
+        casco(first, "Kia Rio");
+        osago(osago, "А123ВС77");
+        casco(second, "Lada Vesta");
+        resetSession();
+
+        List<ProductDetailsDto> details = productDetailsService.findByContracts(
+                List.of(second.getId(), life.getId(), osago.getId(), first.getId()));
+
+        assertThat(details).extracting(ProductDetailsDto::getContractId)
+                .containsExactly(second.getId(), osago.getId(), first.getId());
+        assertThat(details.get(1)).isInstanceOf(OsagoDetailsDto.class);
+        // Договоры, КАСКО и ОСАГО; для договора страхования жизни без данных запрос к life_insurance_data тоже идёт
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    private void resetSession() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private Contract contract(String typeCode) {
+        return contractRepository.save(ContractFixtures.contract(entityManager, typeCode));
+    }
+
+    private void casco(Contract contract, String vehicleModel) {
+        CascoDatum datum = new CascoDatum();
+        datum.setContract(contract);
+        datum.setVehicleModel(vehicleModel);
+        datum.setVehicleCost(new BigDecimal("1500000.00"));
+        entityManager.persist(datum);
+    }
+
+    private void osago(Contract contract, String licensePlate) {
+        OsagoDatum datum = new OsagoDatum();
+        datum.setContract(contract);
+        datum.setLicensePlate(licensePlate);
+        datum.setVehicleModel("Kia Rio");
+        entityManager.persist(datum);
+    }
+}
@@ -0,0 +1,187 @@
+package ru.springaio.insuranceprobackend.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.springaio.insuranceprobackend.dto.StatisticsConsistencyDto;
+import ru.springaio.insuranceprobackend.entity.Client;
+import ru.springaio.insuranceprobackend.entity.Contract;
+import ru.springaio.insuranceprobackend.entity.ContractFixtures;
+import ru.springaio.insuranceprobackend.entity.InsuranceType;
+import ru.springaio.insuranceprobackend.entity.User;
+import ru.springaio.insuranceprobackend.security.SecurityUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Каждое изменение — отдельная транзакция, как в ContractServiceImpl и ClientServiceImpl;
+// сверка читает живые данные в потоках StatisticsQueryExecutor, поэтому тест работает без общей транзакции
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StatisticsAggregator.class, StatisticsService.class, StatisticsQueryExecutor.class})
+class StatisticsAggregatorTest {
+
+    // Пересчёт не создаёт пустых корзин, которые остаются после удалений, поэтому сравниваются непустые
+    private static final String CONTRACT_BUCKETS = """
+            SELECT agent_id, insurance_type_code, stat_date, contract_count, premium_sum FROM contract_stats_daily
+            WHERE contract_count <> 0 ORDER BY agent_id, insurance_type_code, stat_date
+            """;
+    private static final String CLIENT_BUCKETS = """
+            SELECT agent_id, stat_date, client_count FROM client_stats_daily
+            WHERE client_count <> 0 ORDER BY agent_id, stat_date
+            """;
+
+    @Autowired
+    private StatisticsAggregator statisticsAggregator;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private SecurityUtils securityUtils;
+
+    private long firstAgent;
+    private long secondAgent;
+
+    @BeforeEach
+    void createAgents() {
+        firstAgent = agent("stats-agent-1");
+        secondAgent = agent("stats-agent-2");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM contract");
+        jdbcTemplate.update("DELETE FROM client");
+        jdbcTemplate.update("DELETE FROM contract_stats_daily");
+        jdbcTemplate.update("DELETE FROM client_stats_daily");
+        jdbcTemplate.update("DELETE FROM users WHERE login LIKE 'stats-agent-%'");
+    }
+
+    @Test
+    void incrementalUpdatesMatchRebuild() {
+        long client = inTransaction(() -> {
+            Client saved = client(firstAgent, "+79000000011");
+            statisticsAggregator.clientAdded(saved);
+            return saved.getId();
+        });
+        long changed = inTransaction(() -> {
+            Contract saved = contract(firstAgent, "CASCO", new BigDecimal("45000.00"), Instant.now());
+            statisticsAggregator.contractAdded(saved);
+            return saved.getId();
+        });
+        long removed = inTransaction(() -> {
+            Contract saved = contract(secondAgent, "OSAGO", new BigDecimal("7000.00"), Instant.now());
+            statisticsAggregator.contractAdded(saved);
+            return saved.getId();
+        });
+
+        // Изменение вида и премии переносит договор в другую корзину
+        inTransaction(() -> {
+            Contract contract = entityManager.find(Contract.class, changed);
+            StatisticsAggregator.ContractContribution before = statisticsAggregator.contributionOf(contract);
+            contract.setInsuranceTypeCode(entityManager.getReference(InsuranceType.class, "LIFE"));
+            contract.setPremiumAmount(new BigDecimal("1200.50"));
+            entityManager.flush();
+            statisticsAggregator.contractChanged(before, contract);
+            return null;
+        });
+        inTransaction(() -> {
+            Contract contract = entityManager.find(Contract.class, removed);
+            statisticsAggregator.contractRemoved(contract);
+            entityManager.remove(contract);
+            return null;
+        });
+        // Пакет импорта: два договора в одной корзине, третий — днём раньше
+        inTransaction(() -> {
+            List<Contract> batch = List.of(
+                    contract(secondAgent, "PROPERTY", new BigDecimal("3000.00"), Instant.now()),
+                    contract(secondAgent, "PROPERTY", new BigDecimal("4500.00"), Instant.now()),
+                    contract(secondAgent, "PROPERTY", new BigDecimal("5000.00"), Instant.now().minus(Duration.ofDays(1))));
+            entityManager.flush();
+            statisticsAggregator.contractsAdded(batch);
+            return null;
+        });
+        inTransaction(() -> {
+            statisticsAggregator.clientAdded(client(secondAgent, "+79000000012"));
+            return null;
+        });
+        inTransaction(() -> {
+            Client saved = entityManager.find(Client.class, client);
+            statisticsAggregator.clientRemoved(saved);
+            entityManager.remove(saved);
+            return null;
+        });
+
+        StatisticsConsistencyDto consistency = statisticsService.checkConsistency(null, null);
+        assertThat(consistency.getMismatches()).isEmpty();
+        assertThat(consistency.isConsistent()).isTrue();
+
+        List<Map<String, Object>> contractBuckets = jdbcTemplate.queryForList(CONTRACT_BUCKETS);
+        List<Map<String, Object>> clientBuckets = jdbcTemplate.queryForList(CLIENT_BUCKETS);
+        assertThat(contractBuckets).hasSize(3);
+        assertThat(clientBuckets).hasSize(1);
+
+        statisticsAggregator.rebuild();
+
+        assertThat(jdbcTemplate.queryForList(CONTRACT_BUCKETS)).isEqualTo(contractBuckets);
+        assertThat(jdbcTemplate.queryForList(CLIENT_BUCKETS)).isEqualTo(clientBuckets);
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return transactionTemplate.execute(status -> action.get());
+    }
+
+    private long agent(String login) {
+        jdbcTemplate.update("INSERT INTO users (login, password, full_name, role_code, active) VALUES (?, 'x', ?, 'AGENT', true)",
+                login, login);
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE login = ?", Long.class, login);
+    }
+
+    private Client client(long agentId, String phone) {
+        Client client = new Client();
+        client.setFullName("Клиент " + phone);
+        client.setPhone(phone);
+        client.setRegistrationDate(Instant.now());
+        client.setAgent(entityManager.getReference(User.class, agentId));
+        entityManager.persist(client);
+        return client;
+    }
+
+    private Contract contract(long agentId, String typeCode, BigDecimal premium, Instant createdAt) {
+        Contract contract = ContractFixtures.contract(entityManager, typeCode);
+        contract.setAgent(entityManager.getReference(User.class, agentId));
+        contract.setPremiumAmount(premium);
+        contract.setCreatedAt(createdAt);
+        entityManager.persist(contract);
+        return contract;
+    }
+}
@@ -0,0 +1,118 @@
+package ru.springaio.insuranceprobackend.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import ru.springaio.insuranceprobackend.dto.QuoteDto;
+import ru.springaio.insuranceprobackend.dto.QuoteRequestDto;
+import ru.springaio.insuranceprobackend.dto.RepricingReportDto;
+import ru.springaio.insuranceprobackend.entity.CascoDatum;
+import ru.springaio.insuranceprobackend.entity.Contract;
+import ru.springaio.insuranceprobackend.entity.ContractFixtures;
+import ru.springaio.insuranceprobackend.entity.LifeInsuranceDatum;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Премии по тарифам из changelog tariffs.xml
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({TariffEngine.class, PortfolioRepricingService.class, StatisticsAggregator.class})
+class TariffEngineTest {
+
+    @Autowired
+    private TariffEngine tariffEngine;
+
+    @Autowired
+    private PortfolioRepricingService portfolioRepricingService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void cascoPremiumAppliesVehicleAgeAndFranchiseScales() {
+        QuoteRequestDto request = new QuoteRequestDto();
+        request.setInsuranceTypeCode("CASCO");
+        request.setVehicleCost(new BigDecimal("2000000"));
+        request.setManufactureYear(2020);
+        request.setFranchiseAmount(new BigDecimal("40000"));
+        request.setStartDate(LocalDate.of(2026, 1, 1));
+        request.setEndDate(LocalDate.of(2027, 1, 1));
+
+        QuoteDto quote = tariffEngine.quote(request);
+
+        // 2 000 000 × 0.045 × 1.1 (6 лет) × 0.9 (франшиза 2%)
+        assertThat(quote.getPremiumAmount()).isEqualByComparingTo("89100.00");
+    }
+
+    @Test
+    void lifePremiumUsesAgeAtStartAndHealthCategory() {
+        QuoteRequestDto request = new QuoteRequestDto();
+        request.setInsuranceTypeCode("LIFE");
+        request.setInsuredAmount(new BigDecimal("1000000"));
+        request.setBirthDate(LocalDate.of(1980, 6, 1));
+        request.setHealthStatus(" poor ");
+        request.setStartDate(LocalDate.of(2026, 1, 1));
+        request.setEndDate(LocalDate.of(2026, 7, 2));
+
+        QuoteDto quote = tariffEngine.quote(request);
+
+        // 1 000 000 × 0.006 × 1.4 (45 лет) × 1.6 × 182/365
+        assertThat(quote.getPremiumAmount()).isEqualByComparingTo("6701.59");
+    }
+
+    @Test
+    void unknownFactorValuesDoNotChangePremium() {
+        QuoteRequestDto request = new QuoteRequestDto();
+        request.setInsuranceTypeCode("PROPERTY");
+        request.setCost(new BigDecimal("5000000"));
+
+        assertThat(tariffEngine.quote(request).getPremiumAmount()).isEqualByComparingTo("12500.00");
+    }
+
+    @Test
+    void repricingUpdatesOnlyContractsWithProductData() {
+        Contract casco = contract("CASCO");
+        CascoDatum datum = new CascoDatum();
+        datum.setContract(casco);
+        datum.setVehicleModel("Kia Rio");
+        datum.setVehicleCost(new BigDecimal("1000000.00"));
+        datum.setManufactureYear(2025);
+        entityManager.persist(datum);
+        Contract life = contract("LIFE");
+        LifeInsuranceDatum lifeDatum = new LifeInsuranceDatum();
+        lifeDatum.setContract(life);
+        lifeDatum.setBirthDate(LocalDate.of(1990, 1, 1));
+        entityManager.persist(lifeDatum);
+        contract("OSAGO");
+        entityManager.flush();
+        entityManager.clear();
+
+        RepricingReportDto dryRun = portfolioRepricingService.reprice(false);
+        assertThat(dryRun.getPriced()).isEqualTo(2);
+        assertThat(dryRun.getChanged()).isEqualTo(2);
+        assertThat(dryRun.getUnpriced()).isEqualTo(1);
+        assertThat(entityManager.find(Contract.class, casco.getId()).getPremiumAmount()).isEqualByComparingTo("1000.00");
+        entityManager.clear();
+
+        RepricingReportDto applied = portfolioRepricingService.reprice(true);
+        // 1 000 000 × 0.045 × 1.0 (1 год); 100 000 × 0.006 × 1.0 (36 лет)
+        assertThat(applied.getPremiumAfter()).isEqualByComparingTo("45600.00");
+        assertThat(entityManager.find(Contract.class, casco.getId()).getPremiumAmount()).isEqualByComparingTo("45000.00");
+        assertThat(entityManager.find(Contract.class, life.getId()).getPremiumAmount()).isEqualByComparingTo("600.00");
+        assertThat(portfolioRepricingService.reprice(false).getChanged()).isZero();
+    }
+
+    private Contract contract(String typeCode) {
+        Contract contract = ContractFixtures.contract(entityManager, typeCode);
+        entityManager.persist(contract);
+        return contract;
+    }
+}
@@ -0,0 +1,82 @@
+package ru.springaio.insuranceprobackend.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Сравнивает два результата JMH (-rf json), например до и после коммита.
+// Ухудшение больше порога, не перекрываемое погрешностью измерений, считается регрессией:
+// процесс завершается с кодом 1, и сборка с профилем jmh-compare падает.
+// Аргументы: baseline.json current.json [порог в процентах, по умолчанию 10]
+public class JmhResultComparison {
+
+    record Score(String mode, double score, double error, String unit) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: JmhResultComparison <baseline.json> <current.json> [threshold %]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score after = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null || !before.unit().equals(after.unit())) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", entry.getKey(), "-", after.score(), "new");
+                continue;
+            }
+            double change = (after.score() - before.score()) / before.score() * 100;
+            // Для пропускной способности хуже — меньше, для времени — больше
+            double worse = "thrpt".equals(after.mode()) ? -change : change;
+            boolean significant = Math.abs(after.score() - before.score()) > before.error() + after.error();
+            boolean regression = worse > threshold && significant;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %s%s%n", entry.getKey(), before.score(), after.score(),
+                    change, after.unit(), regression ? "  REGRESSION" : "");
+        }
+        for (String removed : baseline.keySet()) {
+            if (!current.containsKey(removed)) {
+                System.out.printf("%-90s %14.3f %14s %9s%n", removed, baseline.get(removed).score(), "-", "removed");
+            }
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    // Ключ — имя бенчмарка со значениями @Param, чтобы сравнивались одинаковые конфигурации
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            JsonNode params = result.path("params");
+            if (params.isObject()) {
+                Map<String, String> sorted = new TreeMap<>();
+                for (Map.Entry<String, JsonNode> param : params.properties()) {
+                    sorted.put(param.getKey(), param.getValue().asText());
+                }
+                sorted.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+            }
+            JsonNode metric = result.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(key.toString(), new Score(result.path("mode").asText(), metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+}
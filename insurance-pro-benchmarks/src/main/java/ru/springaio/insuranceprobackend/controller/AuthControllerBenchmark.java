@@ -0,0 +1,139 @@
+package ru.springaio.insuranceprobackend.controller;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.springaio.insuranceprobackend.dto.JwtResponse;
+import ru.springaio.insuranceprobackend.dto.LoginRequest;
+import ru.springaio.insuranceprobackend.dto.RefreshTokenRequest;
+import ru.springaio.insuranceprobackend.entity.User;
+import ru.springaio.insuranceprobackend.repository.UserRepository;
+import ru.springaio.insuranceprobackend.security.AuthenticationExecutor;
+import ru.springaio.insuranceprobackend.security.LoginThrottle;
+import ru.springaio.insuranceprobackend.security.RefreshTokenService;
+import ru.springaio.insuranceprobackend.security.SecurityConfig;
+import ru.springaio.insuranceprobackend.security.SecurityFixtures;
+import ru.springaio.insuranceprobackend.security.UserDetailsServiceImpl;
+import ru.springaio.insuranceprobackend.security.UserPrincipalCache;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Вход через AuthController.authenticateUser: передача в пул AuthenticationExecutor, проверка пароля
+// кодировщиком SecurityConfig.passwordEncoder со стоимостью bcryptStrength (security.password.bcrypt-strength,
+// по умолчанию 10; другая — -p bcryptStrength=12), выпуск JWT и refresh-токена и сборка ответа. Неверный пароль
+// стоит столько же: хэш вычисляется в обоих случаях. Лимиты попыток отключены, иначе бенчмарк упёрся бы в 429.
+// refreshToken — продление сессии без пароля: ротация refresh-токена в H2 в памяти и подпись JWT
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthControllerBenchmark {
+
+    @Param({"10"})
+    public int bcryptStrength;
+
+    private AuthController authController;
+    private AuthenticationExecutor authenticationExecutor;
+    private MockHttpServletRequest request;
+    private LoginRequest validLogin;
+    private LoginRequest wrongPassword;
+    private RefreshTokenRequest refreshRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PasswordEncoder passwordEncoder = new SecurityConfig(null).passwordEncoder(bcryptStrength);
+        User user = SecurityFixtures.agent(passwordEncoder.encode("agent123"));
+        UserRepository userRepository = SecurityFixtures.userRepository(user);
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(
+                new UserDetailsServiceImpl(userRepository, new UserPrincipalCache(Duration.ofMinutes(5), 1000)));
+        provider.setPasswordEncoder(passwordEncoder);
+        authenticationExecutor = new AuthenticationExecutor(new ProviderManager(provider), 1, 16, Duration.ofSeconds(10));
+        authController = new AuthController(authenticationExecutor, new LoginThrottle(Duration.ofMinutes(1), 0, 0, 1000),
+                SecurityFixtures.tokenProvider(SecurityFixtures.revocationRegistry(userRepository), 0),
+                refreshTokenService(user));
+        request = new MockHttpServletRequest();
+
+        validLogin = loginRequest(user.getLogin(), "agent123");
+        wrongPassword = loginRequest(user.getLogin(), "agent124");
+        refreshRequest = new RefreshTokenRequest();
+        refreshRequest.setRefreshToken(((JwtResponse) authenticateUser().getBody()).getRefreshToken());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        authenticationExecutor.shutdown();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> authenticateUser() {
+        try {
+            return authController.authenticateUser(validLogin, request);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public Object rejectWrongPassword() {
+        try {
+            return authController.authenticateUser(wrongPassword, request);
+        } catch (BadCredentialsException ex) {
+            return ex;
+        }
+    }
+
+    // Каждый вызов гасит предъявленный токен, следующий вызов предъявляет выданный взамен
+    @Benchmark
+    public JwtResponse refreshToken() {
+        JwtResponse response = (JwtResponse) authController.refreshToken(refreshRequest).getBody();
+        refreshRequest.setRefreshToken(response.getRefreshToken());
+        return response;
+    }
+
+    // Таблица refresh_token как в refresh_tokens.xml и строка пользователя для соединения при обновлении
+    private static RefreshTokenService refreshTokenService(User user) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:auth-benchmark;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, login VARCHAR(100), full_name VARCHAR(200), "
+                + "role_code VARCHAR(50), active BOOLEAN)");
+        jdbcTemplate.execute("CREATE TABLE refresh_token (token_hash VARCHAR(43) PRIMARY KEY, "
+                + "user_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE, expires_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX idx_refresh_token_user ON refresh_token (user_id)");
+        jdbcTemplate.execute("CREATE INDEX idx_refresh_token_expires_at ON refresh_token (expires_at)");
+        jdbcTemplate.update("INSERT INTO users (id, login, full_name, role_code, active) VALUES (?, ?, ?, ?, ?)",
+                user.getId(), user.getLogin(), user.getFullName(), user.getRoleCode().getCode(), user.getActive());
+        return new RefreshTokenService(dataSource, new DataSourceTransactionManager(dataSource), Duration.ofDays(7));
+    }
+
+    private static LoginRequest loginRequest(String username, String password) {
+        LoginRequest request = new LoginRequest();
+        request.setUsername(username);
+        request.setPassword(password);
+        return request;
+    }
+}
@@ -0,0 +1,154 @@
+package ru.springaio.insuranceprobackend.mapper;
+
+import jakarta.persistence.EntityManager;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import ru.springaio.insuranceprobackend.dto.ClientDto;
+import ru.springaio.insuranceprobackend.dto.ContractDto;
+import ru.springaio.insuranceprobackend.entity.Client;
+import ru.springaio.insuranceprobackend.entity.Contract;
+import ru.springaio.insuranceprobackend.entity.ContractStatus;
+import ru.springaio.insuranceprobackend.entity.InsuranceType;
+import ru.springaio.insuranceprobackend.entity.User;
+import ru.springaio.insuranceprobackend.repository.ClaimStatusRepository;
+import ru.springaio.insuranceprobackend.repository.ClientRepository;
+import ru.springaio.insuranceprobackend.repository.ContractStatusRepository;
+import ru.springaio.insuranceprobackend.repository.InsuranceTypeRepository;
+import ru.springaio.insuranceprobackend.repository.PaymentStatusRepository;
+import ru.springaio.insuranceprobackend.repository.UserRoleRepository;
+import ru.springaio.insuranceprobackend.service.DictionaryRegistry;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Преобразование страницы сущностей в DTO, как в ContractServiceImpl.findAll и ClientServiceImpl.findAll.
+// Связи уже загружены (fetch-join), справочники читаются из DictionaryRegistry
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final String[] INSURANCE_TYPES = {"CASCO", "OSAGO", "LIFE", "PROPERTY"};
+    private static final String[] CONTRACT_STATUSES = {"DRAFT", "ACTIVE", "EXPIRED", "TERMINATED"};
+
+    @Param({"20", "1000"})
+    public int pageSize;
+
+    private ContractMapper contractMapper;
+    private ClientMapper clientMapper;
+    private Page<Contract> contracts;
+    private Page<Client> clients;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contractMapper = new ContractMapper(Mockito.mock(ClientRepository.class), dictionaryRegistry());
+        clientMapper = new ClientMapper();
+
+        List<User> agents = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            User agent = new User();
+            agent.setId(id);
+            agent.setLogin("agent" + id);
+            agent.setFullName("Агент " + id);
+            agents.add(agent);
+        }
+
+        List<Client> clientRows = new ArrayList<>(pageSize);
+        List<Contract> contractRows = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Client client = new Client();
+            client.setId((long) i + 1);
+            client.setFullName("Иванов Иван Иванович " + i);
+            client.setPassportSeries("4510");
+            client.setPassportNumber(String.format("%06d", i));
+            client.setPhone("+7 (900) 000-" + String.format("%04d", i));
+            client.setEmail("client" + i + "@example.com");
+            client.setRegistrationDate(Instant.parse("2025-01-01T00:00:00Z"));
+            client.setAgent(agents.get(i % agents.size()));
+            clientRows.add(client);
+
+            InsuranceType type = new InsuranceType();
+            type.setCode(INSURANCE_TYPES[i % INSURANCE_TYPES.length]);
+            ContractStatus status = new ContractStatus();
+            status.setCode(CONTRACT_STATUSES[i % CONTRACT_STATUSES.length]);
+
+            Contract contract = new Contract();
+            contract.setId((long) i + 1);
+            contract.setContractNumber(type.getCode() + "-2026-" + String.format("%06d", i));
+            contract.setClient(client);
+            contract.setAgent(client.getAgent());
+            contract.setInsuranceTypeCode(type);
+            contract.setStatusCode(status);
+            contract.setStartDate(LocalDate.of(2026, 1, 1));
+            contract.setEndDate(LocalDate.of(2027, 1, 1));
+            contract.setPremiumAmount(new BigDecimal("45000.00"));
+            contract.setInsuredAmount(new BigDecimal("1500000.00"));
+            contract.setCreatedAt(Instant.parse("2026-01-01T09:00:00Z"));
+            contractRows.add(contract);
+        }
+        contracts = new PageImpl<>(contractRows, PageRequest.of(0, pageSize), 100_000);
+        clients = new PageImpl<>(clientRows, PageRequest.of(0, pageSize), 100_000);
+    }
+
+    @Benchmark
+    public Page<ContractDto> contractsToDto() {
+        return contracts.map(contractMapper::toDto);
+    }
+
+    @Benchmark
+    public Page<ClientDto> clientsToDto() {
+        return clients.map(clientMapper::toDto);
+    }
+
+    private static DictionaryRegistry dictionaryRegistry() {
+        InsuranceTypeRepository insuranceTypes = Mockito.mock(InsuranceTypeRepository.class);
+        Mockito.when(insuranceTypes.findAll()).thenReturn(List.of(
+                insuranceType("CASCO", "КАСКО"), insuranceType("OSAGO", "ОСАГО"),
+                insuranceType("LIFE", "Страхование жизни"), insuranceType("PROPERTY", "Страхование имущества")));
+        ContractStatusRepository contractStatuses = Mockito.mock(ContractStatusRepository.class);
+        Mockito.when(contractStatuses.findAll()).thenReturn(List.of(
+                contractStatus("DRAFT", "Черновик"), contractStatus("ACTIVE", "Действует"),
+                contractStatus("EXPIRED", "Истёк"), contractStatus("TERMINATED", "Расторгнут")));
+
+        DictionaryRegistry registry = new DictionaryRegistry(insuranceTypes, contractStatuses,
+                Mockito.mock(PaymentStatusRepository.class), Mockito.mock(ClaimStatusRepository.class),
+                Mockito.mock(UserRoleRepository.class), Mockito.mock(EntityManager.class));
+        registry.reload();
+        return registry;
+    }
+
+    private static InsuranceType insuranceType(String code, String name) {
+        InsuranceType type = new InsuranceType();
+        type.setCode(code);
+        type.setName(name);
+        return type;
+    }
+
+    private static ContractStatus contractStatus(String code, String name) {
+        ContractStatus status = new ContractStatus();
+        status.setCode(code);
+        status.setName(name);
+        return status;
+    }
+}
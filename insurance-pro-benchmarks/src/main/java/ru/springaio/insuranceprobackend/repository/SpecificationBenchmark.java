@@ -0,0 +1,127 @@
+package ru.springaio.insuranceprobackend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import ru.springaio.insuranceprobackend.entity.Client;
+import ru.springaio.insuranceprobackend.entity.Contract;
+import ru.springaio.insuranceprobackend.security.UserChangeListener;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Построение условий поиска договоров и клиентов в том же составе, что и в
+// ContractServiceImpl/ClientServiceImpl.buildSpecification, до генерации SQL.
+// Метамодель — настоящая фабрика Hibernate по сущностям приложения; к БД запросы не идут
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpecificationBenchmark {
+
+    // Запрос агента добавляет условие по agent_id
+    @Param({"false", "true"})
+    public boolean agent;
+
+    private AnnotationConfigApplicationContext context;
+    private EntityManager entityManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(JpaConfig.class);
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public CriteriaQuery<Contract> contractSpecification() {
+        Specification<Contract> spec = ContractSpecification.hasContractNumber("CASCO-2026")
+                .and(ContractSpecification.hasInsuranceType("CASCO"))
+                .and(ContractSpecification.hasStatus("ACTIVE"))
+                .and(ContractSpecification.isWithinPeriod(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31)));
+        if (agent) {
+            spec = spec.and(ContractSpecification.hasAgent(2L));
+        }
+        return where(Contract.class, spec);
+    }
+
+    @Benchmark
+    public CriteriaQuery<Client> clientSpecification() {
+        Specification<Client> spec = ClientSpecification.hasFullName("Иванов")
+                .and(ClientSpecification.hasPassport("123456"))
+                .and(ClientSpecification.hasPhone("+7 (900) 123"));
+        if (agent) {
+            spec = spec.and(ClientSpecification.hasAgent(2L));
+        }
+        return where(Client.class, spec);
+    }
+
+    private <T> CriteriaQuery<T> where(Class<T> entityClass, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        return query.where(spec.toPredicate(root, query, cb));
+    }
+
+    @Configuration
+    @Import(UserChangeListener.class)
+    static class JpaConfig {
+
+        @Bean
+        DataSource dataSource() {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+            return dataSource;
+        }
+
+        @Bean
+        LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource,
+                                                                    ConfigurableListableBeanFactory beanFactory) {
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factory.setPackagesToScan("ru.springaio.insuranceprobackend.entity");
+            // Диалект рабочей БД; метаданные JDBC при старте не читаются
+            factory.setJpaPropertyMap(Map.<String, Object>of(
+                    AvailableSettings.DIALECT, "org.hibernate.dialect.PostgreSQLDialect",
+                    AvailableSettings.ALLOW_METADATA_ON_BOOT, false,
+                    AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(beanFactory)));
+            return factory;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ru.springaio.insuranceprobackend.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.springaio.insuranceprobackend.entity.User;
+import ru.springaio.insuranceprobackend.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Стоимость JwtAuthenticationFilter на один запрос: прежняя схема (две проверки подписи,
+// два вывода ключа и чтение пользователя на запрос) против verifyAndParse с кэшем
+// проверенных токенов и без него, с восстановлением пользователя из claims.
+// Запуск: mvn -Pjmh -pl insurance-pro-benchmarks -am verify -DskipTests -Djmh.args=JwtAuthenticationFilterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"0", "10000"})
+    public int verifiedCacheSize;
+
+    private JwtTokenProvider tokenProvider;
+    private JwtAuthenticationFilter filter;
+    private UserRepository userRepository;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User user = SecurityFixtures.agent("{noop}agent123");
+        userRepository = SecurityFixtures.userRepository(user);
+        TokenRevocationRegistry revocationRegistry = SecurityFixtures.revocationRegistry(userRepository);
+        tokenProvider = SecurityFixtures.tokenProvider(revocationRegistry, verifiedCacheSize);
+
+        UserDetailsServiceImpl userDetailsService =
+                new UserDetailsServiceImpl(userRepository, new UserPrincipalCache(Duration.ofMinutes(5), 1000));
+
+        filter = new JwtAuthenticationFilter(tokenProvider, userDetailsService, revocationRegistry);
+        UserPrincipal principal = UserPrincipal.from(user);
+        token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    public void legacyValidateThenParse(Blackhole bh) {
+        // Повторяет прежний JwtTokenProvider: validateToken + getUsernameFromJWT,
+        // каждый со своим Keys.hmacShaKeyFor и новым парсером
+        Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SecurityFixtures.SECRET.getBytes(StandardCharsets.UTF_8))).build()
+                .parseSignedClaims(token);
+        bh.consume(Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SecurityFixtures.SECRET.getBytes(StandardCharsets.UTF_8))).build()
+                .parseSignedClaims(token).getPayload().getSubject());
+    }
+
+    @Benchmark
+    public void legacyFilterPerRequest(Blackhole bh) {
+        // Прежний фильтр: две проверки подписи и чтение пользователя на каждый запрос
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contracts");
+        request.addHeader("Authorization", "Bearer " + token);
+        String jwt = request.getHeader("Authorization").substring(7);
+        Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SecurityFixtures.SECRET.getBytes(StandardCharsets.UTF_8))).build()
+                .parseSignedClaims(jwt);
+        String username = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SecurityFixtures.SECRET.getBytes(StandardCharsets.UTF_8))).build()
+                .parseSignedClaims(jwt).getPayload().getSubject();
+        UserPrincipal principal = UserPrincipal.from(userRepository.findByLogin(username).orElseThrow());
+        bh.consume(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    public void verifyAndParse(Blackhole bh) {
+        bh.consume(tokenProvider.verifyAndParse(token));
+    }
+
+    @Benchmark
+    public void filterPerRequest(Blackhole bh) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contracts");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        bh.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,54 @@
+package ru.springaio.insuranceprobackend.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import ru.springaio.insuranceprobackend.entity.User;
+
+import java.util.concurrent.TimeUnit;
+
+// Выпуск токена при входе и проверка подписи без кэша проверенных токенов
+// (первый запрос с новым токеном и каждый запрос при jwt.verified-cache.max-size=0)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User user = SecurityFixtures.agent("{noop}agent123");
+        tokenProvider = SecurityFixtures.tokenProvider(
+                SecurityFixtures.revocationRegistry(SecurityFixtures.userRepository(user)), 0);
+        UserPrincipal principal = UserPrincipal.from(user);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = tokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public Claims validateToken() {
+        return tokenProvider.verifyAndParse(token);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.springaio.insuranceprobackend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.springaio.insuranceprobackend.entity.User;
+import ru.springaio.insuranceprobackend.entity.UserRole;
+import ru.springaio.insuranceprobackend.repository.UserRepository;
+
+import java.util.Optional;
+
+// Компоненты безопасности без контекста Spring: пользователь agent1 и репозиторий-заглушка
+public final class SecurityFixtures {
+
+    public static final String SECRET = "9a657c91d848148b8c734b22c74d6c6e3b2e532a246831d04b62d3544c010c73";
+
+    private SecurityFixtures() {
+    }
+
+    public static User agent(String password) {
+        UserRole role = new UserRole();
+        role.setCode("AGENT");
+        User user = new User();
+        user.setId(2L);
+        user.setLogin("agent1");
+        user.setPassword(password);
+        user.setFullName("Петров Петр Петрович");
+        user.setActive(true);
+        user.setRoleCode(role);
+        return user;
+    }
+
+    public static UserRepository userRepository(User user) {
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findByLogin(user.getLogin())).thenReturn(Optional.of(user));
+        return userRepository;
+    }
+
+    public static TokenRevocationRegistry revocationRegistry(UserRepository userRepository) {
+        TokenRevocationRegistry revocationRegistry = new TokenRevocationRegistry(userRepository);
+        revocationRegistry.loadDeactivatedUsers();
+        return revocationRegistry;
+    }
+
+    public static JwtTokenProvider tokenProvider(TokenRevocationRegistry revocationRegistry, int verifiedCacheSize) {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider(revocationRegistry, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 3_600_000L);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedCacheMaxSize", verifiedCacheSize);
+        tokenProvider.init();
+        return tokenProvider;
+    }
+}
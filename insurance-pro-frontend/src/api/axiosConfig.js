@@ -1,7 +1,9 @@
 import axios from 'axios';
 
+const baseURL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080/api';
+
 const instance = axios.create({
-  baseURL: import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080/api',
+  baseURL,
 });
 
 instance.interceptors.request.use(
@@ -17,13 +19,57 @@ instance.interceptors.request.use(
   }
 );
 
+// Один запрос обновления на все запросы, получившие 401 одновременно:
+// refresh-токен одноразовый, второй параллельный обмен был бы отклонён
+let refreshPromise = null;
+
+const refreshTokens = () => {
+  if (!refreshPromise) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    // Отдельный вызов axios, чтобы не пройти через перехватчики этого экземпляра
+    refreshPromise = axios
+      .post(`${baseURL}/auth/refresh`, { refreshToken })
+      .then((response) => {
+        localStorage.setItem('token', response.data.token);
+        localStorage.setItem('refreshToken', response.data.refreshToken);
+        return response.data.token;
+      })
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+};
+
+const redirectToLogin = () => {
+  localStorage.removeItem('token');
+  localStorage.removeItem('refreshToken');
+  localStorage.removeItem('user');
+  window.location.href = '/login';
+};
+
 instance.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error) => {
+    const original = error.config;
     if (error.response && error.response.status === 401) {
-      localStorage.removeItem('token');
-      localStorage.removeItem('user');
-      window.location.href = '/login';
+      // Ответ 401 на сам вход — неверный пароль, его показывает страница входа
+      if (original.url && original.url.startsWith('/auth/')) {
+        return Promise.reject(error);
+      }
+      // Access-токен истёк: продлеваем сессию по refresh-токену и повторяем запрос один раз
+      if (!original._retry && localStorage.getItem('refreshToken')) {
+        original._retry = true;
+        try {
+          const token = await refreshTokens();
+          original.headers.Authorization = `Bearer ${token}`;
+          return instance(original);
+        } catch (refreshError) {
+          redirectToLogin();
+          return Promise.reject(refreshError);
+        }
+      }
+      redirectToLogin();
     }
     return Promise.reject(error);
   }
@@ -11,6 +11,7 @@ import {
 } from '@ant-design/icons';
 import { useNavigate, useLocation, Outlet } from 'react-router-dom';
 import ruRU from 'antd/locale/ru_RU';
+import api from '../api/axiosConfig';
 
 const { Header, Sider, Content } = Layout;
 
@@ -25,7 +26,13 @@ const MainLayout = () => {
   } = theme.useToken();
 
   const handleLogout = () => {
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (refreshToken) {
+      // Отзыв refresh-токена на сервере; выход не ждёт ответа
+      api.post('/auth/logout', { refreshToken }).catch(() => {});
+    }
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('user');
     navigate('/login');
   };
@@ -23,6 +23,9 @@ const LoginPage = () => {
       
       // Сохраняем токен в localStorage для последующих авторизованных запросов
       localStorage.setItem('token', response.data.token);
+
+      // Refresh-токен продлевает сессию после истечения короткоживущего access-токена
+      localStorage.setItem('refreshToken', response.data.refreshToken);
       
       // Сохраняем данные пользователя (может содержать роль, имя и т.д.)
       localStorage.setItem('user', JSON.stringify(response.data));
@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import { Card, Row, Col, Statistic, Spin, message, DatePicker, Space, Empty } from 'antd';
+import { Card, Row, Col, Statistic, Spin, message, DatePicker, Space, Empty, Alert } from 'antd';
 import { UserOutlined, FileTextOutlined, CalendarOutlined } from '@ant-design/icons';
 import { Pie, Column, Bar } from '@ant-design/plots';
 import api from '../api/axiosConfig';
@@ -129,6 +129,17 @@ const StatisticsPage = () => {
         </Row>
       </Card>
 
+      {/* Предупреждение, если часть разделов не успела рассчитаться на сервере */}
+      {data?.partial && (
+        <Alert
+          type="warning"
+          showIcon
+          style={{ marginBottom: 24 }}
+          message="Часть статистики временно недоступна"
+          description="Некоторые разделы не успели рассчитаться. Обновите страницу позже."
+        />
+      )}
+
       {/* Верхний ряд: карточки с общей статистикой */}
       <Row gutter={[16, 16]}>
         <Col xs={24} sm={12}>
@@ -0,0 +1,66 @@
+package ru.springaio.insuranceprobackend.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Выбор по весам через кумулятивные суммы и бинарный поиск: O(log n) на выборку
+public final class Distributions {
+
+    private Distributions() {
+    }
+
+    public static final class Weighted {
+        private final double[] cumulative;
+
+        public Weighted(double... weights) {
+            cumulative = new double[weights.length];
+            double sum = 0;
+            for (int i = 0; i < weights.length; i++) {
+                sum += weights[i];
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < cumulative.length; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        public int next(SplittableRandom random) {
+            int i = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(i >= 0 ? i : -i - 1, cumulative.length - 1);
+        }
+    }
+
+    // Закон Ципфа: вес ранга k пропорционален 1 / k^exponent
+    public static Weighted zipf(int n, double exponent) {
+        double[] weights = new double[n];
+        for (int k = 0; k < n; k++) {
+            weights[k] = 1 / Math.pow(k + 1, exponent);
+        }
+        return new Weighted(weights);
+    }
+
+    // Логнормальное значение с медианой median и разбросом sigma
+    public static double lognormal(SplittableRandom random, double median, double sigma) {
+        return median * Math.exp(sigma * gaussian(random));
+    }
+
+    // Геометрическое число с заданным средним (>= 0)
+    public static int geometric(SplittableRandom random, double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        double p = 1 / (mean + 1);
+        return (int) (Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+    }
+
+    public static double gaussian(SplittableRandom random) {
+        // Бокс — Мюллер
+        double u = 1 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+
+    public static <T> T pick(SplittableRandom random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
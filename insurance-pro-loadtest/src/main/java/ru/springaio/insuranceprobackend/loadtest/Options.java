@@ -0,0 +1,69 @@
+package ru.springaio.insuranceprobackend.loadtest;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Аргументы командной строки вида key=value (допускается и --key=value).
+// Неизвестный ключ — ошибка, чтобы опечатка не превращалась в тихое значение по умолчанию
+public class Options {
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+    private final Set<String> used = new HashSet<>();
+
+    public Options(String... args) {
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int eq = option.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value but was: " + arg);
+            }
+            values.put(option.substring(0, eq), option.substring(eq + 1));
+        }
+    }
+
+    public String get(String key, String defaultValue) {
+        used.add(key);
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        return value != null ? Long.parseLong(value.replace("_", "")) : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        String value = get(key, null);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    }
+
+    // ISO-8601 (PT5M) или число секунд
+    public Duration getDuration(String key, Duration defaultValue) {
+        String value = get(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        return value.chars().allMatch(Character::isDigit) ? Duration.ofSeconds(Long.parseLong(value)) : Duration.parse(value);
+    }
+
+    // Вызывается после чтения всех параметров
+    public void checkUnused() {
+        Set<String> unknown = new HashSet<>(values.keySet());
+        unknown.removeAll(used);
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + unknown);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package ru.springaio.insuranceprobackend.loadtest.driver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+// Клиент /api/** от имени одного пользователя. HttpClient общий для всех сессий: соединения переиспользуются
+class ApiClient {
+
+    record Response(int status, JsonNode body) {
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final Duration timeout;
+    private String token;
+    private String refreshToken;
+
+    ApiClient(HttpClient http, String baseUrl, Duration timeout) {
+        this.http = http;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+    }
+
+    // Токены сохраняются для следующих запросов только при успешном входе
+    Response login(String username, String password) throws IOException, InterruptedException {
+        return remember(send("POST", "/api/auth/login",
+                MAPPER.createObjectNode().put("username", username).put("password", password)));
+    }
+
+    // Новая пара токенов по refresh-токену, без проверки пароля
+    Response refresh() throws IOException, InterruptedException {
+        return remember(send("POST", "/api/auth/refresh", MAPPER.createObjectNode().put("refreshToken", refreshToken)));
+    }
+
+    Response get(String path) throws IOException, InterruptedException {
+        return sendAuthorized("GET", path, null);
+    }
+
+    Response post(String path, JsonNode body) throws IOException, InterruptedException {
+        return sendAuthorized("POST", path, body);
+    }
+
+    Response put(String path, JsonNode body) throws IOException, InterruptedException {
+        return sendAuthorized("PUT", path, body);
+    }
+
+    private Response remember(Response response) {
+        if (response.ok()) {
+            token = response.body().path("token").asText();
+            refreshToken = response.body().path("refreshToken").asText(null);
+        }
+        return response;
+    }
+
+    // Access-токен живёт меньше длинного прогона: при 401 сессия обновляет токены и повторяет запрос
+    private Response sendAuthorized(String method, String path, JsonNode body) throws IOException, InterruptedException {
+        Response response = send(method, path, body);
+        if (response.status() == 401 && refreshToken != null && refresh().ok()) {
+            response = send(method, path, body);
+        }
+        return response;
+    }
+
+    private Response send(String method, String path, JsonNode body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Accept", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        JsonNode json = response.body().length > 0 && isJson(response)
+                ? MAPPER.readTree(response.body())
+                : MissingNode.getInstance();
+        return new Response(response.statusCode(), json);
+    }
+
+    private static boolean isJson(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Type").map(type -> type.contains("json")).orElse(false);
+    }
+}
@@ -0,0 +1,148 @@
+package ru.springaio.insuranceprobackend.loadtest.driver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import ru.springaio.insuranceprobackend.loadtest.Distributions;
+import ru.springaio.insuranceprobackend.loadtest.Options;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Нагрузка на /api/** смесью операций от имени агентов, созданных DataGenerator.
+// Каждая сессия — отдельный виртуальный поток со своим агентом (agent-prefix + номер по кругу из agents).
+// Без rate сессии работают без пауз (закрытая модель); с rate общий поток запросов задан в операциях в секунду
+// и задержка считается от запланированного момента. Первые warmup секунд в отчёт не попадают.
+//
+// Параметры (key=value): base-url, sessions, duration, warmup, rate, mix, agent-prefix, agents, password,
+// timeout, seed, report (путь к JSON-отчёту)
+public class LoadDriver {
+
+    static final String DEFAULT_MIX = "login:5,search:50,statistics:15,create:15,update:15";
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        String report = options.get("report", null);
+        ObjectNode result = run(options);
+        if (report != null) {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(report), result);
+        }
+    }
+
+    // Прогон с параметрами из options; печатает таблицу и возвращает те же числа
+    public static ObjectNode run(Options options) throws InterruptedException {
+        String baseUrl = options.get("base-url", "http://localhost:8080");
+        int sessions = options.getInt("sessions", 32);
+        Duration duration = options.getDuration("duration", Duration.ofSeconds(60));
+        Duration warmup = options.getDuration("warmup", Duration.ofSeconds(10));
+        double rate = options.getDouble("rate", 0);
+        Distributions.Weighted mix = parseMix(options.get("mix", DEFAULT_MIX));
+        String agentPrefix = options.get("agent-prefix", "agent-");
+        int agents = options.getInt("agents", 200);
+        String password = options.get("password", "agent123");
+        Duration timeout = options.getDuration("timeout", Duration.ofSeconds(30));
+        SplittableRandom random = new SplittableRandom(options.getLong("seed", 42));
+        options.checkUnused();
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        long interval = rate > 0 ? (long) (sessions * 1e9 / rate) : 0;
+
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            String username = agentPrefix + String.format("%04d", i % agents + 1);
+            workers.add(new Worker(new ApiClient(http, baseUrl, timeout), username, password, mix, random.split(),
+                    warmupEnd, end, interval));
+        }
+        System.out.printf("%d sessions against %s, warmup %d s, measuring %d s%s%n", sessions, baseUrl,
+                warmup.toSeconds(), duration.toSeconds(), rate > 0 ? String.format(", target %.0f ops/s", rate) : "");
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            workers.forEach(executor::submit);
+            executor.shutdown();
+            if (!executor.awaitTermination(duration.plus(warmup).plus(timeout).toSeconds() + 60, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        }
+
+        workers.stream().filter(worker -> worker.failure != null)
+                .forEach(worker -> System.err.println("Session failed: " + worker.failure));
+        return summarize(workers, duration);
+    }
+
+    // Веса операций в виде "search:50,create:15"; неуказанные операции не выполняются
+    static Distributions.Weighted parseMix(String mix) {
+        double[] weights = new double[Operation.values().length];
+        for (String part : mix.split(",")) {
+            String[] keyAndWeight = part.trim().split(":");
+            if (keyAndWeight.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but was: " + part);
+            }
+            weights[Operation.of(keyAndWeight[0].trim()).ordinal()] = Double.parseDouble(keyAndWeight[1].trim());
+        }
+        return new Distributions.Weighted(weights);
+    }
+
+    // Печатает таблицу по операциям и возвращает те же числа для JSON-отчёта
+    private static ObjectNode summarize(List<Worker> workers, Duration duration) {
+        double seconds = duration.toNanos() / 1e9;
+        ObjectNode result = new ObjectMapper().createObjectNode()
+                .put("durationSeconds", seconds)
+                .put("sessions", workers.size());
+        ArrayNode operations = result.putArray("operations");
+        Histogram total = new Histogram(Worker.MAX_LATENCY_MICROS, 3);
+        long totalErrors = 0;
+
+        System.out.printf("%-12s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Histogram latencies = new Histogram(Worker.MAX_LATENCY_MICROS, 3);
+            long errors = 0;
+            for (Worker worker : workers) {
+                latencies.add(worker.latencies[operation.ordinal()]);
+                errors += worker.errors[operation.ordinal()];
+            }
+            if (latencies.getTotalCount() == 0 && errors == 0) {
+                continue;
+            }
+            total.add(latencies);
+            totalErrors += errors;
+            operations.add(print(operation.key, latencies, errors, seconds));
+        }
+        result.set("total", print("total", total, totalErrors, seconds));
+        return result;
+    }
+
+    private static ObjectNode print(String name, Histogram latencies, long errors, double seconds) {
+        double throughput = latencies.getTotalCount() / seconds;
+        System.out.printf("%-12s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, latencies.getTotalCount(),
+                errors, throughput, millis(latencies, 50), millis(latencies, 90), millis(latencies, 99),
+                millis(latencies, 99.9), latencies.getMaxValue() / 1000.0);
+        return new ObjectMapper().createObjectNode()
+                .put("operation", name)
+                .put("count", latencies.getTotalCount())
+                .put("errors", errors)
+                .put("throughput", throughput)
+                .put("p50Ms", millis(latencies, 50))
+                .put("p90Ms", millis(latencies, 90))
+                .put("p99Ms", millis(latencies, 99))
+                .put("p999Ms", millis(latencies, 99.9))
+                .put("maxMs", latencies.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram latencies, double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
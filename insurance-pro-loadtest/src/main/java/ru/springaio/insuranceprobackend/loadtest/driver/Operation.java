@@ -0,0 +1,26 @@
+package ru.springaio.insuranceprobackend.loadtest.driver;
+
+// Операции нагрузочного сценария; ключ используется в параметре mix
+enum Operation {
+    LOGIN("login"),
+    REFRESH("refresh"),
+    SEARCH("search"),
+    STATISTICS("statistics"),
+    CREATE("create"),
+    UPDATE("update");
+
+    final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    static Operation of(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+}
@@ -0,0 +1,136 @@
+package ru.springaio.insuranceprobackend.loadtest.driver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.springaio.insuranceprobackend.InsuranceprobackendApplication;
+import ru.springaio.insuranceprobackend.loadtest.Options;
+import ru.springaio.insuranceprobackend.loadtest.generator.DataGenerator;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Сравнение режимов обслуживания при высокой конкуренции: пул потоков Tomcat (platform) против
+// виртуальных потоков с ограничителем соединений (virtual). Для каждого режима в этом же процессе
+// поднимается бэкенд на собственной H2 в памяти, заполняется одинаковыми данными DataGenerator
+// и нагружается LoadDriver списком договоров и статистикой. Клиент и сервер делят процессор,
+// поэтому значимо сравнение режимов между собой, а не абсолютные числа.
+//
+// Параметры (key=value): modes (platform,virtual), sessions, warmup, duration, mix, clients, agents,
+// pool-size, limiter-timeout, seed, report (путь к JSON-отчёту)
+public class ServingModeBenchmark {
+
+    static final String DEFAULT_MIX = "search:70,statistics:30";
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        String[] modes = options.get("modes", "platform,virtual").split(",");
+        String sessions = options.get("sessions", "1000");
+        String warmup = options.get("warmup", "30");
+        String duration = options.get("duration", "60");
+        String mix = options.get("mix", DEFAULT_MIX);
+        String clients = options.get("clients", "20000");
+        String agents = options.get("agents", "50");
+        String poolSize = options.get("pool-size", "10");
+        String limiterTimeout = options.get("limiter-timeout", "PT30S");
+        String seed = options.get("seed", "42");
+        String report = options.get("report", null);
+        options.checkUnused();
+
+        Map<String, ObjectNode> results = new LinkedHashMap<>();
+        for (String mode : modes) {
+            boolean virtual = switch (mode) {
+                case "platform" -> false;
+                case "virtual" -> true;
+                default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+            };
+            String url = "jdbc:h2:mem:serving-" + mode
+                    + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+            System.out.printf("%n=== %s ===%n", mode);
+            try (ConfigurableApplicationContext backend = startBackend(url,
+                    "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                    "--spring.threads.virtual.enabled=" + virtual,
+                    "--database.limiter.enabled=" + virtual,
+                    "--database.limiter.timeout=" + limiterTimeout)) {
+                // Схема уже создана Liquibase при старте; запросов ещё не было, так что блоки номеров не выданы
+                try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+                    System.out.print(new DataGenerator(new Options("clients=" + clients, "agents=" + agents,
+                            "seed=" + seed)).run(connection));
+                }
+                String port = backend.getEnvironment().getProperty("local.server.port");
+                results.put(mode, LoadDriver.run(new Options("base-url=http://localhost:" + port,
+                        "sessions=" + sessions, "warmup=" + warmup, "duration=" + duration, "mix=" + mix,
+                        "agents=" + agents, "seed=" + seed)));
+            }
+        }
+
+        compare(results);
+        if (report != null) {
+            ObjectNode json = new ObjectMapper().createObjectNode();
+            results.forEach(json::set);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(report), json);
+        }
+    }
+
+    // Бэкенд в этом процессе на H2 в памяти по url, на случайном порту; args дополняют общие параметры
+    static ConfigurableApplicationContext startBackend(String url, String... args) {
+        List<String> all = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--server.port=0",
+                // Фоновые задачи не должны конкурировать с измеряемыми запросами
+                "--claims.processing.enabled=false",
+                "--payments.settlement.cron=-",
+                "--renewals.cron=-",
+                // Все сессии входят с одного адреса и по кругу из agents логинов
+                "--security.login.throttle.per-login=0",
+                "--security.login.throttle.per-ip=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        all.addAll(List.of(args));
+        return SpringApplication.run(InsuranceprobackendApplication.class, all.toArray(String[]::new));
+    }
+
+    // Пропускная способность, p99 и ошибки по операциям, режимы рядом
+    private static void compare(Map<String, ObjectNode> results) {
+        System.out.printf("%n%-12s", "operation");
+        for (String mode : results.keySet()) {
+            System.out.printf(" %14s %14s %10s", mode + " ops/s", mode + " p99", "errors");
+        }
+        System.out.println();
+        ObjectNode first = results.values().iterator().next();
+        for (JsonNode operation : first.path("operations")) {
+            printRow(results, operation.path("operation").asText());
+        }
+        printRow(results, "total");
+    }
+
+    private static void printRow(Map<String, ObjectNode> results, String name) {
+        System.out.printf("%-12s", name);
+        for (ObjectNode result : results.values()) {
+            JsonNode row = "total".equals(name) ? result.path("total") : find(result, name);
+            System.out.printf(" %14.1f %11.2f ms %10d", row.path("throughput").asDouble(), row.path("p99Ms").asDouble(),
+                    row.path("errors").asLong());
+        }
+        System.out.println();
+    }
+
+    private static JsonNode find(ObjectNode result, String operation) {
+        for (JsonNode row : result.path("operations")) {
+            if (operation.equals(row.path("operation").asText())) {
+                return row;
+            }
+        }
+        return new ObjectMapper().createObjectNode();
+    }
+}
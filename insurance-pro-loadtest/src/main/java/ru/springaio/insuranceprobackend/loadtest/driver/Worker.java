@@ -0,0 +1,219 @@
+package ru.springaio.insuranceprobackend.loadtest.driver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import ru.springaio.insuranceprobackend.loadtest.Distributions;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.http.HttpTimeoutException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Сессия одного агента: вход, затем операции из смеси до окончания прогона.
+// При заданном интервале (открытая модель) задержка считается от запланированного момента старта,
+// чтобы очередь перед медленным сервером попадала в перцентили, а не пряталась за паузой клиента
+class Worker implements Runnable {
+
+    // Верхняя граница гистограмм, мкс
+    static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final String[] INSURANCE_TYPES = {"OSAGO", "CASCO", "PROPERTY", "LIFE"};
+    private static final int CONTRACT_CACHE_SIZE = 100;
+    private static final int LOGIN_RETRY_PAUSE_MILLIS = 500;
+
+    private final ApiClient api;
+    private final String username;
+    private final String password;
+    private final Distributions.Weighted mix;
+    private final SplittableRandom random;
+    private final long warmupEndNanos;
+    private final long endNanos;
+    private final long intervalNanos;
+
+    final Histogram[] latencies = new Histogram[Operation.values().length];
+    final long[] errors = new long[Operation.values().length];
+    volatile String failure;
+
+    private final List<Long> clientIds = new ArrayList<>();
+    private final List<ObjectNode> contracts = new ArrayList<>();
+
+    Worker(ApiClient api, String username, String password, Distributions.Weighted mix, SplittableRandom random,
+           long warmupEndNanos, long endNanos, long intervalNanos) {
+        this.api = api;
+        this.username = username;
+        this.password = password;
+        this.mix = mix;
+        this.random = random;
+        this.warmupEndNanos = warmupEndNanos;
+        this.endNanos = endNanos;
+        this.intervalNanos = intervalNanos;
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new Histogram(MAX_LATENCY_MICROS, 3);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            prepare();
+            // Сдвиг по фазе, чтобы сессии открытой модели не стартовали одновременно
+            long intended = System.nanoTime() + (intervalNanos > 0 ? random.nextLong(intervalNanos) : 0);
+            while (true) {
+                long started;
+                if (intervalNanos > 0) {
+                    if (intended >= endNanos) {
+                        break;
+                    }
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    started = intended;
+                    intended += intervalNanos;
+                } else {
+                    started = System.nanoTime();
+                    if (started >= endNanos) {
+                        break;
+                    }
+                }
+
+                Operation operation = Operation.values()[mix.next(random)];
+                boolean ok;
+                try {
+                    ok = execute(operation);
+                } catch (IOException ex) {
+                    ok = false;
+                }
+                if (started >= warmupEndNanos) {
+                    if (ok) {
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started);
+                        latencies[operation.ordinal()].recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                    } else {
+                        errors[operation.ordinal()]++;
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            failure = username + ": " + ex.getMessage();
+        }
+    }
+
+    // Вход и начальный набор клиентов и договоров агента; в статистику не попадает.
+    // Пока сотни сессий одновременно входят, сервер может не успевать или ограничивать попытки (503/429):
+    // вход повторяется с паузой до конца прогона
+    private void prepare() throws IOException, InterruptedException {
+        while (true) {
+            try {
+                ApiClient.Response login = api.login(username, password);
+                if (login.ok()) {
+                    break;
+                }
+                if (login.status() < 500 && login.status() != 429) {
+                    throw new IllegalStateException("login failed with status " + login.status());
+                }
+            } catch (HttpTimeoutException ex) {
+                // повтор ниже
+            }
+            if (System.nanoTime() >= endNanos) {
+                throw new IllegalStateException("login did not succeed before the end of the run");
+            }
+            Thread.sleep(LOGIN_RETRY_PAUSE_MILLIS + random.nextInt(LOGIN_RETRY_PAUSE_MILLIS));
+        }
+        for (JsonNode client : api.get("/api/clients?size=100").body().path("content")) {
+            clientIds.add(client.path("id").asLong());
+        }
+        remember(api.get("/api/contracts?size=" + CONTRACT_CACHE_SIZE).body().path("content"));
+    }
+
+    private boolean execute(Operation operation) throws IOException, InterruptedException {
+        return switch (operation) {
+            case LOGIN -> api.login(username, password).ok();
+            case REFRESH -> api.refresh().ok();
+            case SEARCH -> search();
+            case STATISTICS -> {
+                LocalDate today = LocalDate.now();
+                yield api.get("/api/statistics?startDate=" + today.minusYears(1) + "&endDate=" + today).ok();
+            }
+            case CREATE -> create();
+            case UPDATE -> update();
+        };
+    }
+
+    // Поиск с фильтрами, которыми пользуются в интерфейсе: вид страхования, статус, период
+    private boolean search() throws IOException, InterruptedException {
+        StringBuilder query = new StringBuilder("/api/contracts?size=20&sort=createdAt,desc&page=").append(random.nextInt(5));
+        if (random.nextDouble() < 0.5) {
+            query.append("&insuranceType=").append(INSURANCE_TYPES[random.nextInt(INSURANCE_TYPES.length)]);
+        }
+        if (random.nextDouble() < 0.3) {
+            query.append("&status=ACTIVE");
+        }
+        if (random.nextDouble() < 0.2) {
+            LocalDate end = LocalDate.now().minusDays(random.nextInt(365));
+            query.append("&start=").append(end.minusDays(90)).append("&end=").append(end);
+        }
+        ApiClient.Response response = api.get(query.toString());
+        if (response.ok()) {
+            remember(response.body().path("content"));
+        }
+        return response.ok();
+    }
+
+    private boolean create() throws IOException, InterruptedException {
+        if (clientIds.isEmpty()) {
+            return false;
+        }
+        LocalDate start = LocalDate.now().plusDays(1 + random.nextInt(30));
+        ObjectNode contract = JsonNodeFactory.instance.objectNode()
+                .put("clientId", clientIds.get(random.nextInt(clientIds.size())))
+                .put("insuranceTypeCode", INSURANCE_TYPES[random.nextInt(INSURANCE_TYPES.length)])
+                .put("statusCode", "DRAFT")
+                .put("startDate", start.toString())
+                .put("endDate", start.plusYears(1).toString())
+                .put("premiumAmount", BigDecimal.valueOf(5_000 + random.nextInt(60_000)))
+                .put("insuredAmount", BigDecimal.valueOf(400_000 + random.nextInt(3_000_000)));
+        ApiClient.Response response = api.post("/api/contracts", contract);
+        if (response.ok()) {
+            remember(response.body());
+        }
+        return response.ok();
+    }
+
+    // Правка премии у одного из ранее увиденных договоров
+    private boolean update() throws IOException, InterruptedException {
+        if (contracts.isEmpty()) {
+            return false;
+        }
+        ObjectNode contract = contracts.get(random.nextInt(contracts.size())).deepCopy();
+        BigDecimal premium = contract.path("premiumAmount").decimalValue()
+                .multiply(BigDecimal.valueOf(0.95 + random.nextDouble() * 0.1))
+                .setScale(2, RoundingMode.HALF_UP);
+        contract.put("premiumAmount", premium);
+        ApiClient.Response response = api.put("/api/contracts/" + contract.path("id").asLong(), contract);
+        if (response.ok()) {
+            remember(response.body());
+        }
+        return response.ok();
+    }
+
+    private void remember(JsonNode node) {
+        if (node.isArray()) {
+            node.forEach(this::remember);
+        } else if (node.isObject() && node.hasNonNull("id")) {
+            if (contracts.size() < CONTRACT_CACHE_SIZE) {
+                contracts.add((ObjectNode) node);
+            } else {
+                contracts.set(random.nextInt(CONTRACT_CACHE_SIZE), (ObjectNode) node);
+            }
+        }
+    }
+}
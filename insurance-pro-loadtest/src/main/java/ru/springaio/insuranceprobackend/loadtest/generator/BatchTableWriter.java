@@ -0,0 +1,62 @@
+package ru.springaio.insuranceprobackend.loadtest.generator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Порция строк, записываемая пакетами INSERT по batchSize строк
+class BatchTableWriter implements TableWriter {
+
+    private final Connection connection;
+    private final int batchSize;
+    private final String sql;
+    private final List<Object[]> rows = new ArrayList<>();
+    private long total;
+
+    BatchTableWriter(Connection connection, int batchSize, String table, List<String> columns) {
+        this.connection = connection;
+        this.batchSize = batchSize;
+        this.sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+    }
+
+    @Override
+    public void row(Object... values) {
+        rows.add(values);
+    }
+
+    @Override
+    public int flush() throws SQLException {
+        int flushed = rows.size();
+        if (flushed == 0) {
+            return 0;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int pending = 0;
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    statement.setObject(i + 1, row[i]);
+                }
+                statement.addBatch();
+                if (++pending == batchSize) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+        }
+        rows.clear();
+        total += flushed;
+        return flushed;
+    }
+
+    @Override
+    public long total() {
+        return total;
+    }
+}
@@ -0,0 +1,85 @@
+package ru.springaio.insuranceprobackend.loadtest.generator;
+
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+
+// Порция строк в формате CSV, записываемая одной командой COPY
+class CopyTableWriter implements TableWriter {
+
+    private final CopyManager copyManager;
+    private final String sql;
+    private final int columnCount;
+    private final StringBuilder buffer = new StringBuilder(1 << 20);
+    private int rows;
+    private long total;
+
+    CopyTableWriter(CopyManager copyManager, String table, List<String> columns) {
+        this.copyManager = copyManager;
+        this.sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        this.columnCount = columns.size();
+    }
+
+    @Override
+    public void row(Object... values) {
+        if (values.length != columnCount) {
+            throw new IllegalArgumentException("Expected " + columnCount + " values but was " + values.length);
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            append(values[i]);
+        }
+        buffer.append('\n');
+        rows++;
+    }
+
+    // NULL в CSV-режиме COPY — пустое значение без кавычек, пустая строка — ""
+    private void append(Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof String s) {
+            buffer.append('"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '"') {
+                    buffer.append('"');
+                }
+                buffer.append(c);
+            }
+            buffer.append('"');
+        } else if (value instanceof BigDecimal d) {
+            buffer.append(d.toPlainString());
+        } else {
+            buffer.append(value);
+        }
+    }
+
+    @Override
+    public int flush() throws SQLException {
+        int flushed = rows;
+        if (flushed == 0) {
+            return 0;
+        }
+        try {
+            copyManager.copyIn(sql, new StringReader(buffer.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY failed: " + sql, e);
+        }
+        buffer.setLength(0);
+        rows = 0;
+        total += flushed;
+        return flushed;
+    }
+
+    @Override
+    public long total() {
+        return total;
+    }
+}
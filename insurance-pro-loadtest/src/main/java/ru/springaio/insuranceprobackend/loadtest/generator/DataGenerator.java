@@ -0,0 +1,541 @@
+package ru.springaio.insuranceprobackend.loadtest.generator;
+
+import liquibase.Scope;
+import liquibase.command.CommandScope;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import ru.springaio.insuranceprobackend.loadtest.Distributions;
+import ru.springaio.insuranceprobackend.loadtest.Options;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.Map.Entry;
+
+import static ru.springaio.insuranceprobackend.loadtest.Distributions.geometric;
+import static ru.springaio.insuranceprobackend.loadtest.Distributions.lognormal;
+import static ru.springaio.insuranceprobackend.loadtest.Distributions.pick;
+
+// Заполняет схему приложения синтетическими агентами, клиентами, договорами, данными продуктов,
+// платежами и убытками. Клиенты распределены по агентам по закону Ципфа (несколько крупных агентов
+// и длинный хвост), у каждого агента свой профиль видов страхования.
+// Строки добавляются к уже существующим: идентификаторы продолжают текущий максимум, после загрузки
+// последовательности и identity-колонки сдвигаются за него, а дневные агрегаты статистики пересчитываются.
+// На PostgreSQL данные пишутся через COPY, на остальных БД (H2) — пакетными INSERT.
+// Приложение на время загрузки должно быть остановлено: выданные им блоки идентификаторов и номеров
+// пересеклись бы с загруженными строками.
+//
+// Параметры (key=value): url, user, password, migrate (накатить Liquibase перед загрузкой), mode (auto|copy|batch),
+// agents, clients, contracts-per-client, years, agent-skew, agent-prefix, agent-password, chunk, batch-size, seed
+public class DataGenerator {
+
+    static final String CHANGELOG = "db/changelog/db.changelog-master.xml";
+
+    static final String[] INSURANCE_TYPES = {"OSAGO", "CASCO", "PROPERTY", "LIFE"};
+    private static final double[] TYPE_WEIGHTS = {0.45, 0.25, 0.20, 0.10};
+    // Ожидаемое число убытков на договор в год
+    private static final double[] CLAIM_RATES = {0.06, 0.18, 0.04, 0.01};
+    private static final Distributions.Weighted HEALTH_CHOICE = new Distributions.Weighted(0.6, 0.3, 0.1);
+    private static final int[] INSTALLMENTS = {1, 2, 4};
+    private static final Distributions.Weighted INSTALLMENT_CHOICE = new Distributions.Weighted(0.6, 0.25, 0.15);
+    private static final int OSAGO = 0;
+    private static final int CASCO = 1;
+    private static final int PROPERTY = 2;
+    private static final int LIFE = 3;
+    // Шаг последовательностей contract_number_seq и claim_number_seq (DocumentNumberGenerator.BLOCK_SIZE)
+    private static final int NUMBER_BLOCK = 100;
+    // allocationSize последовательности contract_seq
+    private static final int CONTRACT_ID_BLOCK = 50;
+
+    private final String mode;
+    private final boolean migrate;
+    private final int agentCount;
+    private final long clientCount;
+    private final double contractsPerClient;
+    private final int years;
+    private final double agentSkew;
+    private final String agentPrefix;
+    private final String agentPassword;
+    private final int chunkSize;
+    private final int batchSize;
+    private final SplittableRandom random;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private final LocalDate today = now.toLocalDate();
+
+    private boolean postgres;
+    private Map<String, TableWriter> writers;
+    private long[] agentIds;
+    private Distributions.Weighted agentChoice;
+    private Distributions.Weighted[] agentTypeChoice;
+
+    private long nextClientId;
+    private long nextContractId;
+    private long nextPaymentId;
+    private long nextClaimId;
+    private final long[] nextDetailsId = new long[INSURANCE_TYPES.length];
+    private long nextContractNumber;
+    private long nextClaimNumber;
+
+    public record Summary(Map<String, Long> rows, long durationMs) {
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            long total = 0;
+            for (Entry<String, Long> entry : rows.entrySet()) {
+                text.append(String.format("%-26s %,12d%n", entry.getKey(), entry.getValue()));
+                total += entry.getValue();
+            }
+            return text.append(String.format("%,d rows in %.1f s (%,.0f rows/s)%n", total, durationMs / 1000.0,
+                    total * 1000.0 / Math.max(durationMs, 1))).toString();
+        }
+    }
+
+    public DataGenerator(Options options) {
+        this.mode = options.get("mode", "auto");
+        this.migrate = options.getBoolean("migrate", false);
+        this.agentCount = options.getInt("agents", 200);
+        this.clientCount = options.getLong("clients", 100_000);
+        this.contractsPerClient = options.getDouble("contracts-per-client", 2.5);
+        this.years = options.getInt("years", 3);
+        this.agentSkew = options.getDouble("agent-skew", 1.1);
+        this.agentPrefix = options.get("agent-prefix", "agent-");
+        this.agentPassword = options.get("agent-password", "agent123");
+        this.chunkSize = options.getInt("chunk", 10_000);
+        this.batchSize = options.getInt("batch-size", 1000);
+        this.random = new SplittableRandom(options.getLong("seed", 42));
+        if (contractsPerClient < 1) {
+            throw new IllegalArgumentException("contracts-per-client must be at least 1");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        String url = options.get("url", "jdbc:postgresql://localhost:25432/kurs_proj");
+        String user = options.get("user", "vlad");
+        String password = options.get("password", "");
+        DataGenerator generator = new DataGenerator(options);
+        options.checkUnused();
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            System.out.print(generator.run(connection));
+        }
+    }
+
+    public Summary run(Connection connection) throws Exception {
+        long started = System.currentTimeMillis();
+        if (migrate) {
+            migrate(connection);
+        }
+        connection.setAutoCommit(false);
+        postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgresql");
+        boolean copy = switch (mode) {
+            case "copy" -> true;
+            case "batch" -> false;
+            case "auto" -> postgres;
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        };
+        writers = createWriters(connection, copy);
+
+        long firstUserId = maxId(connection, "users") + 1;
+        nextClientId = maxId(connection, "client") + 1;
+        nextContractId = maxId(connection, "contract") + 1;
+        nextPaymentId = maxId(connection, "payment") + 1;
+        nextClaimId = maxId(connection, "insurance_claim") + 1;
+        nextDetailsId[OSAGO] = maxId(connection, "osago_data") + 1;
+        nextDetailsId[CASCO] = maxId(connection, "casco_data") + 1;
+        nextDetailsId[PROPERTY] = maxId(connection, "property_insurance_data") + 1;
+        nextDetailsId[LIFE] = maxId(connection, "life_insurance_data") + 1;
+        // Свой блок номеров: значение последовательности — верхняя граница блока из NUMBER_BLOCK номеров
+        nextContractNumber = nextValue(connection, "contract_number_seq") - NUMBER_BLOCK + 1;
+        nextClaimNumber = nextValue(connection, "claim_number_seq") - NUMBER_BLOCK + 1;
+
+        generateAgents(firstUserId);
+        flush(connection);
+
+        long generated = 0;
+        while (generated < clientCount) {
+            long chunk = Math.min(chunkSize, clientCount - generated);
+            for (long i = 0; i < chunk; i++) {
+                generateClient();
+            }
+            flush(connection);
+            generated += chunk;
+            System.out.printf("clients %,d/%,d, contracts %,d, %.0f s%n", generated, clientCount,
+                    writers.get("contract").total(), (System.currentTimeMillis() - started) / 1000.0);
+        }
+
+        advanceSequences(connection);
+        rebuildStatistics(connection);
+        connection.commit();
+        if (postgres) {
+            connection.setAutoCommit(true);
+            execute(connection, "ANALYZE users, client, contract, osago_data, casco_data, property_insurance_data, "
+                    + "life_insurance_data, payment, insurance_claim, contract_stats_daily, client_stats_daily");
+        }
+
+        Map<String, Long> rows = new LinkedHashMap<>();
+        writers.forEach((table, writer) -> rows.put(table, writer.total()));
+        return new Summary(rows, System.currentTimeMillis() - started);
+    }
+
+    // Порядок таблиц — порядок внешних ключей, в нём же сбрасываются порции
+    private Map<String, TableWriter> createWriters(Connection connection, boolean copy) throws SQLException {
+        Map<String, List<String>> tables = new LinkedHashMap<>();
+        tables.put("users", List.of("id", "login", "password", "role_code", "full_name", "active", "created_at"));
+        tables.put("client", List.of("id", "full_name", "passport_series", "passport_number", "phone", "phone_digits",
+                "email", "registration_date", "agent_id"));
+        tables.put("contract", List.of("id", "contract_number", "client_id", "insurance_type_code", "agent_id",
+                "status_code", "start_date", "end_date", "premium_amount", "insured_amount", "created_at"));
+        tables.put("osago_data", List.of("id", "contract_id", "license_plate", "vehicle_model", "vin", "driving_experience"));
+        tables.put("casco_data", List.of("id", "contract_id", "vehicle_model", "manufacture_year", "vehicle_cost",
+                "has_franchise", "franchise_amount"));
+        tables.put("property_insurance_data", List.of("id", "contract_id", "property_type", "address", "area",
+                "construction_year", "cost"));
+        tables.put("life_insurance_data", List.of("id", "contract_id", "birth_date", "gender", "profession", "health_status"));
+        tables.put("payment", List.of("id", "contract_id", "amount", "payment_date", "status_code", "payment_method",
+                "transaction_number"));
+        tables.put("insurance_claim", List.of("id", "contract_id", "claim_number", "incident_date", "description",
+                "claimed_amount", "approved_amount", "status_code", "created_at"));
+
+        Map<String, TableWriter> writers = new LinkedHashMap<>();
+        for (Entry<String, List<String>> table : tables.entrySet()) {
+            writers.put(table.getKey(), TableWriter.create(connection, copy, batchSize, table.getKey(), table.getValue()));
+        }
+        return writers;
+    }
+
+    private void flush(Connection connection) throws SQLException {
+        for (TableWriter writer : writers.values()) {
+            writer.flush();
+        }
+        connection.commit();
+    }
+
+    private void generateAgents(long firstUserId) {
+        // Один хэш на всех: BCrypt на каждого агента занял бы секунды без пользы для нагрузки
+        String passwordHash = new BCryptPasswordEncoder().encode(agentPassword);
+        agentIds = new long[agentCount];
+        agentTypeChoice = new Distributions.Weighted[agentCount];
+        for (int i = 0; i < agentCount; i++) {
+            agentIds[i] = firstUserId + i;
+            boolean male = random.nextBoolean();
+            writers.get("users").row(agentIds[i], agentPrefix + String.format("%04d", i + 1), passwordHash, "AGENT",
+                    fullName(male), true, now.minusYears(years).minusDays(random.nextInt(365)));
+
+            // Профиль агента: один вид страхования продаётся втрое чаще обычного
+            double[] weights = TYPE_WEIGHTS.clone();
+            weights[random.nextInt(weights.length)] *= 3;
+            agentTypeChoice[i] = new Distributions.Weighted(weights);
+        }
+        agentChoice = Distributions.zipf(agentCount, agentSkew);
+    }
+
+    private void generateClient() {
+        long clientId = nextClientId++;
+        int agent = agentChoice.next(random);
+        boolean male = random.nextBoolean();
+        // Клиентская база растёт: свежие регистрации вероятнее старых
+        LocalDateTime registered = now.minusSeconds((long) ((1 - Math.sqrt(random.nextDouble())) * years * 365 * 86_400L));
+        // Перестановка по модулю 10^9 (7919 взаимно просто с 10^9) даёт уникальный номер на каждый id
+        long subscriber = Math.floorMod(clientId * 7919L, 1_000_000_000L);
+        String digits = "79" + String.format("%09d", subscriber);
+        String phone = String.format("+7 (%s) %s-%s-%s", digits.substring(1, 4), digits.substring(4, 7),
+                digits.substring(7, 9), digits.substring(9, 11));
+
+        writers.get("client").row(clientId, fullName(male),
+                String.format("%02d%02d", 10 + random.nextInt(90), 1 + random.nextInt(24)),
+                String.format("%06d", random.nextInt(1_000_000)),
+                phone, digits, "client" + clientId + "@example.ru", registered, agentIds[agent]);
+
+        int contracts = 1 + geometric(random, contractsPerClient - 1);
+        for (int i = 0; i < contracts; i++) {
+            // Обычно договор оформляет агент клиента, иногда — другой
+            int contractAgent = random.nextDouble() < 0.9 ? agent : agentChoice.next(random);
+            generateContract(clientId, contractAgent, registered);
+        }
+    }
+
+    private void generateContract(long clientId, int agent, LocalDateTime registered) {
+        long contractId = nextContractId++;
+        int type = agentTypeChoice[agent].next(random);
+        long sinceRegistration = ChronoUnit.SECONDS.between(registered, now);
+        LocalDateTime createdAt = registered.plusSeconds((long) (random.nextDouble() * sinceRegistration));
+        LocalDate startDate = createdAt.toLocalDate().plusDays(random.nextInt(11));
+        int termYears = type == LIFE ? pick(random, new Integer[]{1, 3, 5, 5, 10}) : 1;
+        LocalDate endDate = startDate.plusYears(termYears);
+
+        String status;
+        if (ChronoUnit.DAYS.between(createdAt, now) < 3 && random.nextDouble() < 0.2) {
+            status = "DRAFT";
+        } else if (random.nextDouble() < 0.05) {
+            status = "TERMINATED";
+        } else {
+            status = endDate.isBefore(today) ? "EXPIRED" : "ACTIVE";
+        }
+
+        BigDecimal[] amounts = generateDetails(contractId, type, termYears, startDate);
+        BigDecimal insured = amounts[0];
+        BigDecimal premium = amounts[1];
+
+        String number = INSURANCE_TYPES[type] + "-" + createdAt.getYear() + "-" + String.format("%06d", nextContractNumber++);
+        writers.get("contract").row(contractId, number, clientId, INSURANCE_TYPES[type], agentIds[agent], status,
+                startDate, endDate, premium, insured, createdAt);
+
+        if (!"DRAFT".equals(status)) {
+            generatePayments(contractId, type, premium, startDate, termYears, status);
+            generateClaims(contractId, type, insured, startDate, endDate);
+        }
+    }
+
+    // Данные продукта; возвращает страховую сумму и премию, рассчитанные по ним
+    private BigDecimal[] generateDetails(long contractId, int type, int termYears, LocalDate startDate) {
+        long detailsId = nextDetailsId[type]++;
+        double insured;
+        double premium;
+        switch (type) {
+            case OSAGO -> {
+                int model = random.nextInt(SampleData.VEHICLE_MODELS.length);
+                int experience = Math.min(50, geometric(random, 9));
+                writers.get("osago_data").row(detailsId, contractId, licensePlate(), SampleData.VEHICLE_MODELS[model],
+                        vin(), experience);
+                // Лимит ответственности по ОСАГО фиксирован
+                insured = 400_000;
+                premium = Math.max(3_000, lognormal(random, 9_000, 0.35) * (experience < 3 ? 1.6 : 1));
+            }
+            case CASCO -> {
+                int model = random.nextInt(SampleData.VEHICLE_MODELS.length);
+                int age = Math.min(15, geometric(random, 3));
+                double cost = roundTo(SampleData.VEHICLE_PRICES[model] * Math.pow(0.9, age) * lognormal(random, 1, 0.1), 10_000);
+                boolean franchise = random.nextDouble() < 0.3;
+                double franchiseAmount = franchise ? pick(random, new Double[]{15_000d, 30_000d, 50_000d}) : 0;
+                writers.get("casco_data").row(detailsId, contractId, SampleData.VEHICLE_MODELS[model],
+                        startDate.getYear() - age, money(cost), franchise, money(franchiseAmount));
+                insured = cost;
+                double ageFactor = age < 3 ? 1.0 : age < 7 ? 1.1 : age < 12 ? 1.25 : 1.5;
+                premium = cost * 0.045 * ageFactor * (franchise ? 0.85 : 1) * lognormal(random, 1, 0.08);
+            }
+            case PROPERTY -> {
+                String propertyType = pick(random, SampleData.PROPERTY_TYPES);
+                double area = Math.round(lognormal(random, "Дом".equals(propertyType) ? 120 : 55, 0.4) * 10) / 10.0;
+                double cost = roundTo(area * lognormal(random, 150_000, 0.4), 10_000);
+                String address = pick(random, SampleData.CITIES) + ", " + pick(random, SampleData.STREETS)
+                        + ", д. " + (1 + random.nextInt(150));
+                writers.get("property_insurance_data").row(detailsId, contractId, propertyType, address,
+                        BigDecimal.valueOf(area).setScale(2, RoundingMode.HALF_UP),
+                        startDate.getYear() - random.nextInt(80), money(cost));
+                insured = cost;
+                premium = cost * 0.004 * lognormal(random, 1, 0.15);
+            }
+            default -> {
+                int age = 18 + random.nextInt(53);
+                String health = SampleData.HEALTH_STATUSES[HEALTH_CHOICE.next(random)];
+                boolean male = random.nextBoolean();
+                writers.get("life_insurance_data").row(detailsId, contractId,
+                        startDate.minusYears(age).minusDays(random.nextInt(365)), male ? "MALE" : "FEMALE",
+                        pick(random, SampleData.PROFESSIONS), health);
+                insured = roundTo(lognormal(random, 1_500_000, 0.6), 50_000);
+                double healthFactor = "GOOD".equals(health) ? 0.9 : "NORMAL".equals(health) ? 1.0 : 1.4;
+                premium = insured * 0.006 * termYears * healthFactor * Math.pow(age / 40.0, 1.5);
+            }
+        }
+        return new BigDecimal[]{money(Math.max(insured, 1_000)), money(premium)};
+    }
+
+    private void generatePayments(long contractId, int type, BigDecimal premium, LocalDate startDate, int termYears,
+                                  String status) {
+        int installments = type == OSAGO ? 1 : INSTALLMENTS[INSTALLMENT_CHOICE.next(random)];
+        if (type == LIFE) {
+            installments = Math.max(installments, termYears);
+        }
+        long monthsBetween = termYears * 12L / installments;
+        BigDecimal installment = premium.divide(BigDecimal.valueOf(installments), 2, RoundingMode.DOWN);
+        for (int i = 0; i < installments; i++) {
+            LocalDate paymentDate = startDate.plusMonths(i * monthsBetween);
+            boolean paid = !paymentDate.isAfter(today);
+            if (!paid && "TERMINATED".equals(status)) {
+                break;
+            }
+            // Последний взнос добирает остаток от округления
+            BigDecimal amount = i == installments - 1
+                    ? premium.subtract(installment.multiply(BigDecimal.valueOf(installments - 1)))
+                    : installment;
+            long paymentId = nextPaymentId++;
+            writers.get("payment").row(paymentId, contractId, amount, paymentDate, paid ? "PAID" : "PENDING",
+                    pick(random, SampleData.PAYMENT_METHODS), paid ? "TXN" + String.format("%010d", paymentId) : null);
+        }
+    }
+
+    private void generateClaims(long contractId, int type, BigDecimal insured, LocalDate startDate, LocalDate endDate) {
+        LocalDate coveredUntil = endDate.isBefore(today) ? endDate : today;
+        long coveredDays = ChronoUnit.DAYS.between(startDate, coveredUntil);
+        if (coveredDays <= 0) {
+            return;
+        }
+        int claims = poisson(CLAIM_RATES[type] * coveredDays / 365.0);
+        for (int i = 0; i < claims; i++) {
+            LocalDate incidentDate = startDate.plusDays(random.nextLong(coveredDays));
+            LocalDateTime createdAt = incidentDate.atTime(9 + random.nextInt(10), random.nextInt(60))
+                    .plusDays(random.nextInt(21));
+            if (createdAt.isAfter(now)) {
+                createdAt = now;
+            }
+            double claimed = Math.min(insured.doubleValue(), roundTo(lognormal(random, insured.doubleValue() * 0.05, 1.0), 100));
+            String status;
+            BigDecimal approved = null;
+            if (ChronoUnit.DAYS.between(createdAt, now) < 14) {
+                status = random.nextDouble() < 0.7 ? "NEW" : "IN_REVIEW";
+            } else {
+                double outcome = random.nextDouble();
+                if (outcome < 0.75) {
+                    status = "APPROVED";
+                    approved = money(claimed * (0.6 + 0.4 * random.nextDouble()));
+                } else {
+                    status = outcome < 0.9 ? "REJECTED" : "IN_REVIEW";
+                }
+            }
+            String number = "CLM-" + createdAt.getYear() + "-" + String.format("%06d", nextClaimNumber++);
+            writers.get("insurance_claim").row(nextClaimId++, contractId, number, incidentDate,
+                    pick(random, SampleData.CLAIM_DESCRIPTIONS), money(claimed), approved, status, createdAt);
+        }
+    }
+
+    // Последовательности и identity-колонки продолжаются за загруженными строками
+    private void advanceSequences(Connection connection) throws SQLException {
+        restartIdentity(connection, "users", agentIds.length > 0 ? agentIds[agentIds.length - 1] + 1 : maxId(connection, "users") + 1);
+        restartIdentity(connection, "client", nextClientId);
+        restartIdentity(connection, "payment", nextPaymentId);
+        restartIdentity(connection, "insurance_claim", nextClaimId);
+        restartIdentity(connection, "osago_data", nextDetailsId[OSAGO]);
+        restartIdentity(connection, "casco_data", nextDetailsId[CASCO]);
+        restartIdentity(connection, "property_insurance_data", nextDetailsId[PROPERTY]);
+        restartIdentity(connection, "life_insurance_data", nextDetailsId[LIFE]);
+        // contract_seq выдаёт верхнюю границу блока (как в contract-sequence-2)
+        restartSequence(connection, "contract_seq", nextContractId - 1 + CONTRACT_ID_BLOCK);
+        if (!postgres) {
+            restartIdentity(connection, "contract", nextContractId);
+        }
+        restartSequence(connection, "contract_number_seq", blockAfter(nextContractNumber - 1));
+        restartSequence(connection, "claim_number_seq", blockAfter(nextClaimNumber - 1));
+    }
+
+    // Верхняя граница первого блока номеров, целиком лежащего после last
+    private static long blockAfter(long last) {
+        return (Math.floorDiv(last + NUMBER_BLOCK - 1, NUMBER_BLOCK) + 1) * NUMBER_BLOCK;
+    }
+
+    // Тот же пересчёт, что и StatisticsAggregator.rebuild
+    private static void rebuildStatistics(Connection connection) throws SQLException {
+        execute(connection, "DELETE FROM contract_stats_daily");
+        execute(connection, """
+                INSERT INTO contract_stats_daily (agent_id, insurance_type_code, stat_date, contract_count, premium_sum)
+                SELECT COALESCE(agent_id, 0), COALESCE(insurance_type_code, ''), CAST(created_at AS DATE),
+                       COUNT(*), COALESCE(SUM(premium_amount), 0)
+                FROM contract
+                WHERE created_at IS NOT NULL
+                GROUP BY COALESCE(agent_id, 0), COALESCE(insurance_type_code, ''), CAST(created_at AS DATE)
+                """);
+        execute(connection, "DELETE FROM client_stats_daily");
+        execute(connection, """
+                INSERT INTO client_stats_daily (agent_id, stat_date, client_count)
+                SELECT COALESCE(agent_id, 0), CAST(registration_date AS DATE), COUNT(*)
+                FROM client
+                WHERE registration_date IS NOT NULL
+                GROUP BY COALESCE(agent_id, 0), CAST(registration_date AS DATE)
+                """);
+    }
+
+    private static void migrate(Connection connection) throws Exception {
+        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+        Scope.child(Scope.Attr.resourceAccessor.name(), new ClassLoaderResourceAccessor(), () ->
+                new CommandScope("update")
+                        .addArgumentValue("changelogFile", CHANGELOG)
+                        .addArgumentValue("database", database)
+                        .execute());
+    }
+
+    private String fullName(boolean male) {
+        String lastName = pick(random, SampleData.MALE_LAST_NAMES);
+        return male
+                ? lastName + " " + pick(random, SampleData.MALE_FIRST_NAMES) + " " + pick(random, SampleData.MALE_PATRONYMICS)
+                : lastName + "а " + pick(random, SampleData.FEMALE_FIRST_NAMES) + " " + pick(random, SampleData.FEMALE_PATRONYMICS);
+    }
+
+    private String licensePlate() {
+        return pick(random, SampleData.PLATE_LETTERS) + String.format("%03d", 1 + random.nextInt(999))
+                + pick(random, SampleData.PLATE_LETTERS) + pick(random, SampleData.PLATE_LETTERS)
+                + pick(random, SampleData.REGIONS);
+    }
+
+    private String vin() {
+        char[] vin = new char[17];
+        for (int i = 0; i < vin.length; i++) {
+            vin[i] = SampleData.VIN_CHARS.charAt(random.nextInt(SampleData.VIN_CHARS.length()));
+        }
+        return new String(vin);
+    }
+
+    private int poisson(double mean) {
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    private static double roundTo(double value, double step) {
+        return Math.max(step, Math.round(value / step) * step);
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private long nextValue(Connection connection, String sequence) throws SQLException {
+        return queryLong(connection, postgres ? "SELECT nextval('" + sequence + "')" : "SELECT NEXT VALUE FOR " + sequence);
+    }
+
+    private void restartSequence(Connection connection, String sequence, long value) throws SQLException {
+        execute(connection, postgres
+                ? "SELECT setval('" + sequence + "', " + value + ", false)"
+                : "ALTER SEQUENCE " + sequence + " RESTART WITH " + value);
+    }
+
+    private static void restartIdentity(Connection connection, String table, long value) throws SQLException {
+        execute(connection, "ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + value);
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        return queryLong(connection, "SELECT COALESCE(MAX(id), 0) FROM " + table);
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
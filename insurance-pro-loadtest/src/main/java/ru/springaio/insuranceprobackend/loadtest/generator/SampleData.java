@@ -0,0 +1,68 @@
+package ru.springaio.insuranceprobackend.loadtest.generator;
+
+// Словари для правдоподобных значений строк
+final class SampleData {
+
+    private SampleData() {
+    }
+
+    static final String[] MALE_LAST_NAMES = {
+            "Иванов", "Смирнов", "Кузнецов", "Попов", "Васильев", "Петров", "Соколов", "Михайлов", "Новиков",
+            "Фёдоров", "Морозов", "Волков", "Алексеев", "Лебедев", "Семёнов", "Егоров", "Павлов", "Козлов",
+            "Степанов", "Николаев", "Орлов", "Андреев", "Макаров", "Никитин", "Захаров", "Зайцев", "Соловьёв"
+    };
+    static final String[] MALE_FIRST_NAMES = {
+            "Александр", "Сергей", "Дмитрий", "Андрей", "Алексей", "Максим", "Евгений", "Иван", "Михаил",
+            "Николай", "Владимир", "Павел", "Артём", "Роман", "Олег", "Игорь", "Юрий", "Виктор"
+    };
+    static final String[] FEMALE_FIRST_NAMES = {
+            "Елена", "Ольга", "Наталья", "Анна", "Татьяна", "Мария", "Ирина", "Екатерина", "Светлана",
+            "Юлия", "Анастасия", "Марина", "Дарья", "Ксения", "Людмила", "Валентина"
+    };
+    static final String[] MALE_PATRONYMICS = {
+            "Александрович", "Сергеевич", "Дмитриевич", "Андреевич", "Алексеевич", "Иванович", "Михайлович",
+            "Николаевич", "Владимирович", "Петрович", "Викторович", "Юрьевич"
+    };
+    static final String[] FEMALE_PATRONYMICS = {
+            "Александровна", "Сергеевна", "Дмитриевна", "Андреевна", "Алексеевна", "Ивановна", "Михайловна",
+            "Николаевна", "Владимировна", "Петровна", "Викторовна", "Юрьевна"
+    };
+
+    // Популярные модели с медианной стоимостью нового автомобиля
+    static final String[] VEHICLE_MODELS = {
+            "Lada Vesta", "Lada Granta", "Kia Rio", "Hyundai Solaris", "Volkswagen Polo", "Skoda Octavia",
+            "Toyota Camry", "Kia Sportage", "Hyundai Creta", "Haval Jolion", "Chery Tiggo 7 Pro", "Geely Coolray",
+            "Renault Logan", "Toyota RAV4", "BMW X5", "Mercedes-Benz E-Class"
+    };
+    static final double[] VEHICLE_PRICES = {
+            1_400_000, 900_000, 1_700_000, 1_600_000, 1_800_000, 2_600_000,
+            3_900_000, 3_000_000, 2_500_000, 2_300_000, 2_800_000, 2_400_000,
+            1_200_000, 4_200_000, 11_000_000, 8_500_000
+    };
+    static final String[] PLATE_LETTERS = {"А", "В", "Е", "К", "М", "Н", "О", "Р", "С", "Т", "У", "Х"};
+    static final String[] REGIONS = {"77", "97", "177", "199", "50", "150", "78", "178", "16", "66", "54", "23"};
+    static final String VIN_CHARS = "ABCDEFGHJKLMNPRSTUVWXYZ0123456789";
+
+    static final String[] PROFESSIONS = {
+            "Инженер", "Менеджер", "Врач", "Учитель", "Программист", "Бухгалтер", "Водитель", "Юрист",
+            "Продавец", "Строитель", "Экономист", "Пенсионер"
+    };
+    static final String[] HEALTH_STATUSES = {"GOOD", "NORMAL", "POOR"};
+
+    static final String[] PROPERTY_TYPES = {"Квартира", "Дом", "Дача", "Коммерческая недвижимость"};
+    static final String[] CITIES = {
+            "г. Москва", "г. Санкт-Петербург", "г. Казань", "г. Екатеринбург", "г. Новосибирск",
+            "г. Краснодар", "г. Нижний Новгород", "г. Самара"
+    };
+    static final String[] STREETS = {
+            "ул. Ленина", "ул. Гагарина", "ул. Мира", "пр. Победы", "ул. Советская", "ул. Садовая",
+            "ул. Центральная", "ул. Молодёжная", "ул. Школьная", "Ленинградский пр."
+    };
+
+    static final String[] PAYMENT_METHODS = {"CARD", "BANK_TRANSFER", "CASH"};
+    static final String[] CLAIM_DESCRIPTIONS = {
+            "ДТП с участием второго автомобиля", "Повреждение при парковке", "Угон транспортного средства",
+            "Повреждение стекла", "Залив квартиры соседями", "Пожар", "Кража имущества",
+            "Травма", "Госпитализация", "Стихийное бедствие"
+    };
+}
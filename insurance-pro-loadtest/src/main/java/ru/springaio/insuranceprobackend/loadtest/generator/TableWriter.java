@@ -0,0 +1,27 @@
+package ru.springaio.insuranceprobackend.loadtest.generator;
+
+import org.postgresql.PGConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+// Буфер строк одной таблицы. Строки копятся в памяти и пишутся в БД при flush —
+// DataGenerator сбрасывает таблицы порциями в порядке внешних ключей и фиксирует транзакцию
+interface TableWriter {
+
+    void row(Object... values);
+
+    // Записывает накопленные строки; возвращает их число
+    int flush() throws SQLException;
+
+    long total();
+
+    // COPY ... FROM STDIN на PostgreSQL, пакетный INSERT на остальных БД
+    static TableWriter create(Connection connection, boolean copy, int batchSize, String table, List<String> columns)
+            throws SQLException {
+        return copy
+                ? new CopyTableWriter(connection.unwrap(PGConnection.class).getCopyAPI(), table, columns)
+                : new BatchTableWriter(connection, batchSize, table, columns);
+    }
+}
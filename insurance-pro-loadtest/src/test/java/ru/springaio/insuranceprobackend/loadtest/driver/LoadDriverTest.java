@@ -0,0 +1,39 @@
+package ru.springaio.insuranceprobackend.loadtest.driver;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.springaio.insuranceprobackend.loadtest.Options;
+import ru.springaio.insuranceprobackend.loadtest.generator.DataGenerator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadDriverTest {
+
+    private static final String URL = "jdbc:h2:mem:load-driver;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+            + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void sessionsOutliveAccessTokenLifetime() throws Exception {
+        // Access-токен живёт секунду, прогон — четыре: каждая сессия несколько раз получает 401
+        // и продолжает работу через /api/auth/refresh без повторного входа
+        try (ConfigurableApplicationContext backend = ServingModeBenchmark.startBackend(URL, "--jwt.expiration=1000")) {
+            try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+                new DataGenerator(new Options("clients=200", "agents=4")).run(connection);
+            }
+            String port = backend.getEnvironment().getProperty("local.server.port");
+
+            ObjectNode result = LoadDriver.run(new Options("base-url=http://localhost:" + port, "sessions=4",
+                    "agents=4", "warmup=0", "duration=4", "mix=search:50,statistics:15,create:15,update:15"));
+
+            assertThat(result.path("total").path("count").asLong()).isPositive();
+            assertThat(result.path("total").path("errors").asLong()).isZero();
+            assertThat(backend.getBean(MeterRegistry.class).counter("jwt.validations", "result", "expired").count())
+                    .isPositive();
+        }
+    }
+}
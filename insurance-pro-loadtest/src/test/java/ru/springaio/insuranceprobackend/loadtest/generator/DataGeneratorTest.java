@@ -0,0 +1,84 @@
+package ru.springaio.insuranceprobackend.loadtest.generator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.springaio.insuranceprobackend.loadtest.Options;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataGeneratorTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:generator;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    void fillsConsistentSchemaAndAppendsOnRerun() throws Exception {
+        DataGenerator.Summary first = new DataGenerator(new Options("migrate=true", "agents=5", "clients=300",
+                "chunk=100", "batch-size=64")).run(connection);
+        assertThat(first.rows().get("users")).isEqualTo(5);
+        assertThat(first.rows().get("client")).isEqualTo(300);
+        assertThat(first.rows().get("contract")).isGreaterThanOrEqualTo(300);
+
+        // Повторный запуск добавляет строки за уже загруженными, не нарушая уникальность
+        new DataGenerator(new Options("agents=5", "clients=200", "agent-prefix=second-", "seed=7")).run(connection);
+
+        assertThat(count("SELECT COUNT(*) FROM client WHERE email LIKE 'client%@example.ru'")).isEqualTo(500);
+        // У каждого договора ровно одна строка данных продукта своего вида
+        assertThat(count("""
+                SELECT COUNT(*) FROM contract c
+                WHERE (SELECT COUNT(*) FROM osago_data d WHERE d.contract_id = c.id)
+                    + (SELECT COUNT(*) FROM casco_data d WHERE d.contract_id = c.id)
+                    + (SELECT COUNT(*) FROM property_insurance_data d WHERE d.contract_id = c.id)
+                    + (SELECT COUNT(*) FROM life_insurance_data d WHERE d.contract_id = c.id) <> 1
+                """)).isZero();
+        assertThat(count("SELECT COUNT(*) FROM contract c JOIN osago_data d ON d.contract_id = c.id "
+                + "WHERE c.insurance_type_code <> 'OSAGO'")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM contract WHERE status_code = 'DRAFT' AND id IN "
+                + "(SELECT contract_id FROM payment)")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM payment")).isPositive();
+        assertThat(count("SELECT COUNT(*) FROM insurance_claim")).isPositive();
+
+        // Агрегаты статистики совпадают с исходными таблицами
+        assertThat(count("SELECT SUM(contract_count) FROM contract_stats_daily"))
+                .isEqualTo(count("SELECT COUNT(*) FROM contract WHERE created_at IS NOT NULL"));
+        assertThat(count("SELECT SUM(client_count) FROM client_stats_daily"))
+                .isEqualTo(count("SELECT COUNT(*) FROM client WHERE registration_date IS NOT NULL"));
+
+        // Приложение продолжает выдачу идентификаторов и номеров за загруженными
+        long maxClientId = count("SELECT MAX(id) FROM client");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO client (full_name, phone, phone_digits) VALUES ('Новый Клиент', '+7 000', '7000')");
+        }
+        assertThat(count("SELECT id FROM client WHERE phone = '+7 000'")).isGreaterThan(maxClientId);
+        assertThat(count("SELECT NEXT VALUE FOR contract_seq") - 49).isGreaterThan(count("SELECT MAX(id) FROM contract"));
+        long lastContractNumber = count("SELECT MAX(CAST(SUBSTRING(contract_number, LENGTH(contract_number) - 5) AS BIGINT)) FROM contract");
+        assertThat(count("SELECT NEXT VALUE FOR contract_number_seq") - 99).isGreaterThan(lastContractNumber);
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}